@@ -0,0 +1,134 @@
+package ch.quizinno.brainquest.caches;
+
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.models.AnswerKey;
+import ch.quizinno.brainquest.repositories.AnswerRepository;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the answer keys of the questions.
+ * Answers are checked and jokers are chosen from the key, so the question and its answers are not loaded per request.
+ * A key holds the IDs, the topic and the info of the question, the questions and answers shown are cached by the QuizQuestionPayloadCache.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class AnswerKeyCache {
+
+    /**
+     * Maximum number of cached answer keys.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${ANSWER_KEY_CACHE_SIZE:10000}")
+    private int maxSize = 10000;
+
+    /**
+     * Repository for managing questions.
+     */
+    private final QuestionRepository questionRepository;
+    /**
+     * Repository for managing answers.
+     */
+    private final AnswerRepository answerRepository;
+    /**
+     * Cached answer keys by question ID.
+     */
+    private final ConcurrentHashMap<Long, AnswerKey> answerKeys = new ConcurrentHashMap<>();
+    /**
+     * Incremented on every invalidation, keys loaded during an invalidation are not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a new AnswerKeyCache.
+     *
+     * @param questionRepository the repository to manage questions
+     * @param answerRepository   the repository to manage answers
+     */
+    public AnswerKeyCache(QuestionRepository questionRepository, AnswerRepository answerRepository) {
+        this.questionRepository = questionRepository;
+        this.answerRepository = answerRepository;
+    }
+
+    /**
+     * Retrieves the answer key of a question.
+     *
+     * @param questionId the ID of the question
+     * @return the answer key of the question
+     */
+    public AnswerKey getAnswerKey(Long questionId) {
+        AnswerKey cached = answerKeys.get(questionId);
+        if (cached == null) {
+            long loadedGeneration = generation.get();
+            cached = load(questionId);
+            evictIfFull();
+            // do not cache keys which may have been invalidated while loading
+            if (generation.get() == loadedGeneration) {
+                answerKeys.put(questionId, cached);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Removes the answer key of a question.
+     *
+     * @param questionId the ID of the question
+     */
+    public void invalidateQuestion(Long questionId) {
+        if (questionId != null) {
+            generation.incrementAndGet();
+            answerKeys.remove(questionId);
+        }
+    }
+
+    /**
+     * Removes all answer keys.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        answerKeys.clear();
+    }
+
+    /**
+     * Loads a question and its answers and builds the answer key.
+     *
+     * @param questionId the ID of the question
+     * @return the answer key
+     */
+    private AnswerKey load(Long questionId) {
+        Question question = questionRepository.findById(questionId).orElseThrow(() -> new RuntimeException("Question not found with id " + questionId));
+        List<Answer> answers = answerRepository.findByQuestion(question);
+
+        long[] answerIds = new long[answers.size()];
+        int correctIndex = -1;
+        for (int i = 0; i < answers.size(); i++) {
+            Answer answer = answers.get(i);
+            answerIds[i] = answer.getId();
+            if (answer.isCorrect() && correctIndex < 0) {
+                correctIndex = i;
+            }
+        }
+
+        Long topicId = question.getTopic() != null ? question.getTopic().getId() : null;
+        return new AnswerKey(questionId, answerIds, correctIndex, question.getDifficulty(), topicId, question.getInfo());
+    }
+
+    /**
+     * Removes an arbitrary entry once the cache is full.
+     */
+    private void evictIfFull() {
+        Iterator<Long> keys = answerKeys.keySet().iterator();
+        while (answerKeys.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
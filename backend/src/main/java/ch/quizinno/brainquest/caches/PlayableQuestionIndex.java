@@ -0,0 +1,147 @@
+package ch.quizinno.brainquest.caches;
+
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the playable question IDs per topic and difficulty.
+ * The pools are loaded from the playable flags of the questions, which are maintained on every write of their answers.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class PlayableQuestionIndex {
+
+    /**
+     * Key of the index.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     */
+    private record IndexKey(Long topicId, Difficulty difficulty) {
+    }
+
+    /**
+     * Repository for managing questions.
+     */
+    private final QuestionRepository questionRepository;
+    /**
+     * Sorted playable question IDs per topic and difficulty.
+     * The arrays are never modified, writes replace them with a copy.
+     */
+    private final ConcurrentHashMap<IndexKey, long[]> index = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new PlayableQuestionIndex with the specified repository.
+     *
+     * @param questionRepository the repository to manage questions
+     */
+    public PlayableQuestionIndex(QuestionRepository questionRepository) {
+        this.questionRepository = questionRepository;
+    }
+
+    /**
+     * Retrieves the playable question IDs for a topic and difficulty.
+     * The pool is loaded from the database on first access only.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     * @return the sorted playable question IDs, must not be modified by the caller
+     */
+    public long[] getPlayableQuestionIds(Long topicId, Difficulty difficulty) {
+        return index.computeIfAbsent(new IndexKey(topicId, difficulty), key ->
+                // load the pool once with a single query and keep it as primitive array
+                questionRepository.findPlayableIdsByTopicIdAndDifficulty(key.topicId(), key.difficulty()).stream()
+                        .mapToLong(Long::longValue)
+                        .sorted()
+                        .toArray());
+    }
+
+    /**
+     * Re-evaluates whether a question is playable and updates the index accordingly.
+     *
+     * @param questionId the ID of the question to refresh
+     */
+    public void refresh(Long questionId) {
+        if (questionId == null) {
+            return;
+        }
+
+        // the question may have been moved or deleted in the meantime
+        Question question = questionRepository.findById(questionId).orElse(null);
+        if (question == null || question.getTopic() == null || question.getDifficulty() == null) {
+            return;
+        }
+
+        if (question.isPlayable()) {
+            add(question.getTopic().getId(), question.getDifficulty(), questionId);
+        } else {
+            remove(question.getTopic().getId(), question.getDifficulty(), questionId);
+        }
+    }
+
+    /**
+     * Adds a question to the index of a topic and difficulty.
+     * Pools which have not been loaded yet are left untouched, they will be loaded from the database.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the question
+     * @param questionId the ID of the question
+     */
+    public void add(Long topicId, Difficulty difficulty, Long questionId) {
+        if (topicId == null || difficulty == null || questionId == null) {
+            return;
+        }
+
+        index.computeIfPresent(new IndexKey(topicId, difficulty), (key, ids) -> {
+            int pos = Arrays.binarySearch(ids, questionId);
+            if (pos >= 0) {
+                // already indexed
+                return ids;
+            }
+            // insert the ID at its sorted position
+            int insert = -pos - 1;
+            long[] copy = new long[ids.length + 1];
+            System.arraycopy(ids, 0, copy, 0, insert);
+            copy[insert] = questionId;
+            System.arraycopy(ids, insert, copy, insert + 1, ids.length - insert);
+            return copy;
+        });
+    }
+
+    /**
+     * Removes a question from the index of a topic and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the question
+     * @param questionId the ID of the question
+     */
+    public void remove(Long topicId, Difficulty difficulty, Long questionId) {
+        if (topicId == null || difficulty == null || questionId == null) {
+            return;
+        }
+
+        index.computeIfPresent(new IndexKey(topicId, difficulty), (key, ids) -> {
+            int pos = Arrays.binarySearch(ids, questionId);
+            if (pos < 0) {
+                // not indexed
+                return ids;
+            }
+            long[] copy = new long[ids.length - 1];
+            System.arraycopy(ids, 0, copy, 0, pos);
+            System.arraycopy(ids, pos + 1, copy, pos, ids.length - pos - 1);
+            return copy;
+        });
+    }
+
+    /**
+     * Clears the index, all pools will be loaded from the database again.
+     */
+    public void clear() {
+        index.clear();
+    }
+}
@@ -0,0 +1,235 @@
+package ch.quizinno.brainquest.caches;
+
+import ch.quizinno.brainquest.dtos.QuizAnswerDTO;
+import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.mappers.QuestionMapper;
+import ch.quizinno.brainquest.repositories.AnswerRepository;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the serialized quiz questions.
+ * Every question is stored as ready-to-write JSON once per order of its answers (24 orders for 4 answers),
+ * so serving a quiz question only means picking one of the orders.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class QuizQuestionPayloadCache {
+
+    /**
+     * Serialized payloads of a question.
+     *
+     * @param topicId       the ID of the topic of the question
+     * @param quizQuestion  the question with its answers in the order they were loaded
+     * @param quizQuestions the question, one per order of its answers
+     * @param permutations  the JSON of the question, one per order of its answers
+     */
+    private record Payloads(Long topicId, QuizQuestionDTO quizQuestion, QuizQuestionDTO[] quizQuestions, byte[][] permutations) {
+    }
+
+    /**
+     * Maximum number of cached questions.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${QUIZ_PAYLOAD_CACHE_SIZE:2000}")
+    private int maxSize = 2000;
+
+    /**
+     * Repository for managing questions.
+     */
+    private final QuestionRepository questionRepository;
+    /**
+     * Repository for managing answers.
+     */
+    private final AnswerRepository answerRepository;
+    /**
+     * Mapper for mapping questions to DTOs.
+     */
+    private final QuestionMapper questionMapper;
+    /**
+     * Jackson object mapper to serialize the questions.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Cached payloads by question ID.
+     */
+    private final ConcurrentHashMap<Long, Payloads> payloads = new ConcurrentHashMap<>();
+    /**
+     * Incremented on every invalidation, payloads loaded during an invalidation are not cached.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs a new QuizQuestionPayloadCache.
+     *
+     * @param questionRepository the repository to manage questions
+     * @param answerRepository   the repository to manage answers
+     * @param questionMapper     the mapper to map questions to DTOs
+     * @param objectMapper       the object mapper to serialize the questions
+     */
+    public QuizQuestionPayloadCache(QuestionRepository questionRepository, AnswerRepository answerRepository, QuestionMapper questionMapper, ObjectMapper objectMapper) {
+        this.questionRepository = questionRepository;
+        this.answerRepository = answerRepository;
+        this.questionMapper = questionMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Retrieves the JSON of a quiz question with its answers in random order.
+     *
+     * @param questionId the ID of the question
+     * @return the serialized QuizQuestionDTO
+     */
+    public byte[] getPayload(Long questionId) {
+        // choose one of the pre-shuffled orders
+        byte[][] permutations = getPayloads(questionId).permutations();
+        return permutations[ThreadLocalRandom.current().nextInt(permutations.length)];
+    }
+
+    /**
+     * Retrieves a quiz question with its answers in random order, e.g. to return it within another DTO.
+     * The question is shared by all callers and must not be modified.
+     *
+     * @param questionId the ID of the question
+     * @return the quiz question
+     */
+    public QuizQuestionDTO getShuffledQuizQuestion(Long questionId) {
+        // choose one of the pre-shuffled orders
+        QuizQuestionDTO[] quizQuestions = getPayloads(questionId).quizQuestions();
+        return quizQuestions[ThreadLocalRandom.current().nextInt(quizQuestions.length)];
+    }
+
+    /**
+     * Retrieves a quiz question with its answers in the order they were loaded, e.g. to build a joker.
+     * The question is shared by all callers and must not be modified.
+     *
+     * @param questionId the ID of the question
+     * @return the quiz question
+     */
+    public QuizQuestionDTO getQuizQuestion(Long questionId) {
+        return getPayloads(questionId).quizQuestion();
+    }
+
+    /**
+     * Removes the payloads of a question.
+     *
+     * @param questionId the ID of the question
+     */
+    public void invalidateQuestion(Long questionId) {
+        if (questionId != null) {
+            generation.incrementAndGet();
+            payloads.remove(questionId);
+        }
+    }
+
+    /**
+     * Removes the payloads of all questions of a topic.
+     *
+     * @param topicId the ID of the topic
+     */
+    public void invalidateTopic(Long topicId) {
+        generation.incrementAndGet();
+        payloads.values().removeIf(cached -> cached.topicId() != null && cached.topicId().equals(topicId));
+    }
+
+    /**
+     * Removes all payloads.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        payloads.clear();
+    }
+
+    /**
+     * Retrieves the cached payloads of a question, they are loaded if not cached.
+     *
+     * @param questionId the ID of the question
+     * @return the payloads of the question
+     */
+    private Payloads getPayloads(Long questionId) {
+        Payloads cached = payloads.get(questionId);
+        if (cached == null) {
+            long loadedGeneration = generation.get();
+            cached = load(questionId);
+            evictIfFull();
+            // do not cache payloads which may have been invalidated while loading
+            if (generation.get() == loadedGeneration) {
+                payloads.put(questionId, cached);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Loads a question and serializes it once for every order of its answers.
+     *
+     * @param questionId the ID of the question
+     * @return the serialized payloads
+     */
+    private Payloads load(Long questionId) {
+        Question question = questionRepository.findById(questionId).orElseThrow(() -> new RuntimeException("Question not found with id " + questionId));
+        // map answers to QuizAnswerDTO
+        List<QuizAnswerDTO> answers = answerRepository.findByQuestion(question).stream()
+                .map(questionMapper::answerToQuizAnswerDTO)
+                .toList();
+
+        List<List<QuizAnswerDTO>> orders = new ArrayList<>();
+        permute(new ArrayList<>(answers), 0, orders);
+
+        QuizQuestionDTO[] quizQuestions = new QuizQuestionDTO[orders.size()];
+        byte[][] permutations = new byte[orders.size()][];
+        try {
+            for (int i = 0; i < orders.size(); i++) {
+                quizQuestions[i] = questionMapper.questionToQuizQuestionDTO(question, orders.get(i));
+                permutations[i] = objectMapper.writeValueAsBytes(quizQuestions[i]);
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing question with id " + questionId, e);
+        }
+
+        Long topicId = question.getTopic() != null ? question.getTopic().getId() : null;
+        return new Payloads(topicId, questionMapper.questionToQuizQuestionDTO(question, answers), quizQuestions, permutations);
+    }
+
+    /**
+     * Collects all orders of the answers by swapping them in place.
+     *
+     * @param answers the answers to order
+     * @param start   the first position which is not fixed yet
+     * @param orders  the list the orders are added to
+     */
+    private void permute(List<QuizAnswerDTO> answers, int start, List<List<QuizAnswerDTO>> orders) {
+        if (start >= answers.size() - 1) {
+            orders.add(List.copyOf(answers));
+            return;
+        }
+        for (int i = start; i < answers.size(); i++) {
+            Collections.swap(answers, start, i);
+            permute(answers, start + 1, orders);
+            Collections.swap(answers, start, i);
+        }
+    }
+
+    /**
+     * Removes an arbitrary entry once the cache is full.
+     */
+    private void evictIfFull() {
+        Iterator<Long> keys = payloads.keySet().iterator();
+        while (payloads.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ch.quizinno.brainquest.caches;
+
+import ch.quizinno.brainquest.dtos.TopicDTO;
+import ch.quizinno.brainquest.dtos.TopicDifficultyDTO;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.mappers.TopicMapper;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the topic catalog, the list of all topics with the difficulties of their playable questions.
+ * The catalog has a version which is incremented by every write of topics, questions and answers,
+ * the catalog is loaded and serialized once per version.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class TopicCatalogCache {
+
+    /**
+     * A loaded topic catalog.
+     *
+     * @param version the version the catalog was loaded for
+     * @param topics  the topics with their difficulties
+     * @param json    the topics serialized as JSON array
+     * @param etag    the quoted entity tag of the JSON, equal for equal catalogs
+     */
+    public record Catalog(long version, List<TopicDTO> topics, byte[] json, String etag) {
+    }
+
+    /**
+     * Repository for managing topics.
+     */
+    private final TopicRepository topicRepository;
+    /**
+     * Mapper for mapping topics to DTOs.
+     */
+    private final TopicMapper topicMapper;
+    /**
+     * Jackson object mapper to serialize the catalog.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Version of the catalog, incremented on every invalidation.
+     */
+    private final AtomicLong version = new AtomicLong();
+    /**
+     * The catalog of the current version, null if not loaded yet.
+     */
+    private volatile Catalog catalog;
+
+    /**
+     * Constructs a new TopicCatalogCache.
+     *
+     * @param topicRepository the repository to manage topics
+     * @param topicMapper     the mapper to map topics to DTOs
+     * @param objectMapper    the object mapper to serialize the catalog
+     */
+    public TopicCatalogCache(TopicRepository topicRepository, TopicMapper topicMapper, ObjectMapper objectMapper) {
+        this.topicRepository = topicRepository;
+        this.topicMapper = topicMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Retrieves the catalog of the current version, it is loaded if the catalog has changed since the last call.
+     *
+     * @return the catalog
+     */
+    public Catalog getCatalog() {
+        Catalog cached = catalog;
+        long currentVersion = version.get();
+        if (cached != null && cached.version() == currentVersion) {
+            return cached;
+        }
+
+        // a catalog loaded during an invalidation has an outdated version and is loaded again by the next call
+        Catalog loaded = load(currentVersion);
+        catalog = loaded;
+        return loaded;
+    }
+
+    /**
+     * Retrieves the current version of the catalog.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Increments the version of the catalog after a write of topics, questions or answers.
+     * Within a transaction the version is incremented again after commit or rollback,
+     * so a catalog loaded before the write is visible is not kept.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads all topics with the difficulties of their playable questions and serializes them.
+     * The topics and difficulties are read with a single query, grouped by the database.
+     *
+     * @param loadedVersion the version the catalog is loaded for
+     * @return the catalog
+     */
+    private Catalog load(long loadedVersion) {
+        // collect the difficulties per topic, the rows are ordered by topic
+        Map<Topic, List<Difficulty>> difficultiesByTopic = new LinkedHashMap<>();
+        for (TopicDifficultyDTO row : topicRepository.findAllWithPlayableDifficulties()) {
+            List<Difficulty> difficulties = difficultiesByTopic.computeIfAbsent(row.getTopic(), topic -> new ArrayList<>());
+            if (row.getDifficulty() != null) {
+                difficulties.add(row.getDifficulty());
+            }
+        }
+
+        // map each topic to a TopicDTO with its difficulties in the order of the Difficulty enum
+        List<TopicDTO> topicDTOs = new ArrayList<>();
+        difficultiesByTopic.forEach((topic, difficulties) -> {
+            difficulties.sort(Comparator.naturalOrder());
+            topicDTOs.add(topicMapper.topicToTopicDTO(topic, difficulties));
+        });
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(topicDTOs);
+            // derived from the content, so the tag stays valid across restarts and instances
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            return new Catalog(loadedVersion, List.copyOf(topicDTOs), json, etag);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing the topic catalog", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ch.quizinno.brainquest.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling configuration class.
+ */
+// This annotation indicates that this class contains configuration methods.
+@Configuration
+// This annotation enables the execution of @Scheduled methods.
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -72,11 +72,19 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/topics").permitAll()
                         .requestMatchers("/api/topics/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/questions/quiz-question").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/questions/quiz-questions").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/questions/{id}/correct").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/questions/{id}/round").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/questions/{id}/joker").permitAll()
                         .requestMatchers("/api/questions/**").authenticated()
+                        .requestMatchers("/api/quiz-sessions/**").permitAll()
                         .requestMatchers("/api/answers/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/highscores").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/highscores/page").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/highscores/leaderboard").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/highscores/live").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/highscores/rank").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/highscores/around").permitAll()
                         .requestMatchers("/api/highscores/**").authenticated()
                         .requestMatchers("/api/auth/**").permitAll()
                         .anyRequest().authenticated()
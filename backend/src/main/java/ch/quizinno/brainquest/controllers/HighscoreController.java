@@ -1,9 +1,16 @@
 package ch.quizinno.brainquest.controllers;
 
+import ch.quizinno.brainquest.dtos.HighscorePageDTO;
+import ch.quizinno.brainquest.dtos.HighscoreRankDTO;
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.dtos.RankedHighscoreDTO;
 import ch.quizinno.brainquest.entities.Highscore;
 import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.ExportFormat;
+import ch.quizinno.brainquest.enums.LeaderboardWindow;
 import ch.quizinno.brainquest.enums.SortBy;
 import ch.quizinno.brainquest.enums.SortDir;
+import ch.quizinno.brainquest.services.HighscoreLiveUpdates;
 import ch.quizinno.brainquest.services.HighscoreService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -13,9 +20,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
@@ -33,14 +47,20 @@ public class HighscoreController {
      * Service for managing highscores.
      */
     private final HighscoreService highscoreService;
+    /**
+     * Live updates of the leaderboards.
+     */
+    private final HighscoreLiveUpdates highscoreLiveUpdates;
 
     /**
      * Constructs a new HighscoreController with the specified HighscoreService.
      *
-     * @param highscoreService the service to manage highscores
+     * @param highscoreService     the service to manage highscores
+     * @param highscoreLiveUpdates the live updates of the leaderboards
      */
-    public HighscoreController(HighscoreService highscoreService) {
+    public HighscoreController(HighscoreService highscoreService, HighscoreLiveUpdates highscoreLiveUpdates) {
         this.highscoreService = highscoreService;
+        this.highscoreLiveUpdates = highscoreLiveUpdates;
     }
 
     /**
@@ -61,36 +81,253 @@ public class HighscoreController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Return all highscores",
                     content = {
-                            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Highscore.class))),
+                            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = HighscoreSummaryDTO.class))),
                     }),
     })
-    public ResponseEntity<List<Highscore>> getAllHighscores(@RequestParam(required = false) Long topicId, @RequestParam(required = false) Difficulty difficulty,
-                                                            @RequestParam(required = false, defaultValue = "ID") SortBy sortBy,
-                                                            @RequestParam(required = false, defaultValue = "ASC") SortDir sortDir,
-                                                            @RequestParam(required = false) Integer limit) {
-        // initialize return variable
-        List<Highscore> highscores;
-
-        if (topicId != null && difficulty != null) {
-            // return answers by question
-            highscores = highscoreService.getHighscoresByTopicIdAndDifficulty(topicId, difficulty);
-        } else if (topicId != null || difficulty != null) {
+    public ResponseEntity<List<HighscoreSummaryDTO>> getAllHighscores(@RequestParam(required = false) Long topicId, @RequestParam(required = false) Difficulty difficulty,
+                                                                      @RequestParam(required = false, defaultValue = "ID") SortBy sortBy,
+                                                                      @RequestParam(required = false, defaultValue = "ASC") SortDir sortDir,
+                                                                      @RequestParam(required = false) Integer limit) {
+        if ((topicId == null) != (difficulty == null)) {
             // either both topicId and difficulty or none of it must be provided
             return ResponseEntity.badRequest().build();
-        } else {
-            // get all highscores
-            highscores = highscoreService.getAllHighscores();
         }
 
-        // sort highscores
-        highscores = highscoreService.sortHighscores(highscores, sortDir, sortBy);
+        // filter, sort and limit highscores in the database
+        List<HighscoreSummaryDTO> highscores = highscoreService.getHighscores(topicId, difficulty, sortBy, sortDir, limit);
+
+        return ResponseEntity.ok(highscores);
+    }
+
+    /**
+     * Retrieves a page of sorted highscores.
+     *
+     * @param topicId    the ID of the topic to filter by
+     * @param difficulty the difficulty to filter by
+     * @param sortBy     the field to sort by
+     * @param sortDir    the direction to sort by
+     * @param cursor     the cursor of the previous page, empty for the first page
+     * @param limit      the maximum number of highscores of the page
+     * @return the page of highscores with the cursor of the next page
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/page")
+    // Swagger annotation to describe the API endpoint for getting a page of highscores.
+    @Operation(summary = "Get a page of highscores", description = "Retrieve sorted highscores page by page, the next page is requested with the returned cursor")
+    // Swagger annotation to describe the API response for getting a page of highscores.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the highscores of the page and the cursor of the next page",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = HighscorePageDTO.class))
+                    }),
+    })
+    public ResponseEntity<HighscorePageDTO> getHighscorePage(@RequestParam(required = false) Long topicId, @RequestParam(required = false) Difficulty difficulty,
+                                                             @RequestParam(required = false, defaultValue = "ID") SortBy sortBy,
+                                                             @RequestParam(required = false, defaultValue = "ASC") SortDir sortDir,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false, defaultValue = "20") int limit) {
+        if ((topicId == null) != (difficulty == null)) {
+            // either both topicId and difficulty or none of it must be provided
+            return ResponseEntity.badRequest().build();
+        }
 
-        if (limit != null) {
-            // limit highscores
-            highscores = highscoreService.limitHighscores(highscores, limit);
+        try {
+            return ResponseEntity.ok(highscoreService.getHighscorePage(topicId, difficulty, sortBy, sortDir, cursor, limit));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && (e.getMessage().contains("Invalid cursor") || e.getMessage().contains("Limit must be"))) {
+                // invalid cursor or limit
+                return ResponseEntity.badRequest().build();
+            }
+            throw e;
         }
+    }
 
-        return ResponseEntity.ok(highscores);
+    /**
+     * Exports all highscores as NDJSON or CSV file.
+     *
+     * @param format the format of the export
+     * @return the export, written while the highscores are read
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/export")
+    // Swagger annotation to describe the API endpoint for exporting all highscores.
+    @Operation(summary = "Export all highscores", description = "Stream all highscores ordered by ID as NDJSON or CSV file", security = @SecurityRequirement(name = "bearerAuth"))
+    // Swagger annotation to describe the API response for exporting all highscores.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the highscores, one per line",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv"),
+                    }),
+    })
+    public ResponseEntity<StreamingResponseBody> exportHighscores(@RequestParam(required = false, defaultValue = "NDJSON") ExportFormat format) {
+        MediaType mediaType = format == ExportFormat.CSV ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON;
+        String fileName = format == ExportFormat.CSV ? "highscores.csv" : "highscores.ndjson";
+
+        // the highscores are written on an async thread, so the request thread is not blocked for the whole export
+        StreamingResponseBody body = outputStream -> highscoreService.exportHighscores(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    /**
+     * Exports the highscores moved to the archive as NDJSON file.
+     *
+     * @param from       the first month, empty for all months before the end
+     * @param to         the last month, empty for all months after the start
+     * @param topicId    the ID of the topic to filter by
+     * @param difficulty the difficulty to filter by
+     * @return the export, written while the archive is read
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/archive")
+    // Swagger annotation to describe the API endpoint for exporting the archived highscores.
+    @Operation(summary = "Export archived highscores", description = "Stream the highscores moved to the archive, created in a range of months (yyyy-MM), as NDJSON file", security = @SecurityRequirement(name = "bearerAuth"))
+    // Swagger annotation to describe the API response for exporting the archived highscores.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the archived highscores, one per line",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                    }),
+    })
+    public ResponseEntity<StreamingResponseBody> exportArchivedHighscores(@RequestParam(required = false) YearMonth from,
+                                                                          @RequestParam(required = false) YearMonth to,
+                                                                          @RequestParam(required = false) Long topicId,
+                                                                          @RequestParam(required = false) Difficulty difficulty) {
+        if (from != null && to != null && from.isAfter(to)) {
+            // the range must not end before it starts
+            return ResponseEntity.badRequest().build();
+        }
+
+        // the highscores are written on an async thread, so the request thread is not blocked while the archive is read
+        StreamingResponseBody body = outputStream -> highscoreService.exportArchivedHighscores(from, to, topicId, difficulty, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"highscores-archive.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Retrieves the daily, weekly or all-time leaderboard of a topic and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param window     the window of the leaderboard
+     * @param date       a date in the day or week, empty for the current day or week
+     * @param limit      the maximum number of highscores
+     * @return the best highscores of the window
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/leaderboard")
+    // Swagger annotation to describe the API endpoint for getting a leaderboard.
+    @Operation(summary = "Get a daily, weekly or all-time leaderboard", description = "Retrieve the best highscores of a topic and difficulty created on a day, in a week or of all time")
+    // Swagger annotation to describe the API response for getting a leaderboard.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the best highscores of the window",
+                    content = {
+                            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = HighscoreSummaryDTO.class)))
+                    }),
+    })
+    public ResponseEntity<List<HighscoreSummaryDTO>> getLeaderboard(@RequestParam Long topicId, @RequestParam Difficulty difficulty,
+                                                                    @RequestParam(required = false, defaultValue = "DAILY") LeaderboardWindow window,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                    @RequestParam(required = false, defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(highscoreService.getLeaderboard(topicId, difficulty, window, date, limit));
+        } catch (RuntimeException e) {
+            // invalid limit
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Subscribes to the best highscores of a topic and difficulty, sent when subscribed and whenever they change.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @return the stream of the leaderboard events
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping(path = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    // Swagger annotation to describe the API endpoint for subscribing to a leaderboard.
+    @Operation(summary = "Subscribe to a leaderboard", description = "Stream the best highscores of a topic and difficulty as Server-Sent Events, sent when subscribed and at most once per interval when they change")
+    // Swagger annotation to describe the API response for subscribing to a leaderboard.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the stream of leaderboard events",
+                    content = {
+                            @Content(mediaType = "text/event-stream")
+                    }),
+    })
+    public ResponseEntity<SseEmitter> subscribeLeaderboard(@RequestParam Long topicId, @RequestParam Difficulty difficulty) {
+        try {
+            return ResponseEntity.ok(highscoreLiveUpdates.subscribe(topicId, difficulty));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Topic not found")) {
+                return ResponseEntity.notFound().build();
+            } else if (e.getMessage() != null && e.getMessage().contains("Too many leaderboard subscriptions")) {
+                return ResponseEntity.status(503).build();
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the rank of a score in the leaderboard of a topic and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param score      the score to rank
+     * @return the rank of the score
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/rank")
+    // Swagger annotation to describe the API endpoint for getting the rank of a score.
+    @Operation(summary = "Get the rank of a score", description = "Retrieve the rank of a score in the leaderboard of a topic and difficulty")
+    // Swagger annotation to describe the API response for getting the rank of a score.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the rank of the score",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = HighscoreRankDTO.class))
+                    }),
+    })
+    public ResponseEntity<HighscoreRankDTO> getHighscoreRank(@RequestParam Long topicId, @RequestParam Difficulty difficulty, @RequestParam int score) {
+        return ResponseEntity.ok(highscoreService.getHighscoreRank(topicId, difficulty, score));
+    }
+
+    /**
+     * Retrieves the best highscore of a player together with the highscores ranked directly above and below it.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param playerName the name of the player
+     * @param size       the number of highscores above and below the player
+     * @return the ranked highscores around the player
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/around")
+    // Swagger annotation to describe the API endpoint for getting the highscores around a player.
+    @Operation(summary = "Get the highscores around a player", description = "Retrieve the best highscore of a player with the highscores ranked above and below it")
+    // Swagger annotation to describe the API response for getting the highscores around a player.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the ranked highscores in leaderboard order",
+                    content = {
+                            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = RankedHighscoreDTO.class)))
+                    }),
+    })
+    public ResponseEntity<List<RankedHighscoreDTO>> getHighscoresAroundPlayer(@RequestParam Long topicId, @RequestParam Difficulty difficulty,
+                                                                              @RequestParam String playerName, @RequestParam(defaultValue = "5") int size) {
+        try {
+            return ResponseEntity.ok(highscoreService.getHighscoresAroundPlayer(topicId, difficulty, playerName, size));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Highscore not found")) {
+                return ResponseEntity.notFound().build();
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        }
     }
 
     /**
@@ -3,6 +3,8 @@ package ch.quizinno.brainquest.controllers;
 import ch.quizinno.brainquest.dtos.CorrectQuestionDTO;
 import ch.quizinno.brainquest.dtos.QuizCorrectAnswerDTO;
 import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizRoundDTO;
+import ch.quizinno.brainquest.dtos.QuizRoundResultDTO;
 import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.enums.Difficulty;
 import ch.quizinno.brainquest.enums.Joker;
@@ -15,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -215,11 +218,17 @@ public class QuestionController {
                             @Content(mediaType = "application/json", schema = @Schema(implementation = QuizQuestionDTO.class))
                     }),
     })
-    public ResponseEntity<QuizQuestionDTO> getQuizQuestion(@RequestParam Long topicId, @RequestParam Difficulty difficulty, @RequestParam List<Long> excludeIds,
-                                                           @RequestParam String playerName, @RequestParam int score) {
-        // get all questions for the given topic and difficulty
+    public ResponseEntity<byte[]> getQuizQuestion(@RequestParam Long topicId, @RequestParam Difficulty difficulty, @RequestParam List<Long> excludeIds,
+                                                  @RequestParam String playerName, @RequestParam int score) {
+        // get the pre-serialized question for the given topic and difficulty
         try {
-            return ResponseEntity.ok(questionService.getQuizQuestion(topicId, difficulty, excludeIds, playerName, score));
+            byte[] payload = questionService.getQuizQuestionPayload(topicId, difficulty, excludeIds, playerName, score);
+            if (payload == null) {
+                // no more questions available, the game is completed
+                return ResponseEntity.ok().build();
+            }
+            // the payload is already JSON and written as is
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(payload);
         } catch (RuntimeException e) {
             if (e.getMessage().contains("No questions found")) {
                 return ResponseEntity.notFound().build();
@@ -229,6 +238,40 @@ public class QuestionController {
         }
     }
 
+    /**
+     * Retrieves the next distinct quiz questions to prefetch.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     * @param excludeIds the IDs of the questions to exclude
+     * @param count      the maximum number of questions
+     * @return up to count distinct random quiz questions
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/quiz-questions")
+    // Swagger annotation to describe the API endpoint for prefetching quiz questions.
+    @Operation(summary = "Get the next quiz questions", description = "Get up to count distinct random questions in one request to prefetch them")
+    // Swagger annotation to describe the API response for prefetching quiz questions.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the quiz questions, empty if all questions are excluded",
+                    content = {
+                            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = QuizQuestionDTO.class)))
+                    }),
+    })
+    public ResponseEntity<byte[]> getQuizQuestions(@RequestParam Long topicId, @RequestParam Difficulty difficulty, @RequestParam List<Long> excludeIds,
+                                                   @RequestParam(defaultValue = "5") int count) {
+        try {
+            // the payload is already JSON and written as is
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(questionService.getQuizQuestionPayloads(topicId, difficulty, excludeIds, count));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("No questions found")) {
+                return ResponseEntity.notFound().build();
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+    }
+
     /**
      * Checks if the given answer is correct.
      *
@@ -259,6 +302,36 @@ public class QuestionController {
         }
     }
 
+    /**
+     * Submits a game round: checks the given answer and returns the next question.
+     *
+     * @param id           the ID of the answered question
+     * @param quizRoundDTO the answer, player, score and already played questions
+     * @return the correct answer and the next question
+     */
+    // Spring annotation to map HTTP POST requests to the method.
+    @PostMapping("/{id}/round")
+    // Swagger annotation to describe the API endpoint for submitting a game round.
+    @Operation(summary = "Submit round", description = "Check if the given answer is correct and get the next question in one request")
+    // Swagger annotation to describe the API response for submitting a game round.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the correct answer and the next question, no next question if the answer is wrong or the game is completed",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = QuizRoundResultDTO.class))
+                    }),
+    })
+    public ResponseEntity<QuizRoundResultDTO> submitRound(@PathVariable Long id, @RequestBody QuizRoundDTO quizRoundDTO) {
+        try {
+            return ResponseEntity.ok(questionService.submitRound(id, quizRoundDTO));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Answer ID and player name must be defined")) {
+                return ResponseEntity.badRequest().build();
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        }
+    }
+
     /**
      * Uses a joker to help get the correct answer.
      *
@@ -0,0 +1,194 @@
+package ch.quizinno.brainquest.controllers;
+
+import ch.quizinno.brainquest.dtos.CorrectQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionAnswerDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionStartDTO;
+import ch.quizinno.brainquest.services.QuizSessionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Controller for playing quiz sessions.
+ */
+// Spring annotation to indicate that this class is a REST controller.
+@RestController
+// Spring annotation to map HTTP requests to /api/quiz-sessions.
+@RequestMapping("/api/quiz-sessions")
+// Swagger annotation to describe the API endpoints for quiz sessions.
+@Tag(name = "Quiz Sessions", description = "Quiz Sessions Endpoints")
+public class QuizSessionController {
+
+    /**
+     * Service for managing quiz sessions.
+     */
+    private final QuizSessionService quizSessionService;
+
+    /**
+     * Constructs a new QuizSessionController with the specified QuizSessionService.
+     *
+     * @param quizSessionService the service to manage quiz sessions
+     */
+    public QuizSessionController(QuizSessionService quizSessionService) {
+        this.quizSessionService = quizSessionService;
+    }
+
+    /**
+     * Starts a new quiz session.
+     *
+     * @param quizSessionStartDTO the topic, difficulty and player of the session
+     * @return the started session
+     */
+    // Spring annotation to map HTTP POST requests to the method.
+    @PostMapping
+    // Swagger annotation to describe the API endpoint for starting a quiz session.
+    @Operation(summary = "Start a quiz session", description = "Start a new game for a topic and difficulty")
+    // Swagger annotation to describe the API response for starting a quiz session.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Return the started quiz session",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = QuizSessionDTO.class))
+                    }),
+    })
+    public ResponseEntity<QuizSessionDTO> startSession(@RequestBody QuizSessionStartDTO quizSessionStartDTO) {
+        /*
+            try
+                - If the session is started, the session is returned as a ResponseEntity with status code 201 (Created)
+            catch
+                - If no questions exist for the topic and difficulty, a ResponseEntity with status code 404 (Not Found) is returned
+                - If the maximum number of sessions is reached, a ResponseEntity with status code 503 (Service Unavailable) is returned
+                - If attributes are missing, a ResponseEntity with status code 400 (Bad Request) is returned
+        */
+        try {
+            return ResponseEntity.status(201).body(quizSessionService.startSession(quizSessionStartDTO));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("No questions found")) {
+                return ResponseEntity.notFound().build();
+            } else if (e.getMessage() != null && e.getMessage().contains("Too many quiz sessions")) {
+                return ResponseEntity.status(503).build();
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+    }
+
+    /**
+     * Retrieves a quiz session by its ID.
+     *
+     * @param id the ID of the session
+     * @return the session with the specified ID
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/{id}")
+    // Swagger annotation to describe the API endpoint for getting a quiz session.
+    @Operation(summary = "Get a quiz session", description = "Retrieve the score and progress of a quiz session")
+    // Swagger annotation to describe the API response for getting a quiz session.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the quiz session with the specified ID",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = QuizSessionDTO.class))
+                    }),
+    })
+    public ResponseEntity<QuizSessionDTO> getSession(@PathVariable UUID id) {
+        /*
+            .map is used to convert the Optional<QuizSessionDTO> to a ResponseEntity<QuizSessionDTO>
+                - If the Optional<QuizSessionDTO> is present, the session is returned as a ResponseEntity with status code 200 (OK)
+            .orElse is used to return the specified value if the Optional<QuizSessionDTO> is empty
+                - If the Optional<QuizSessionDTO> is empty, a ResponseEntity with status code 404 (Not Found) is returned
+        */
+        return quizSessionService.getSession(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the next question of a quiz session.
+     *
+     * @param id the ID of the session
+     * @return the next quiz question, empty if the game is completed
+     */
+    // Spring annotation to map HTTP GET requests to the method.
+    @GetMapping("/{id}/question")
+    // Swagger annotation to describe the API endpoint for getting the next question.
+    @Operation(summary = "Get the next quiz question", description = "Get the next question of the quiz session")
+    // Swagger annotation to describe the API response for getting the next question.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the next quiz question",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = QuizQuestionDTO.class))
+                    }),
+    })
+    public ResponseEntity<QuizQuestionDTO> nextQuestion(@PathVariable UUID id) {
+        try {
+            return ResponseEntity.ok(quizSessionService.nextQuestion(id));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && (e.getMessage().contains("Quiz session not found") || e.getMessage().contains("No questions found"))) {
+                return ResponseEntity.notFound().build();
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+    }
+
+    /**
+     * Checks the answer to the current question of a quiz session.
+     *
+     * @param id                   the ID of the session
+     * @param quizSessionAnswerDTO the answer to check
+     * @return the correct answer
+     */
+    // Spring annotation to map HTTP POST requests to the method.
+    @PostMapping("/{id}/answer")
+    // Swagger annotation to describe the API endpoint for checking the answer.
+    @Operation(summary = "Answer the current question", description = "Check if the given answer to the current question is correct")
+    // Swagger annotation to describe the API response for checking the answer.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Return the correct answer",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = CorrectQuestionDTO.class))
+                    }),
+    })
+    public ResponseEntity<CorrectQuestionDTO> answerQuestion(@PathVariable UUID id, @RequestBody QuizSessionAnswerDTO quizSessionAnswerDTO) {
+        try {
+            return ResponseEntity.ok(quizSessionService.answerQuestion(id, quizSessionAnswerDTO));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Quiz session not found")) {
+                return ResponseEntity.notFound().build();
+            } else {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+    }
+
+    /**
+     * Ends a quiz session.
+     *
+     * @param id the ID of the session
+     * @return a response entity with no content
+     */
+    // Spring annotation to map HTTP DELETE requests to the method.
+    @DeleteMapping("/{id}")
+    // Swagger annotation to describe the API endpoint for ending a quiz session.
+    @Operation(summary = "End a quiz session", description = "End a quiz session without writing a highscore")
+    // Swagger annotation to describe the API response for ending a quiz session.
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Quiz session ended"),
+    })
+    public ResponseEntity<Void> endSession(@PathVariable UUID id) {
+        try {
+            quizSessionService.endSession(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
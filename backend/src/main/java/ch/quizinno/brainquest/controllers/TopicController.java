@@ -1,5 +1,6 @@
 package ch.quizinno.brainquest.controllers;
 
+import ch.quizinno.brainquest.caches.TopicCatalogCache;
 import ch.quizinno.brainquest.dtos.TopicDTO;
 import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.services.TopicService;
@@ -11,10 +12,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Controller for managing topics.
@@ -43,13 +45,15 @@ public class TopicController {
 
     /**
      * Retrieves a list of all topics.
+     * The response has the entity tag of the catalog, a request with a matching If-None-Match header is answered with 304 and no body.
      *
+     * @param webRequest the request to check the If-None-Match header of
      * @return a list of all topics
      */
     // Spring annotation to map HTTP GET requests to the method.
     @GetMapping
     // Swagger annotation to describe the API endpoint for getting all topics.
-    @Operation(summary = "Get all topics", description = "Retrieve a list of all topics with difficulties")
+    @Operation(summary = "Get all topics", description = "Retrieve a list of all topics with difficulties, unchanged topics are answered with 304 to If-None-Match")
     // Swagger annotation to describe the API response for getting all topics.
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Return all topics with difficulties",
@@ -57,8 +61,18 @@ public class TopicController {
                             @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TopicDTO.class)))
                     }),
     })
-    public ResponseEntity<List<TopicDTO>> getAllTopics() {
-        return ResponseEntity.ok(topicService.getAllTopics());
+    public ResponseEntity<byte[]> getAllTopics(WebRequest webRequest) {
+        TopicCatalogCache.Catalog catalog = topicService.getTopicCatalog();
+        if (webRequest.checkNotModified(catalog.etag())) {
+            // the client has the current catalog, 304 with the entity tag is sent
+            return null;
+        }
+        // the catalog is already JSON and written as is, clients revalidate it on every use
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalog.json());
     }
 
     /**
@@ -0,0 +1,51 @@
+package ch.quizinno.brainquest.dtos;
+
+import ch.quizinno.brainquest.enums.Difficulty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for a highscore moved from the database to the archive, one line of an archive segment.
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class ArchivedHighscoreDTO {
+    /**
+     * The ID of the highscore.
+     */
+    private Long id;
+    /**
+     * The name of the player.
+     */
+    private String playerName;
+    /**
+     * The score of the player.
+     */
+    private int score;
+    /**
+     * The difficulty of the highscore.
+     */
+    private Difficulty difficulty;
+    /**
+     * The ID of the topic.
+     */
+    private Long topicId;
+    /**
+     * The name of the topic when the highscore was archived.
+     */
+    private String topicName;
+    /**
+     * The time the highscore was created, null for highscores created before the time was recorded.
+     */
+    private Instant createdAt;
+}
@@ -34,5 +34,5 @@ public class CorrectQuestionDTO {
     /**
      * The second answer.
      */
-    private int correctAnswerId;
+    private long correctAnswerId;
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package ch.quizinno.brainquest.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a page of sorted highscores together with the cursor of the next page
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class HighscorePageDTO {
+    /**
+     * The highscores of the page.
+     */
+    private List<HighscoreSummaryDTO> highscores;
+    /**
+     * The opaque cursor to request the next page, null on the last page.
+     */
+    private String nextCursor;
+}
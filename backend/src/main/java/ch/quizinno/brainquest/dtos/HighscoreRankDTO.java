@@ -0,0 +1,32 @@
+package ch.quizinno.brainquest.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the rank of a score in the leaderboard of a topic and difficulty
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class HighscoreRankDTO {
+    /**
+     * The ranked score.
+     */
+    private int score;
+    /**
+     * The rank of the score, equal scores share the rank.
+     */
+    private long rank;
+    /**
+     * The number of highscores in the leaderboard.
+     */
+    private long total;
+}
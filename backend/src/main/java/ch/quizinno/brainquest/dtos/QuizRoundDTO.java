@@ -0,0 +1,38 @@
+package ch.quizinno.brainquest.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for submitting a QuizRound
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class QuizRoundDTO {
+    /**
+     * The id of the given answer, 0 if the quiz timer expired.
+     */
+    private Long answerId;
+    /**
+     * The name of the player.
+     */
+    private String playerName;
+    /**
+     * The score of the player before this round.
+     */
+    private int score;
+    /**
+     * The ids of the questions already played.
+     */
+    private List<Long> excludeIds;
+}
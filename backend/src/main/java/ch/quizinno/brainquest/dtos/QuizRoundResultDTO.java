@@ -0,0 +1,28 @@
+package ch.quizinno.brainquest.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the result of a QuizRound
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class QuizRoundResultDTO {
+    /**
+     * The checked answer of the round.
+     */
+    private CorrectQuestionDTO correctQuestion;
+    /**
+     * The next question, null if the answer is wrong or the game is completed.
+     */
+    private QuizQuestionDTO nextQuestion;
+}
@@ -0,0 +1,24 @@
+package ch.quizinno.brainquest.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for QuizSessionAnswer
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class QuizSessionAnswerDTO {
+    /**
+     * The id of the selected answer, 0 if the quiz timer expired.
+     */
+    private Long answerId;
+}
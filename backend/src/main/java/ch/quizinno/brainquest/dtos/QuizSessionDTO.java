@@ -0,0 +1,47 @@
+package ch.quizinno.brainquest.dtos;
+
+import ch.quizinno.brainquest.enums.Difficulty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for QuizSession
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class QuizSessionDTO {
+    /**
+     * The id of the session.
+     */
+    private UUID id;
+    /**
+     * The id of the topic played.
+     */
+    private Long topicId;
+    /**
+     * The difficulty played.
+     */
+    private Difficulty difficulty;
+    /**
+     * The name of the player.
+     */
+    private String playerName;
+    /**
+     * The current score of the player.
+     */
+    private int score;
+    /**
+     * The number of questions served so far.
+     */
+    private int servedCount;
+}
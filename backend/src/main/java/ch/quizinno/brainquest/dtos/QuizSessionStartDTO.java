@@ -0,0 +1,33 @@
+package ch.quizinno.brainquest.dtos;
+
+import ch.quizinno.brainquest.enums.Difficulty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for starting a QuizSession
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class QuizSessionStartDTO {
+    /**
+     * The id of the topic to play.
+     */
+    private Long topicId;
+    /**
+     * The difficulty to play.
+     */
+    private Difficulty difficulty;
+    /**
+     * The name of the player.
+     */
+    private String playerName;
+}
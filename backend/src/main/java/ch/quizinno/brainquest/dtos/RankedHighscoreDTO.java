@@ -0,0 +1,36 @@
+package ch.quizinno.brainquest.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a highscore together with its rank in the leaderboard of its topic and difficulty
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class RankedHighscoreDTO {
+    /**
+     * The rank of the highscore, equal scores share the rank.
+     */
+    private long rank;
+    /**
+     * The ID of the highscore.
+     */
+    private Long id;
+    /**
+     * The name of the player.
+     */
+    private String playerName;
+    /**
+     * The score of the player.
+     */
+    private int score;
+}
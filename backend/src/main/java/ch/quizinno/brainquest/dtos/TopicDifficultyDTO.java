@@ -0,0 +1,30 @@
+package ch.quizinno.brainquest.dtos;
+
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a Topic together with one difficulty of its playable questions
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class.
+@Builder
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// Lombok annotation to generate a constructor with all arguments.
+@AllArgsConstructor
+public class TopicDifficultyDTO {
+    /**
+     * The topic.
+     */
+    private Topic topic;
+    /**
+     * The difficulty of playable questions of the topic, null if the topic has no playable question.
+     */
+    private Difficulty difficulty;
+}
@@ -16,12 +16,17 @@ import lombok.experimental.SuperBuilder;
 @Entity
 // Lombok annotation to generate a no-argument constructor.
 @NoArgsConstructor
+// JPA annotation to define the index for the answers of a question.
+@Table(indexes = {
+        @Index(name = "idx_answer_question_id", columnList = "question_id")
+})
 public class Answer {
     /**
      * The unique identifier of the answer.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answer_seq")
+    @SequenceGenerator(name = "answer_seq", sequenceName = "answer_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -1,10 +1,15 @@
 package ch.quizinno.brainquest.entities;
 
 import ch.quizinno.brainquest.enums.Difficulty;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
 
 /**
  * Represents a highscore entry.
@@ -17,12 +22,25 @@ import lombok.experimental.SuperBuilder;
 @Entity
 // Lombok annotation to generate a no-argument constructor.
 @NoArgsConstructor
+// JPA annotation to define the indexes for the sorted leaderboard queries, id is the tie-breaker of every sort order.
+@Table(indexes = {
+        @Index(name = "idx_highscore_topic_difficulty_score", columnList = "topic_id, difficulty, score DESC, id DESC"),
+        @Index(name = "idx_highscore_topic_difficulty_player_name", columnList = "topic_id, difficulty, player_name, id"),
+        @Index(name = "idx_highscore_topic_difficulty_id", columnList = "topic_id, difficulty, id"),
+        @Index(name = "idx_highscore_score", columnList = "score DESC, id DESC"),
+        @Index(name = "idx_highscore_player_name", columnList = "player_name, id"),
+        @Index(name = "idx_highscore_difficulty_id", columnList = "difficulty, id"),
+        @Index(name = "idx_highscore_difficulty_rank_id", columnList = "difficulty_rank, id"),
+        @Index(name = "idx_highscore_topic_id", columnList = "topic_id, id"),
+        @Index(name = "idx_highscore_topic_difficulty_created_at", columnList = "topic_id, difficulty, created_at")
+})
 public class Highscore {
     /**
      * The unique identifier of the highscore entry.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "highscore_seq")
+    @SequenceGenerator(name = "highscore_seq", sequenceName = "highscore_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -38,11 +56,49 @@ public class Highscore {
      * The difficulty of the highscore entry.
      */
     @Enumerated(EnumType.STRING)
+    // Hibernate annotation to map the enum to the varchar column of the migrations, not to a native enum column of H2.
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private Difficulty difficulty;
     /**
      * The topic of the highscore entry.
      */
-    // fetch the question entity when loading the answer entity.
     @ManyToOne(fetch = FetchType.EAGER)
+    // JPA annotation to require the topic, it is part of the primary key and the partition key in the database.
+    @JoinColumn(nullable = false)
     private Topic topic;
-}
\ No newline at end of file
+    /**
+     * The time the highscore entry was created, it decides the daily and weekly leaderboards of the highscore.
+     */
+    // JPA annotation to keep the creation time when the highscore is updated.
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    /**
+     * The position of the difficulty in the Difficulty enum, used to sort by difficulty in the database
+     * since the difficulty is stored as string. It is stored with the highscore, so the sort is served by an index.
+     */
+    // Jackson annotation to exclude the value from the JSON.
+    @JsonIgnore
+    private Integer difficultyRank;
+
+    /**
+     * Sets the creation time before the highscore is inserted, unless it is already set.
+     */
+    // JPA annotation to run the method before the entity is inserted.
+    @PrePersist
+    public void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+        onUpdate();
+    }
+
+    /**
+     * Sets the rank of the difficulty before the highscore is written.
+     */
+    // JPA annotation to run the method before the entity is updated.
+    @PreUpdate
+    public void onUpdate() {
+        difficultyRank = difficulty != null ? difficulty.ordinal() : null;
+    }
+}
@@ -1,10 +1,13 @@
 package ch.quizinno.brainquest.entities;
 
 import ch.quizinno.brainquest.enums.Difficulty;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 /**
  * Represents a question.
@@ -17,12 +20,17 @@ import lombok.experimental.SuperBuilder;
 @Entity
 // Lombok annotation to generate a no-argument constructor.
 @NoArgsConstructor
+// JPA annotation to define the index for the playable questions of a topic and difficulty, id is the order of the question pools.
+@Table(indexes = {
+        @Index(name = "idx_question_topic_difficulty_playable", columnList = "topic_id, difficulty, playable, id")
+})
 public class Question {
     /**
      * The unique identifier of the question.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
+    @SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -39,6 +47,8 @@ public class Question {
      * Difficulty of the question.
      */
     @Enumerated(EnumType.STRING)
+    // Hibernate annotation to map the enum to the varchar column of the migrations, not to a native enum column of H2.
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private Difficulty difficulty;
     /**
      * Topic that the question belongs to.
@@ -46,4 +56,11 @@ public class Question {
     // fetch the topic entity when loading the question entity.
     @ManyToOne(fetch = FetchType.EAGER)
     private Topic topic;
+    /**
+     * Whether the question has 4 answers with one correct answer, maintained on every write of its answers.
+     */
+    // Jackson annotation to only write the property, it is never set by a client.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false)
+    private boolean playable;
 }
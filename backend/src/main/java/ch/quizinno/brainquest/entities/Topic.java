@@ -21,7 +21,8 @@ public class Topic {
      * The unique identifier of the topic.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "topic_seq")
+    @SequenceGenerator(name = "topic_seq", sequenceName = "topic_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,55 @@
+package ch.quizinno.brainquest.entities;
+
+import ch.quizinno.brainquest.enums.Difficulty;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Represents a difficulty of a topic with playable questions.
+ * The summary is maintained on every write of questions and answers, so the topics are listed without counting answers.
+ */
+// Lombok annotation to generate getters, setters, toString, equals, and hashCode methods.
+@Data
+// Lombok annotation to generate a builder pattern for the class (supporting inheritance for class hierarchies)
+@SuperBuilder
+// JPA annotation to mark this class as a JPA entity.
+@Entity
+// Lombok annotation to generate a no-argument constructor.
+@NoArgsConstructor
+// JPA annotation to define the table with one row per topic and difficulty.
+@Table(name = "topic_difficulty", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_topic_difficulty_topic_difficulty", columnNames = {"topic_id", "difficulty"})
+})
+public class TopicDifficulty {
+    /**
+     * The unique identifier of the summary.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "topic_difficulty_seq")
+    @SequenceGenerator(name = "topic_difficulty_seq", sequenceName = "topic_difficulty_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Topic of the playable questions.
+     */
+    // fetch the topic entity when loading the summary entity.
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(nullable = false)
+    private Topic topic;
+    /**
+     * Difficulty of the playable questions.
+     */
+    @Enumerated(EnumType.STRING)
+    // Hibernate annotation to map the enum to the varchar column of the migrations, not to a native enum column of H2.
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false)
+    private Difficulty difficulty;
+    /**
+     * Number of playable questions of the topic and difficulty, always greater than 0.
+     */
+    private int playableQuestions;
+}
@@ -26,7 +26,8 @@ public class User {
      * The user's unique identifier.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "brainquest_user_seq")
+    @SequenceGenerator(name = "brainquest_user_seq", sequenceName = "brainquest_user_seq", allocationSize = 50)
     private Long id;
 
     /**
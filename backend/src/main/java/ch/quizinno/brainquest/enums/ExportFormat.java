@@ -0,0 +1,9 @@
+package ch.quizinno.brainquest.enums;
+
+/**
+ * Enum representing the file format of an export.
+ */
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,19 @@
+package ch.quizinno.brainquest.enums;
+
+/**
+ * Enum representing the time window of a leaderboard.
+ */
+public enum LeaderboardWindow {
+    /**
+     * Highscores created on one day.
+     */
+    DAILY,
+    /**
+     * Highscores created in one week, from Monday to Sunday.
+     */
+    WEEKLY,
+    /**
+     * All highscores.
+     */
+    ALL_TIME
+}
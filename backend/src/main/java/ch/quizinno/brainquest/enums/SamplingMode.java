@@ -0,0 +1,15 @@
+package ch.quizinno.brainquest.enums;
+
+/**
+ * Enum representing how random quiz questions are selected.
+ */
+public enum SamplingMode {
+    /**
+     * Select from the in-memory index of the playable questions.
+     */
+    INDEX,
+    /**
+     * Select in the database without loading the question pool.
+     */
+    DATABASE
+}
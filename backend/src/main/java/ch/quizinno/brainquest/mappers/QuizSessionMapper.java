@@ -0,0 +1,27 @@
+package ch.quizinno.brainquest.mappers;
+
+import ch.quizinno.brainquest.dtos.QuizSessionDTO;
+import ch.quizinno.brainquest.models.QuizSession;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for mapping QuizSession models to DTOs.
+ */
+@Mapper(componentModel = "spring")
+public interface QuizSessionMapper {
+    /**
+     * Maps a QuizSession to a QuizSessionDTO.
+     *
+     * @param quizSession the QuizSession to map
+     * @return the mapped QuizSessionDTO
+     */
+    // map QuizSession to QuizSessionDTO
+    @Mapping(source = "id", target = "id")
+    @Mapping(source = "topicId", target = "topicId")
+    @Mapping(source = "difficulty", target = "difficulty")
+    @Mapping(source = "playerName", target = "playerName")
+    @Mapping(source = "score", target = "score")
+    @Mapping(source = "servedCount", target = "servedCount")
+    QuizSessionDTO quizSessionToQuizSessionDTO(QuizSession quizSession);
+}
@@ -0,0 +1,90 @@
+package ch.quizinno.brainquest.models;
+
+import ch.quizinno.brainquest.enums.Difficulty;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Compact answer key of a question to check answers without loading entities.
+ *
+ * @param questionId   the ID of the question
+ * @param answerIds    the IDs of the answers of the question, must not be modified
+ * @param correctIndex the index of the correct answer in answerIds, -1 if the question has no correct answer
+ * @param difficulty   the difficulty of the question
+ * @param topicId      the ID of the topic of the question, null if the question has no topic
+ * @param info         the info shown after the question is answered
+ */
+public record AnswerKey(long questionId, long[] answerIds, int correctIndex, Difficulty difficulty, Long topicId, String info) {
+
+    /**
+     * Retrieves the index of an answer.
+     *
+     * @param answerId the ID of the answer
+     * @return the index of the answer in answerIds, -1 if the answer does not belong to the question
+     */
+    public int indexOf(long answerId) {
+        for (int i = 0; i < answerIds.length; i++) {
+            if (answerIds[i] == answerId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if the question has a correct answer.
+     *
+     * @return true if one of the answers is correct
+     */
+    public boolean hasCorrectAnswer() {
+        return correctIndex >= 0;
+    }
+
+    /**
+     * Retrieves the ID of the correct answer.
+     *
+     * @return the ID of the correct answer
+     */
+    public long correctAnswerId() {
+        return answerIds[correctIndex];
+    }
+
+    /**
+     * Compares the answer keys by value, including the IDs of the answers.
+     *
+     * @param o the object to compare
+     * @return true if the object is an equal answer key
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AnswerKey other
+                && questionId == other.questionId
+                && correctIndex == other.correctIndex
+                && difficulty == other.difficulty
+                && Objects.equals(topicId, other.topicId)
+                && Objects.equals(info, other.info)
+                && Arrays.equals(answerIds, other.answerIds);
+    }
+
+    /**
+     * Computes the hash code from the values, including the IDs of the answers.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(questionId, correctIndex, difficulty, topicId, info) + Arrays.hashCode(answerIds);
+    }
+
+    /**
+     * Describes the answer key with the IDs of the answers.
+     *
+     * @return the description
+     */
+    @Override
+    public String toString() {
+        return "AnswerKey[questionId=" + questionId + ", answerIds=" + Arrays.toString(answerIds) + ", correctIndex=" + correctIndex
+                + ", difficulty=" + difficulty + ", topicId=" + topicId + ", info=" + info + "]";
+    }
+}
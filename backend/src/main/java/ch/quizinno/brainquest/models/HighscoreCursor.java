@@ -0,0 +1,45 @@
+package ch.quizinno.brainquest.models;
+
+import ch.quizinno.brainquest.enums.SortBy;
+import ch.quizinno.brainquest.enums.SortDir;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a sorted highscore list, the sort key and ID of the last highscore of a page.
+ * The cursor is passed to the client as opaque URL-safe string.
+ *
+ * @param sortBy  the field the highscores are sorted by
+ * @param sortDir the direction the highscores are sorted
+ * @param value   the sort key of the last highscore, null when sorting by ID
+ * @param id      the ID of the last highscore
+ */
+public record HighscoreCursor(SortBy sortBy, SortDir sortDir, String value, long id) {
+
+    /**
+     * Encodes the cursor.
+     *
+     * @return the opaque cursor
+     */
+    public String encode() {
+        // the value is last, so it may contain the separator
+        String cursor = sortBy.name() + ":" + sortDir.name() + ":" + id + (value != null ? ":" + value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param cursor the opaque cursor
+     * @return the decoded cursor
+     */
+    public static HighscoreCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+            return new HighscoreCursor(SortBy.valueOf(parts[0]), SortDir.valueOf(parts[1]), parts.length > 3 ? parts[3] : null, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor " + cursor, e);
+        }
+    }
+}
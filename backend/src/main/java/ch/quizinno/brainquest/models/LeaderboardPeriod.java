@@ -0,0 +1,55 @@
+package ch.quizinno.brainquest.models;
+
+import ch.quizinno.brainquest.enums.LeaderboardWindow;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * One day or week of a daily or weekly leaderboard.
+ * The periods of a window are numbered consecutively, so the index of the period selects its slot in a ring of recent periods.
+ *
+ * @param window the window of the leaderboard, DAILY or WEEKLY
+ * @param index  the number of the period, days or weeks since the epoch
+ * @param from   the start of the period, inclusive
+ * @param to     the end of the period, exclusive
+ */
+public record LeaderboardPeriod(LeaderboardWindow window, long index, Instant from, Instant to) {
+
+    /**
+     * Retrieves the period of a window containing a date.
+     *
+     * @param window the window of the leaderboard, DAILY or WEEKLY
+     * @param date   the date in the period
+     * @param zone   the time zone the days start in
+     * @return the period containing the date
+     */
+    public static LeaderboardPeriod of(LeaderboardWindow window, LocalDate date, ZoneId zone) {
+        return switch (window) {
+            case DAILY -> new LeaderboardPeriod(window, date.toEpochDay(),
+                    date.atStartOfDay(zone).toInstant(), date.plusDays(1).atStartOfDay(zone).toInstant());
+            case WEEKLY -> {
+                LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                // the epoch day 0 is a Thursday, the first Monday before it is the epoch day -3
+                yield new LeaderboardPeriod(window, Math.floorDiv(monday.toEpochDay() + 3, 7),
+                        monday.atStartOfDay(zone).toInstant(), monday.plusWeeks(1).atStartOfDay(zone).toInstant());
+            }
+            case ALL_TIME -> throw new IllegalArgumentException("The all-time leaderboard has no period");
+        };
+    }
+
+    /**
+     * Retrieves the period of a window containing a point in time.
+     *
+     * @param window the window of the leaderboard, DAILY or WEEKLY
+     * @param time   the point in time in the period
+     * @param zone   the time zone the days start in
+     * @return the period containing the point in time
+     */
+    public static LeaderboardPeriod of(LeaderboardWindow window, Instant time, ZoneId zone) {
+        return of(window, time.atZone(zone).toLocalDate(), zone);
+    }
+}
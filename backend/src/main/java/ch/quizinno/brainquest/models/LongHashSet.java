@@ -0,0 +1,121 @@
+package ch.quizinno.brainquest.models;
+
+/**
+ * Set of primitive long values with open addressing and linear probing.
+ * The memory grows with the number of values, not with their size, and no values are boxed.
+ * The set is not thread-safe.
+ */
+public class LongHashSet {
+    /**
+     * Initial number of slots, a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Multiplier spreading the bits of a value over the slots.
+     */
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Slots of the values, 0 marks a free slot.
+     */
+    private long[] slots = new long[INITIAL_CAPACITY];
+    /**
+     * True if the set contains 0, which cannot be stored in a slot.
+     */
+    private boolean containsZero;
+    /**
+     * Number of values in the set.
+     */
+    private int size;
+
+    /**
+     * Checks if the set contains a value.
+     *
+     * @param value the value
+     * @return true if the set contains the value
+     */
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int mask = slots.length - 1;
+        for (int i = slot(value, mask); slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value the value
+     * @return true if the value was not part of the set
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        // at most half of the slots are used, so the probe sequences stay short
+        if ((size + 1) * 2 > slots.length) {
+            long[] previous = slots;
+            slots = new long[previous.length * 2];
+            for (long slot : previous) {
+                if (slot != 0) {
+                    insert(slot);
+                }
+            }
+        }
+        if (insert(value)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the number of values in the set.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Stores a value in its slot or the next free slot.
+     *
+     * @param value the value, not 0
+     * @return true if the value was not stored before
+     */
+    private boolean insert(long value) {
+        int mask = slots.length - 1;
+        int i = slot(value, mask);
+        while (slots[i] != 0) {
+            if (slots[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        return true;
+    }
+
+    /**
+     * Computes the first slot of a value.
+     *
+     * @param value the value
+     * @param mask  the number of slots - 1
+     * @return the index of the slot
+     */
+    private static int slot(long value, int mask) {
+        return (int) ((value * PHI) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,95 @@
+package ch.quizinno.brainquest.models;
+
+import ch.quizinno.brainquest.enums.Difficulty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * Represents a running quiz game held in memory on the server.
+ * Access to a session must be synchronized on the session itself.
+ */
+// Lombok annotation to generate getters.
+@Getter
+public class QuizSession {
+    /**
+     * The unique identifier of the session.
+     */
+    private final UUID id;
+    /**
+     * The ID of the topic played.
+     */
+    private final Long topicId;
+    /**
+     * The difficulty played.
+     */
+    private final Difficulty difficulty;
+    /**
+     * The name of the player.
+     */
+    private final String playerName;
+    /**
+     * The IDs of the questions already served.
+     */
+    private final LongHashSet servedQuestions = new LongHashSet();
+
+    /**
+     * The current score of the player.
+     */
+    @Setter
+    private int score;
+    /**
+     * The ID of the question waiting for an answer, null if none.
+     */
+    @Setter
+    private Long currentQuestionId;
+    /**
+     * The time of the last access in milliseconds.
+     */
+    @Setter
+    private long lastAccess;
+
+    /**
+     * Constructs a new QuizSession.
+     *
+     * @param topicId    the ID of the topic played
+     * @param difficulty the difficulty played
+     * @param playerName the name of the player
+     */
+    public QuizSession(Long topicId, Difficulty difficulty, String playerName) {
+        this.id = UUID.randomUUID();
+        this.topicId = topicId;
+        this.difficulty = difficulty;
+        this.playerName = playerName;
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks if a question has already been served in this session.
+     *
+     * @param questionId the ID of the question
+     * @return true if the question has already been served
+     */
+    public boolean isServed(long questionId) {
+        return servedQuestions.contains(questionId);
+    }
+
+    /**
+     * Marks a question as served in this session.
+     *
+     * @param questionId the ID of the question
+     */
+    public void markServed(long questionId) {
+        servedQuestions.add(questionId);
+    }
+
+    /**
+     * Retrieves the number of questions served in this session.
+     *
+     * @return the number of questions served
+     */
+    public int getServedCount() {
+        return servedQuestions.size();
+    }
+}
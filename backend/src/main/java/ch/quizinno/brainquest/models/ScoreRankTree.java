@@ -0,0 +1,129 @@
+package ch.quizinno.brainquest.models;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Number of highscores per score, stored in a Fenwick tree (binary indexed tree) with one bucket per score.
+ * Counting the highscores above a score and adding or removing a highscore take O(log S) for S buckets,
+ * independent of the number of highscores.
+ * Writes must be synchronized by the caller, reads are lock-free and may miss a concurrent write.
+ * Scores below zero are counted as zero, scores above the largest bucket as the largest bucket.
+ */
+public class ScoreRankTree {
+
+    /**
+     * Maximum number of buckets, the largest score which is ranked exactly is one less.
+     */
+    public static final int MAX_BUCKETS = 1 << 20;
+
+    /**
+     * The Fenwick tree, index 0 is unused, replaced when it grows.
+     */
+    private volatile AtomicLongArray tree;
+    /**
+     * The total number of highscores.
+     */
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Constructs an empty tree.
+     */
+    public ScoreRankTree() {
+        this.tree = new AtomicLongArray(64 + 1);
+    }
+
+    /**
+     * Adds highscores with a score.
+     *
+     * @param score the score
+     * @param count the number of highscores to add, negative to remove
+     */
+    public void add(int score, long count) {
+        int bucket = bucket(score);
+        if (bucket >= buckets(tree)) {
+            grow(bucket);
+        }
+        AtomicLongArray current = tree;
+        for (int i = bucket + 1; i < current.length(); i += i & -i) {
+            current.addAndGet(i, count);
+        }
+        total.addAndGet(count);
+    }
+
+    /**
+     * Counts the highscores with a higher score.
+     *
+     * @param score the score
+     * @return the number of highscores with a higher score
+     */
+    public long countHigher(int score) {
+        AtomicLongArray current = tree;
+        int bucket = Math.min(bucket(score), buckets(current) - 1);
+        long countAtOrBelow = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            countAtOrBelow += current.get(i);
+        }
+        return total.get() - countAtOrBelow;
+    }
+
+    /**
+     * Counts all highscores.
+     *
+     * @return the number of highscores
+     */
+    public long count() {
+        return total.get();
+    }
+
+    /**
+     * Maps a score to its bucket.
+     *
+     * @param score the score
+     * @return the bucket of the score
+     */
+    private static int bucket(int score) {
+        return Math.max(0, Math.min(score, MAX_BUCKETS - 1));
+    }
+
+    /**
+     * Retrieves the number of buckets of a tree.
+     *
+     * @param tree the Fenwick tree
+     * @return the number of buckets
+     */
+    private static int buckets(AtomicLongArray tree) {
+        return tree.length() - 1;
+    }
+
+    /**
+     * Replaces the tree with a tree of twice the size until the bucket fits.
+     *
+     * @param bucket the bucket which must fit
+     */
+    private void grow(int bucket) {
+        AtomicLongArray current = tree;
+        int size = buckets(current);
+        while (size <= bucket) {
+            size *= 2;
+        }
+
+        // copy the bucket counts and build the new tree in linear time
+        long[] counts = new long[size + 1];
+        for (int i = 1; i <= buckets(current); i++) {
+            counts[i] += current.get(i);
+            int parent = i + (i & -i);
+            if (parent <= buckets(current)) {
+                // the parent contains the child in the old tree, keep only the bucket of i
+                counts[parent] -= current.get(i);
+            }
+        }
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                counts[parent] += counts[i];
+            }
+        }
+        tree = new AtomicLongArray(counts);
+    }
+}
@@ -0,0 +1,29 @@
+package ch.quizinno.brainquest.repositories;
+
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.SortBy;
+import ch.quizinno.brainquest.enums.SortDir;
+
+import java.util.List;
+
+/**
+ * Repository fragment for reading sorted highscores page by page with keyset pagination.
+ */
+public interface HighscoreKeysetRepository {
+    /**
+     * Find the sorted highscores following the last highscore of the previous page as summaries with the topic id and name.
+     * Instead of skipping the previous pages the query seeks the index to the last sort key and ID, so every page costs the same.
+     *
+     * @param topicId    the topic id to filter by or null
+     * @param difficulty the difficulty to filter by or null
+     * @param sortBy     the field to sort by, ID, PLAYER_NAME or SCORE, the id is the tie-breaker
+     * @param sortDir    the direction to sort
+     * @param lastValue  the sort key of the last highscore of the previous page or null for the first page
+     * @param lastId     the id of the last highscore of the previous page or null for the first page
+     * @param limit      the maximum number of highscores
+     * @return the list of highscores
+     */
+    List<HighscoreSummaryDTO> findKeysetPage(Long topicId, Difficulty difficulty, SortBy sortBy, SortDir sortDir,
+                                             String lastValue, Long lastId, int limit);
+}
@@ -0,0 +1,93 @@
+package ch.quizinno.brainquest.repositories;
+
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.SortBy;
+import ch.quizinno.brainquest.enums.SortDir;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementation of the keyset pagination, the query is built for the filter and sort order,
+ * so it matches one of the highscore indexes.
+ */
+public class HighscoreKeysetRepositoryImpl implements HighscoreKeysetRepository {
+
+    /**
+     * Entity manager to run the queries.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs a new HighscoreKeysetRepositoryImpl.
+     *
+     * @param entityManager the entity manager to run the queries
+     */
+    public HighscoreKeysetRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Find the sorted highscores following the last highscore of the previous page as summaries with the topic id and name.
+     *
+     * @param topicId    the topic id to filter by or null
+     * @param difficulty the difficulty to filter by or null
+     * @param sortBy     the field to sort by, ID, PLAYER_NAME or SCORE, the id is the tie-breaker, PLAYER_NAME skips highscores without name
+     * @param sortDir    the direction to sort
+     * @param lastValue  the sort key of the last highscore of the previous page or null for the first page
+     * @param lastId     the id of the last highscore of the previous page or null for the first page
+     * @param limit      the maximum number of highscores
+     * @return the list of highscores
+     */
+    @Override
+    public List<HighscoreSummaryDTO> findKeysetPage(Long topicId, Difficulty difficulty, SortBy sortBy, SortDir sortDir,
+                                                    String lastValue, Long lastId, int limit) {
+        String property = switch (sortBy) {
+            case ID -> null;
+            case PLAYER_NAME -> "h.playerName";
+            case SCORE -> "h.score";
+            default -> throw new RuntimeException("Keyset pagination is not supported for " + sortBy);
+        };
+        String direction = sortDir == SortDir.ASC ? "ASC" : "DESC";
+        String comparison = sortDir == SortDir.ASC ? ">" : "<";
+
+        List<String> conditions = new ArrayList<>();
+        if (topicId != null) {
+            conditions.add("h.topic.id = :topicId");
+        }
+        if (difficulty != null) {
+            conditions.add("h.difficulty = :difficulty");
+        }
+        if (sortBy == SortBy.PLAYER_NAME) {
+            // a null name is not comparable with the name of the last highscore, highscores without name are not part of the sort
+            conditions.add("h.playerName IS NOT NULL");
+        }
+        if (lastId != null) {
+            // seek behind the last highscore, compared as tuple so the index is used for both columns
+            conditions.add(property == null ? "h.id " + comparison + " :lastId" : "(" + property + ", h.id) " + comparison + " (:lastValue, :lastId)");
+        }
+
+        String jpql = "SELECT new ch.quizinno.brainquest.dtos.HighscoreSummaryDTO(h.id, h.playerName, h.score, h.difficulty, t.id, t.name)" +
+                " FROM Highscore h LEFT JOIN h.topic t" +
+                (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+                " ORDER BY " + (property == null ? "" : property + " " + direction + ", ") + "h.id " + direction;
+
+        TypedQuery<HighscoreSummaryDTO> query = entityManager.createQuery(jpql, HighscoreSummaryDTO.class);
+        if (topicId != null) {
+            query.setParameter("topicId", topicId);
+        }
+        if (difficulty != null) {
+            query.setParameter("difficulty", difficulty);
+        }
+        if (lastId != null) {
+            query.setParameter("lastId", lastId);
+            if (property != null) {
+                query.setParameter("lastValue", sortBy == SortBy.SCORE ? (Object) Integer.parseInt(lastValue) : lastValue);
+            }
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
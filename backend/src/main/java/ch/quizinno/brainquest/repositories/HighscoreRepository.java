@@ -1,18 +1,27 @@
 package ch.quizinno.brainquest.repositories;
 
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
 import ch.quizinno.brainquest.entities.Highscore;
 import ch.quizinno.brainquest.enums.Difficulty;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing highscores.
  */
 // Spring annotation to indicate that this interface is a repository.
 @Repository
-public interface HighscoreRepository extends JpaRepository<Highscore, Long> {
+public interface HighscoreRepository extends JpaRepository<Highscore, Long>, HighscoreKeysetRepository {
     /**
      * Find highscores by topic id and difficulty.
      *
@@ -21,4 +30,129 @@ public interface HighscoreRepository extends JpaRepository<Highscore, Long> {
      * @return the list of highscores
      */
     List<Highscore> findByTopicIdAndDifficulty(Long topicId, Difficulty difficulty);
+
+    /**
+     * Find sorted highscores as summaries with the topic id and name.
+     * Only the selected columns are read, no highscore or topic entity is loaded into the persistence context.
+     *
+     * @param pageable the sort order and the number of highscores
+     * @return the list of highscores
+     */
+    @Query("SELECT new ch.quizinno.brainquest.dtos.HighscoreSummaryDTO(h.id, h.playerName, h.score, h.difficulty, t.id, t.name) " +
+            "FROM Highscore h LEFT JOIN h.topic t")
+    List<HighscoreSummaryDTO> findAllSummaries(Pageable pageable);
+
+    /**
+     * Find sorted highscores by topic id and difficulty as summaries with the topic id and name.
+     * Only the selected columns are read, no highscore or topic entity is loaded into the persistence context.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @param pageable   the sort order and the number of highscores
+     * @return the list of highscores
+     */
+    @Query("SELECT new ch.quizinno.brainquest.dtos.HighscoreSummaryDTO(h.id, h.playerName, h.score, h.difficulty, t.id, t.name) " +
+            "FROM Highscore h LEFT JOIN h.topic t WHERE h.topic.id = :topicId AND h.difficulty = :difficulty")
+    List<HighscoreSummaryDTO> findSummariesByTopicIdAndDifficulty(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty,
+                                                                  Pageable pageable);
+
+    /**
+     * Find sorted highscores by topic id and difficulty created in a time range as summaries with the topic id and name.
+     * The range is read from the (topic_id, difficulty, created_at) index, so only the highscores of the range are sorted.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @param from       the start of the range, inclusive
+     * @param to         the end of the range, exclusive
+     * @param pageable   the sort order and the number of highscores
+     * @return the list of highscores
+     */
+    @Query("SELECT new ch.quizinno.brainquest.dtos.HighscoreSummaryDTO(h.id, h.playerName, h.score, h.difficulty, t.id, t.name) " +
+            "FROM Highscore h LEFT JOIN h.topic t WHERE h.topic.id = :topicId AND h.difficulty = :difficulty" +
+            " AND h.createdAt >= :from AND h.createdAt < :to")
+    List<HighscoreSummaryDTO> findSummariesCreatedBetween(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty,
+                                                          @Param("from") Instant from, @Param("to") Instant to, Pageable pageable);
+
+    /**
+     * Stream all highscores ordered by id as summaries.
+     * The rows are fetched from the database in chunks and are not managed entities, so they are not kept in memory.
+     * Must be called in a transaction and the stream must be closed.
+     *
+     * @return the stream of highscores
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT new ch.quizinno.brainquest.dtos.HighscoreSummaryDTO(h.id, h.playerName, h.score, h.difficulty, t.id, t.name) " +
+            "FROM Highscore h LEFT JOIN h.topic t ORDER BY h.id")
+    Stream<HighscoreSummaryDTO> streamAllSummaries();
+
+    /**
+     * Count the highscores per score of a topic and difficulty.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @return the score and the number of highscores with the score
+     */
+    @Query("SELECT h.score, COUNT(h) FROM Highscore h WHERE h.topic.id = :topicId AND h.difficulty = :difficulty GROUP BY h.score")
+    List<Object[]> countByScore(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty);
+
+    /**
+     * Count the highscores by topic id and difficulty.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @return the number of highscores
+     */
+    long countByTopicIdAndDifficulty(Long topicId, Difficulty difficulty);
+
+    /**
+     * Count the highscores by topic id and difficulty with a higher score.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @param score      the score
+     * @return the number of highscores with a higher score
+     */
+    long countByTopicIdAndDifficultyAndScoreGreaterThan(Long topicId, Difficulty difficulty, int score);
+
+    /**
+     * Find the best highscore of a player by topic id and difficulty.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @param playerName the name of the player
+     * @return the best highscore of the player
+     */
+    Optional<Highscore> findFirstByTopicIdAndDifficultyAndPlayerNameOrderByScoreDescIdDesc(Long topicId, Difficulty difficulty, String playerName);
+
+    /**
+     * Find the highscores ranked directly before a highscore as summaries, nearest first.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @param score      the score of the highscore
+     * @param id         the id of the highscore
+     * @param pageable   the number of highscores
+     * @return the list of highscores
+     */
+    @Query("SELECT new ch.quizinno.brainquest.dtos.HighscoreSummaryDTO(h.id, h.playerName, h.score, h.difficulty, t.id, t.name) " +
+            "FROM Highscore h LEFT JOIN h.topic t WHERE h.topic.id = :topicId AND h.difficulty = :difficulty" +
+            " AND (h.score > :score OR (h.score = :score AND h.id > :id)) ORDER BY h.score ASC, h.id ASC")
+    List<HighscoreSummaryDTO> findRankedBefore(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty,
+                                               @Param("score") int score, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Find the highscores ranked directly after a highscore as summaries, nearest first.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @param score      the score of the highscore
+     * @param id         the id of the highscore
+     * @param pageable   the number of highscores
+     * @return the list of highscores
+     */
+    @Query("SELECT new ch.quizinno.brainquest.dtos.HighscoreSummaryDTO(h.id, h.playerName, h.score, h.difficulty, t.id, t.name) " +
+            "FROM Highscore h LEFT JOIN h.topic t WHERE h.topic.id = :topicId AND h.difficulty = :difficulty" +
+            " AND (h.score < :score OR (h.score = :score AND h.id < :id)) ORDER BY h.score DESC, h.id DESC")
+    List<HighscoreSummaryDTO> findRankedAfter(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty,
+                                              @Param("score") int score, @Param("id") Long id, Pageable pageable);
 }
@@ -1,8 +1,13 @@
 package ch.quizinno.brainquest.repositories;
 
+import ch.quizinno.brainquest.dtos.TopicDifficultyDTO;
 import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.enums.Difficulty;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -29,4 +34,85 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
      * @return the list of questions
      */
     List<Question> findByTopicId(Long topicId);
+
+    /**
+     * Find the IDs of all playable questions by topic id and difficulty.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @return the list of playable question IDs
+     */
+    @Query("SELECT q.id FROM Question q WHERE q.topic.id = :topicId AND q.difficulty = :difficulty AND q.playable = true")
+    List<Long> findPlayableIdsByTopicIdAndDifficulty(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty);
+
+    /**
+     * Find all playable questions by topic id.
+     *
+     * @param topicId the topic id
+     * @return the list of playable questions
+     */
+    @Query("SELECT q FROM Question q JOIN FETCH q.topic t WHERE t.id = :topicId AND q.playable = true")
+    List<Question> findPlayableByTopicId(@Param("topicId") Long topicId);
+
+    /**
+     * Find the lowest ID of the playable questions by topic id and difficulty.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @return the lowest playable question ID or null if no question is playable
+     */
+    @Query("SELECT MIN(q.id) FROM Question q WHERE q.topic.id = :topicId AND q.difficulty = :difficulty AND q.playable = true")
+    Long findMinPlayableId(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty);
+
+    /**
+     * Find the highest ID of the playable questions by topic id and difficulty.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @return the highest playable question ID or null if no question is playable
+     */
+    @Query("SELECT MAX(q.id) FROM Question q WHERE q.topic.id = :topicId AND q.difficulty = :difficulty AND q.playable = true")
+    Long findMaxPlayableId(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty);
+
+    /**
+     * Find the IDs of the playable questions by topic id and difficulty starting at the given ID in ascending order.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @param fromId     the lowest ID to return
+     * @param pageable   the number of IDs to return
+     * @return the list of playable question IDs
+     */
+    @Query("SELECT q.id FROM Question q WHERE q.topic.id = :topicId AND q.difficulty = :difficulty AND q.playable = true AND q.id >= :fromId " +
+            "ORDER BY q.id")
+    List<Long> findPlayableIdsFrom(@Param("topicId") Long topicId, @Param("difficulty") Difficulty difficulty, @Param("fromId") Long fromId, Pageable pageable);
+
+    /**
+     * Count the playable questions by topic id and difficulty.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @return the number of playable questions
+     */
+    long countByTopicIdAndDifficultyAndPlayableTrue(Long topicId, Difficulty difficulty);
+
+    /**
+     * Find the topics and difficulties with playable questions.
+     *
+     * @return the topics and difficulties
+     */
+    @Query("SELECT new ch.quizinno.brainquest.dtos.TopicDifficultyDTO(t, q.difficulty) FROM Question q JOIN q.topic t " +
+            "WHERE q.playable = true AND q.difficulty IS NOT NULL GROUP BY t, q.difficulty")
+    List<TopicDifficultyDTO> findPlayableTopicDifficulties();
+
+    /**
+     * Set the playable flag of all questions from their answers, 4 answers with one correct answer.
+     *
+     * @return the number of updated questions
+     */
+    // Spring Data annotation to indicate that the query modifies the database, the loaded questions are outdated afterwards.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Question q SET q.playable = CASE WHEN (SELECT COUNT(a.id) FROM Answer a WHERE a.question = q) = 4 " +
+            "AND (SELECT COUNT(a.id) FROM Answer a WHERE a.question = q AND a.correct = true) = 1 THEN true ELSE false END")
+    int updateAllPlayable();
 }
@@ -0,0 +1,24 @@
+package ch.quizinno.brainquest.repositories;
+
+import ch.quizinno.brainquest.entities.TopicDifficulty;
+import ch.quizinno.brainquest.enums.Difficulty;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for managing the difficulties of the topics with playable questions.
+ */
+// Spring annotation to indicate that this interface is a repository.
+@Repository
+public interface TopicDifficultyRepository extends JpaRepository<TopicDifficulty, Long> {
+    /**
+     * Find the summary of a topic and difficulty.
+     *
+     * @param topicId    the topic id
+     * @param difficulty the difficulty
+     * @return the summary or empty if the topic has no playable questions of the difficulty
+     */
+    Optional<TopicDifficulty> findByTopicIdAndDifficulty(Long topicId, Difficulty difficulty);
+}
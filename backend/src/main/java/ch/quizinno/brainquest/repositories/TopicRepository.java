@@ -1,13 +1,70 @@
 package ch.quizinno.brainquest.repositories;
 
+import ch.quizinno.brainquest.dtos.TopicDifficultyDTO;
 import ch.quizinno.brainquest.entities.Topic;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository for managing topics.
  */
 // Spring annotation to indicate that this interface is a repository.
 @Repository
 public interface TopicRepository extends JpaRepository<Topic, Long> {
+    /**
+     * Find all topics with the difficulties of their playable questions in a single query.
+     * The difficulties are read from the maintained summary, a topic without playable questions is returned once with a null difficulty.
+     *
+     * @return the topics and difficulties ordered by topic id
+     */
+    @Query("SELECT new ch.quizinno.brainquest.dtos.TopicDifficultyDTO(t, d.difficulty) FROM Topic t LEFT JOIN TopicDifficulty d ON d.topic = t " +
+            "ORDER BY t.id")
+    List<TopicDifficultyDTO> findAllWithPlayableDifficulties();
+
+    /**
+     * Find a topic by its ID and lock it until the end of the transaction.
+     *
+     * @param id the topic id
+     * @return the locked topic
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Topic t WHERE t.id = :id")
+    Optional<Topic> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Find the topic with the lowest ID.
+     *
+     * @return the first topic
+     */
+    Optional<Topic> findFirstByOrderByIdAsc();
+
+    /**
+     * Find the topic with the highest ID.
+     *
+     * @return the last topic
+     */
+    Optional<Topic> findFirstByOrderByIdDesc();
+
+    /**
+     * Find the topic following an ID.
+     *
+     * @param id the ID
+     * @return the next topic
+     */
+    Optional<Topic> findFirstByIdGreaterThanOrderByIdAsc(Long id);
+
+    /**
+     * Find the topic preceding an ID.
+     *
+     * @param id the ID
+     * @return the previous topic
+     */
+    Optional<Topic> findFirstByIdLessThanOrderByIdDesc(Long id);
 }
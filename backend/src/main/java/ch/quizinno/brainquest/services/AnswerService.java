@@ -1,11 +1,19 @@
 package ch.quizinno.brainquest.services;
 
+import ch.quizinno.brainquest.caches.AnswerKeyCache;
+import ch.quizinno.brainquest.caches.PlayableQuestionIndex;
+import ch.quizinno.brainquest.caches.QuizQuestionPayloadCache;
+import ch.quizinno.brainquest.caches.TopicCatalogCache;
 import ch.quizinno.brainquest.entities.Answer;
 import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.repositories.AnswerRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -19,14 +27,45 @@ public class AnswerService {
      * Repository for managing answers.
      */
     private final AnswerRepository answerRepository;
+    /**
+     * In-memory index of the playable questions.
+     */
+    private final PlayableQuestionIndex playableQuestionIndex;
+    /**
+     * Cache of the serialized quiz questions.
+     */
+    private final QuizQuestionPayloadCache quizQuestionPayloadCache;
+    /**
+     * Cache of the answer keys of the questions.
+     */
+    private final AnswerKeyCache answerKeyCache;
+    /**
+     * Cache of the topic catalog, the difficulties of a topic depend on the playable questions.
+     */
+    private final TopicCatalogCache topicCatalogCache;
+    /**
+     * Maintains the playable flags of the questions and the difficulties of the topics.
+     */
+    private final QuestionPlayability questionPlayability;
 
     /**
      * Constructs a new AnswerService with the specified AnswerRepository.
      *
-     * @param answerRepository the repository to manage answers
+     * @param answerRepository         the repository to manage answers
+     * @param playableQuestionIndex    the in-memory index of the playable questions
+     * @param quizQuestionPayloadCache the cache of the serialized quiz questions
+     * @param answerKeyCache           the cache of the answer keys of the questions
+     * @param topicCatalogCache        the cache of the topic catalog
+     * @param questionPlayability      the maintainer of the playable state
      */
-    public AnswerService(AnswerRepository answerRepository) {
+    public AnswerService(AnswerRepository answerRepository, PlayableQuestionIndex playableQuestionIndex, QuizQuestionPayloadCache quizQuestionPayloadCache,
+                         AnswerKeyCache answerKeyCache, TopicCatalogCache topicCatalogCache, QuestionPlayability questionPlayability) {
         this.answerRepository = answerRepository;
+        this.playableQuestionIndex = playableQuestionIndex;
+        this.quizQuestionPayloadCache = quizQuestionPayloadCache;
+        this.answerKeyCache = answerKeyCache;
+        this.topicCatalogCache = topicCatalogCache;
+        this.questionPlayability = questionPlayability;
     }
 
     /**
@@ -54,6 +93,8 @@ public class AnswerService {
      * @param answer the answer to create
      * @return the created answer
      */
+    // Spring annotation to create the answer and update the playable state of its question in one transaction.
+    @Transactional
     public Answer createAnswer(Answer answer) {
         // get existing answers for the question
         List<Answer> existingAnswers = answerRepository.findByQuestion(answer.getQuestion());
@@ -77,7 +118,12 @@ public class AnswerService {
             throw new RuntimeException("A question must have at least one correct answer.");
         }
 
-        return answerRepository.save(answer);
+        Answer savedAnswer = answerRepository.save(answer);
+
+        // the question may have become playable
+        questionChanged(questionId(savedAnswer));
+
+        return savedAnswer;
     }
 
     /**
@@ -87,9 +133,13 @@ public class AnswerService {
      * @param answerDetails the updated answer details
      * @return the updated answer
      */
+    // Spring annotation to update the answer and the playable state of its questions in one transaction.
+    @Transactional
     public Answer updateAnswer(Long id, Answer answerDetails) {
         // get the answer by its ID
         Answer answer = answerRepository.findById(id).orElseThrow(() -> new RuntimeException("Answer not found with id " + id));
+        // remember the current question since the answer may be moved
+        Long oldQuestionId = questionId(answer);
         // get existing answers for the question to check constraints when updating
         List<Answer> existingAnswers = answerRepository.findByQuestion(answer.getQuestion());
 
@@ -119,7 +169,15 @@ public class AnswerService {
             throw new RuntimeException("A question can only have one correct answer.");
         }
 
-        return answerRepository.save(answer);
+        Answer savedAnswer = answerRepository.save(answer);
+
+        // both the old and the new question may have changed their playable state
+        questionChanged(oldQuestionId);
+        if (!Objects.equals(oldQuestionId, questionId(savedAnswer))) {
+            questionChanged(questionId(savedAnswer));
+        }
+
+        return savedAnswer;
     }
 
     /**
@@ -127,12 +185,15 @@ public class AnswerService {
      *
      * @param id the ID of the answer to delete
      */
+    // Spring annotation to delete the answer and update the playable state of its question in one transaction.
+    @Transactional
     public void deleteAnswer(Long id) {
-        if (answerRepository.existsById(id)) {
-            answerRepository.deleteById(id);
-        } else {
-            throw new RuntimeException("Answer not found with id " + id);
-        }
+        Answer answer = answerRepository.findById(id).orElseThrow(() -> new RuntimeException("Answer not found with id " + id));
+
+        answerRepository.deleteById(id);
+
+        // the question is no longer playable
+        questionChanged(questionId(answer));
     }
 
     /**
@@ -144,4 +205,47 @@ public class AnswerService {
     public List<Answer> getAnswersByQuestion(Question question) {
         return answerRepository.findByQuestion(question);
     }
+
+    /**
+     * Updates the playable state and index and drops the cached quiz payloads, answer key and topic catalog after the answers of a question have changed.
+     * Within a transaction the index and the caches are updated after commit, so they never serve answers which are rolled back
+     * and a concurrent read cannot cache the question again before the change is visible.
+     *
+     * @param questionId the ID of the question
+     */
+    private void questionChanged(Long questionId) {
+        questionPlayability.refresh(questionId);
+        topicCatalogCache.invalidate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshCaches(questionId);
+                }
+            });
+        } else {
+            refreshCaches(questionId);
+        }
+    }
+
+    /**
+     * Updates the playable index and drops the cached quiz payloads and answer key of a question.
+     *
+     * @param questionId the ID of the question
+     */
+    private void refreshCaches(Long questionId) {
+        playableQuestionIndex.refresh(questionId);
+        quizQuestionPayloadCache.invalidateQuestion(questionId);
+        answerKeyCache.invalidateQuestion(questionId);
+    }
+
+    /**
+     * Retrieves the ID of the question an answer belongs to.
+     *
+     * @param answer the answer
+     * @return the ID of the question or null if the answer has no question
+     */
+    private Long questionId(Answer answer) {
+        return answer.getQuestion() != null ? answer.getQuestion().getId() : null;
+    }
 }
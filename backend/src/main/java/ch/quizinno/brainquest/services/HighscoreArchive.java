@@ -0,0 +1,242 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.ArchivedHighscoreDTO;
+import ch.quizinno.brainquest.enums.Difficulty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only archive of the highscores moved out of the database.
+ * The highscores are stored as gzip compressed NDJSON in one segment file per month of their creation (UTC),
+ * every append adds a gzip member to the end of the segment, which is read back as one stream.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class HighscoreArchive {
+
+    /**
+     * Logger to report damaged segments.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HighscoreArchive.class);
+    /**
+     * Size of the buffers to compress and decompress the segments.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Name of the segment of the highscores created before the time was recorded.
+     */
+    private static final String UNDATED = "undated";
+    /**
+     * Pattern of the segment file names, the month or undated.
+     */
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("highscores-(\\d{4}-\\d{2}|" + UNDATED + ")\\.ndjson\\.gz");
+
+    /**
+     * Directory of the segment files.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_ARCHIVE_DIR:archive}")
+    private String directory = "archive";
+
+    /**
+     * Jackson object mapper to write and read the lines of the segments.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a new HighscoreArchive.
+     *
+     * @param objectMapper the object mapper to write and read the lines of the segments
+     */
+    public HighscoreArchive(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appends highscores to the segments of their months.
+     * When the method returns, the highscores are written to the disk and can be deleted from the database.
+     * A failed append is removed from the segment, so the segment stays readable.
+     *
+     * @param highscores the highscores to archive
+     * @throws IOException if a segment cannot be written
+     */
+    public synchronized void append(List<ArchivedHighscoreDTO> highscores) throws IOException {
+        Map<String, List<ArchivedHighscoreDTO>> segments = new TreeMap<>();
+        for (ArchivedHighscoreDTO highscore : highscores) {
+            segments.computeIfAbsent(getSegmentName(highscore.getCreatedAt()), name -> new ArrayList<>()).add(highscore);
+        }
+
+        Path path = Path.of(directory);
+        Files.createDirectories(path);
+        for (Map.Entry<String, List<ArchivedHighscoreDTO>> segment : segments.entrySet()) {
+            append(path.resolve(segment.getKey()), segment.getValue());
+        }
+    }
+
+    /**
+     * Reads the archived highscores of a range of months, segment by segment in the order of the months.
+     * The undated highscores are only read if the range has no start.
+     *
+     * @param from       the first month or null for all months before the end
+     * @param to         the last month or null for all months after the start
+     * @param topicId    the topic ID to filter by or null
+     * @param difficulty the difficulty to filter by or null
+     * @param consumer   the consumer of the highscores
+     * @throws IOException if a segment cannot be read
+     */
+    public void scan(YearMonth from, YearMonth to, Long topicId, Difficulty difficulty, Consumer<ArchivedHighscoreDTO> consumer) throws IOException {
+        for (Path segment : getSegments(from, to)) {
+            scan(segment, topicId, difficulty, consumer);
+        }
+    }
+
+    /**
+     * Appends highscores to a segment as one gzip member and forces it to the disk.
+     *
+     * @param segment    the path of the segment
+     * @param highscores the highscores of the month of the segment
+     * @throws IOException if the segment cannot be written
+     */
+    private void append(Path segment, List<ArchivedHighscoreDTO> highscores) throws IOException {
+        // compress in memory first, the member is written to the segment with one write
+        ByteArrayOutputStream member = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(member, BUFFER_SIZE), StandardCharsets.UTF_8)) {
+            for (ArchivedHighscoreDTO highscore : highscores) {
+                writer.write(objectMapper.writeValueAsString(highscore));
+                writer.write('\n');
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long size = channel.size();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(member.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            } catch (IOException e) {
+                // remove the incomplete member, the following members would not be readable
+                channel.truncate(size);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reads the highscores of a segment.
+     * A highscore is archived again if its deletion from the database failed, so duplicate IDs are skipped.
+     *
+     * @param segment    the path of the segment
+     * @param topicId    the topic ID to filter by or null
+     * @param difficulty the difficulty to filter by or null
+     * @param consumer   the consumer of the highscores
+     * @throws IOException if the segment cannot be read
+     */
+    private void scan(Path segment, Long topicId, Difficulty difficulty, Consumer<ArchivedHighscoreDTO> consumer) throws IOException {
+        Set<Long> ids = new HashSet<>();
+        // split the lines on the bytes, a reader would decode ahead and lose the lines before a damaged member
+        try (InputStream input = new BufferedInputStream(new GZIPInputStream(Files.newInputStream(segment), BUFFER_SIZE), BUFFER_SIZE)) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = input.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                ArchivedHighscoreDTO highscore = objectMapper.readValue(line.toByteArray(), ArchivedHighscoreDTO.class);
+                line.reset();
+                if (!ids.add(highscore.getId())
+                        || (topicId != null && !topicId.equals(highscore.getTopicId()))
+                        || (difficulty != null && difficulty != highscore.getDifficulty())) {
+                    continue;
+                }
+                consumer.accept(highscore);
+            }
+        } catch (EOFException e) {
+            // the last member is being appended or was cut off, the complete lines before it are read
+            LOGGER.warn("Archive segment {} ends with an incomplete member", segment.getFileName());
+        }
+    }
+
+    /**
+     * Retrieves the segments of a range of months ordered by month, the undated segment first.
+     *
+     * @param from the first month or null
+     * @param to   the last month or null
+     * @return the paths of the segments
+     * @throws IOException if the directory cannot be listed
+     */
+    private List<Path> getSegments(YearMonth from, YearMonth to) throws IOException {
+        Path path = Path.of(directory);
+        if (!Files.isDirectory(path)) {
+            return List.of();
+        }
+
+        TreeMap<String, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(path)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_PATTERN.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    return;
+                }
+                String name = matcher.group(1);
+                if (name.equals(UNDATED)) {
+                    if (from == null) {
+                        // sorted before the months
+                        segments.put("", file);
+                    }
+                    return;
+                }
+                YearMonth month = YearMonth.parse(name);
+                if ((from == null || !month.isBefore(from)) && (to == null || !month.isAfter(to))) {
+                    segments.put(name, file);
+                }
+            });
+        }
+        return new ArrayList<>(segments.values());
+    }
+
+    /**
+     * Retrieves the file name of the segment of a creation time.
+     *
+     * @param createdAt the creation time or null
+     * @return the file name of the segment
+     */
+    private static String getSegmentName(Instant createdAt) {
+        String name = createdAt != null ? YearMonth.from(createdAt.atOffset(ZoneOffset.UTC)).toString() : UNDATED;
+        return "highscores-" + name + ".ndjson.gz";
+    }
+}
@@ -0,0 +1,314 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.ArchivedHighscoreDTO;
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background job moving highscores which are in no leaderboard anymore from the database to the archive.
+ * Per topic and difficulty it keeps the best N highscores of every player and the top K highscores,
+ * which contain the top K of all topics and difficulties, and highscores younger than the minimum age,
+ * so the daily and weekly leaderboards in memory are not changed.
+ * The highscores are archived and deleted in small batches, each deleted in its own short transaction, so no lock is held for long.
+ * A batch is only deleted once it is written to the archive, so no highscore is lost.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class HighscoreCompaction {
+
+    /**
+     * Logger to report the removed highscores.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HighscoreCompaction.class);
+    /**
+     * Number of batches selected per scan of a topic and difficulty, the scan ranks all highscores of the topic and difficulty.
+     */
+    private static final int BATCHES_PER_SCAN = 20;
+    /**
+     * Statement to select the topics and difficulties with highscores.
+     */
+    private static final String BUCKETS_SQL = "SELECT DISTINCT topic_id, difficulty FROM highscore WHERE difficulty IS NOT NULL";
+    /**
+     * Statement to select the removable highscores of a topic and difficulty, ranked per player and overall by score and ID.
+     */
+    private static final String REMOVABLE_SQL = "SELECT id, player_name, score, created_at FROM (" +
+            "SELECT id, player_name, score, created_at, " +
+            "ROW_NUMBER() OVER (PARTITION BY player_name ORDER BY score DESC, id DESC) AS player_rank, " +
+            "ROW_NUMBER() OVER (ORDER BY score DESC, id DESC) AS board_rank " +
+            "FROM highscore WHERE topic_id = ? AND difficulty = ?) ranked " +
+            "WHERE player_rank > ? AND board_rank > ? AND (created_at IS NULL OR created_at < ?) " +
+            "ORDER BY id LIMIT ?";
+    /**
+     * Statement to select the name of a topic, archived with the highscores.
+     */
+    private static final String TOPIC_NAME_SQL = "SELECT name FROM topic WHERE id = ?";
+    /**
+     * Statement to delete a highscore, the topic restricts the delete to the partition of the topic.
+     */
+    private static final String DELETE_SQL = "DELETE FROM highscore WHERE id = ? AND topic_id = ?";
+
+    /**
+     * Topic and difficulty of the highscores compacted together.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     */
+    private record Bucket(long topicId, Difficulty difficulty) {
+    }
+
+    /**
+     * Number of the best highscores kept per player, topic and difficulty.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_RETENTION_PER_PLAYER:10}")
+    private int bestPerPlayer = 10;
+    /**
+     * Number of the best highscores kept per topic and difficulty, at least the size of the leaderboards.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_RETENTION_TOP:${LEADERBOARD_SIZE:100}}")
+    private int top = 100;
+    /**
+     * Minimum age in days of a removed highscore, at least the days of the weekly leaderboards in memory.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_RETENTION_MIN_AGE_DAYS:35}")
+    private int minAgeDays = 35;
+    /**
+     * Maximum number of highscores deleted per transaction.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_COMPACTION_BATCH_SIZE:500}")
+    private int batchSize = 500;
+
+    /**
+     * JDBC template to select and delete the highscores.
+     */
+    private final JdbcTemplate jdbcTemplate;
+    /**
+     * Transaction template to delete a batch atomically.
+     */
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * In-memory leaderboards the deleted highscores are removed from.
+     */
+    private final HighscoreLeaderboard highscoreLeaderboard;
+    /**
+     * Archive the highscores are moved to.
+     */
+    private final HighscoreArchive highscoreArchive;
+    /**
+     * Number of removed highscores.
+     */
+    private final Counter removedCounter;
+    /**
+     * Duration of a compaction run.
+     */
+    private final Timer runTimer;
+    /**
+     * Registry of the metrics, the gauge of the progress is registered on startup.
+     */
+    private final MeterRegistry meterRegistry;
+    /**
+     * True while a compaction runs.
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+    /**
+     * Share of the topics and difficulties compacted by the current or last run, from 0 to 1.
+     */
+    private volatile double progress;
+
+    /**
+     * Constructs a new HighscoreCompaction.
+     *
+     * @param jdbcTemplate         the JDBC template to select and delete the highscores
+     * @param transactionManager   the transaction manager for the batch deletes
+     * @param meterRegistry        the registry of the metrics
+     * @param highscoreLeaderboard the in-memory leaderboards
+     * @param highscoreArchive     the archive the highscores are moved to
+     */
+    public HighscoreCompaction(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                               HighscoreLeaderboard highscoreLeaderboard, HighscoreArchive highscoreArchive) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.highscoreLeaderboard = highscoreLeaderboard;
+        this.highscoreArchive = highscoreArchive;
+        this.removedCounter = Counter.builder("highscore.compaction.removed")
+                .description("Highscores moved to the archive by the compaction")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("highscore.compaction.run")
+                .description("Duration of a highscore compaction run")
+                .register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registers the gauge of the progress once the application is started.
+     */
+    // Spring annotation to run the method when the application is ready.
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerProgress() {
+        Gauge.builder("highscore.compaction.progress", this, HighscoreCompaction::getProgress)
+                .description("Share of the topics and difficulties compacted by the current run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the compaction on the configured schedule, by default every night.
+     * The schedule "-" disables the compaction.
+     */
+    // Spring annotation to run the method periodically.
+    @Scheduled(cron = "${HIGHSCORE_COMPACTION_CRON:0 30 3 * * *}")
+    public void scheduledCompact() {
+        compact();
+    }
+
+    /**
+     * Moves the highscores of all topics and difficulties which are not kept to the archive.
+     * Returns immediately if a compaction is already running.
+     *
+     * @return the number of removed highscores
+     * @throws UncheckedIOException if the archive cannot be written, the highscores of the failed batch are kept
+     */
+    public long compact() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long removed = 0;
+        try {
+            progress = 0;
+            OffsetDateTime removableBefore = Instant.now().minus(minAgeDays, ChronoUnit.DAYS).atOffset(ZoneOffset.UTC);
+            List<Bucket> buckets = jdbcTemplate.query(BUCKETS_SQL,
+                    (rs, rowNum) -> new Bucket(rs.getLong("topic_id"), Difficulty.valueOf(rs.getString("difficulty"))));
+            for (int i = 0; i < buckets.size(); i++) {
+                removed += compact(buckets.get(i), removableBefore);
+                progress = (double) (i + 1) / buckets.size();
+            }
+            progress = 1;
+            LOGGER.info("Archived {} highscores of {} topics and difficulties", removed, buckets.size());
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the share of the topics and difficulties compacted by the current or last run.
+     *
+     * @return the progress from 0 to 1
+     */
+    public double getProgress() {
+        return progress;
+    }
+
+    /**
+     * Moves the highscores of a topic and difficulty which are not kept to the archive.
+     * The removable highscores are selected in scans of a few batches, so the memory used is bounded.
+     *
+     * @param bucket          the topic and difficulty
+     * @param removableBefore the creation time before which highscores may be removed
+     * @return the number of removed highscores
+     */
+    private long compact(Bucket bucket, OffsetDateTime removableBefore) {
+        Topic topic = Topic.builder().id(bucket.topicId()).build();
+        String topicName = jdbcTemplate.queryForList(TOPIC_NAME_SQL, String.class, bucket.topicId()).stream().findFirst().orElse(null);
+        int scanSize = batchSize * BATCHES_PER_SCAN;
+        long removed = 0;
+        List<Highscore> removable;
+        do {
+            removable = jdbcTemplate.query(REMOVABLE_SQL,
+                    (rs, rowNum) -> {
+                        OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+                        return Highscore.builder()
+                                .id(rs.getLong("id"))
+                                .playerName(rs.getString("player_name"))
+                                .score(rs.getInt("score"))
+                                .difficulty(bucket.difficulty())
+                                .topic(topic)
+                                .createdAt(createdAt != null ? createdAt.toInstant() : null)
+                                .build();
+                    },
+                    bucket.topicId(), bucket.difficulty().name(), bestPerPlayer, top, removableBefore, scanSize);
+
+            for (int from = 0; from < removable.size(); from += batchSize) {
+                List<Highscore> batch = removable.subList(from, Math.min(from + batchSize, removable.size()));
+                archive(batch, topicName);
+                delete(batch);
+                removed += batch.size();
+                removedCounter.increment(batch.size());
+            }
+        } while (removable.size() >= scanSize);
+        return removed;
+    }
+
+    /**
+     * Writes highscores to the archive.
+     *
+     * @param highscores the highscores to archive
+     * @param topicName  the name of the topic of the highscores
+     */
+    private void archive(List<Highscore> highscores, String topicName) {
+        List<ArchivedHighscoreDTO> archived = new ArrayList<>(highscores.size());
+        for (Highscore highscore : highscores) {
+            archived.add(ArchivedHighscoreDTO.builder()
+                    .id(highscore.getId())
+                    .playerName(highscore.getPlayerName())
+                    .score(highscore.getScore())
+                    .difficulty(highscore.getDifficulty())
+                    .topicId(highscore.getTopic().getId())
+                    .topicName(topicName)
+                    .createdAt(highscore.getCreatedAt())
+                    .build());
+        }
+        try {
+            highscoreArchive.append(archived);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Highscores could not be archived", e);
+        }
+    }
+
+    /**
+     * Deletes highscores in one JDBC batch and transaction and removes them from the leaderboards.
+     *
+     * @param highscores the highscores to delete
+     */
+    private void delete(List<Highscore> highscores) {
+        List<Object[]> keys = new ArrayList<>(highscores.size());
+        for (Highscore highscore : highscores) {
+            keys.add(new Object[]{highscore.getId(), highscore.getTopic().getId()});
+        }
+        highscoreLeaderboard.write(highscores, () -> {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(DELETE_SQL, keys));
+            highscores.forEach(highscoreLeaderboard::remove);
+            return highscores;
+        });
+    }
+}
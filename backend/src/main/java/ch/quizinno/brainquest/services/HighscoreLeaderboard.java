@@ -0,0 +1,758 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.LeaderboardWindow;
+import ch.quizinno.brainquest.models.LeaderboardPeriod;
+import ch.quizinno.brainquest.models.ScoreRankTree;
+import ch.quizinno.brainquest.repositories.HighscoreRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory leaderboards with the best highscores per topic and difficulty.
+ * Every leaderboard is a concurrent skip list ordered by score and ID (both descending) holding at most the top K highscores,
+ * so the highscore lists are read without locks and without a database query.
+ * Next to the top K every all-time leaderboard counts all highscores per score in a Fenwick tree, which ranks any score in O(log S).
+ * The daily and weekly leaderboards of the recent days and weeks are kept in a ring per topic, difficulty and window,
+ * the slot of the oldest period is reused for a new period.
+ * The leaderboards are built at startup and updated in place once a highscore write is committed.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class HighscoreLeaderboard {
+
+    /**
+     * Order of a leaderboard, the same as the highscore index (score descending, ID descending).
+     */
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::id, Comparator.reverseOrder());
+    /**
+     * Number of attempts to load a leaderboard while highscores are written.
+     */
+    private static final int LOAD_ATTEMPTS = 5;
+    /**
+     * The windows kept in rings of recent periods.
+     */
+    private static final List<LeaderboardWindow> PERIOD_WINDOWS = List.of(LeaderboardWindow.DAILY, LeaderboardWindow.WEEKLY);
+
+    /**
+     * Identifies the leaderboard of a topic and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     */
+    private record Key(Long topicId, Difficulty difficulty) {
+    }
+
+    /**
+     * Identifies the ring of the daily or weekly leaderboards of a topic and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param window     the window, DAILY or WEEKLY
+     */
+    private record RingKey(Long topicId, Difficulty difficulty, LeaderboardWindow window) {
+    }
+
+    /**
+     * Highscore of a leaderboard.
+     *
+     * @param score     the score, first sort key
+     * @param id        the ID of the highscore, second sort key
+     * @param highscore the summary of the highscore which is returned, must not be modified
+     */
+    private record Entry(int score, long id, HighscoreSummaryDTO highscore) {
+    }
+
+    /**
+     * Highscores of a leaderboard read from the database.
+     *
+     * @param topic       the topic of the leaderboard
+     * @param highscores  the best highscores, one more than K
+     * @param scoreCounts the score and the number of highscores per score, empty if not read
+     */
+    private record Snapshot(Topic topic, List<HighscoreSummaryDTO> highscores, List<Object[]> scoreCounts) {
+    }
+
+    /**
+     * Highscore writes of a topic and difficulty, shared by its all-time and period leaderboards.
+     * A leaderboard is only loaded while no write of its topic and difficulty is in progress, so no highscore is counted twice or missed.
+     */
+    private static final class Writes {
+        /**
+         * Number of started highscore writes.
+         */
+        private final AtomicLong started = new AtomicLong();
+        /**
+         * Number of highscore writes which are committed or rolled back and applied to the leaderboards.
+         */
+        private final AtomicLong finished = new AtomicLong();
+    }
+
+    /**
+     * Leaderboard of a topic and difficulty, of all highscores or of the highscores created in one period.
+     * Writes are synchronized on the leaderboard, reads are not.
+     */
+    private static final class Board {
+        /**
+         * Monitor held while the leaderboard is loaded, so it is loaded only once.
+         */
+        private final Object loadMonitor = new Object();
+        /**
+         * The day or week of the highscores, null for the all-time leaderboard.
+         */
+        private final LeaderboardPeriod period;
+        /**
+         * The best highscores in leaderboard order.
+         */
+        private volatile ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+        /**
+         * The number of all highscores per score, only counted by the all-time leaderboard.
+         */
+        private volatile ScoreRankTree ranks = new ScoreRankTree();
+        /**
+         * The topic of the highscores, its name is copied to the entries.
+         */
+        private volatile Topic topic;
+        /**
+         * True once the highscores are loaded from the database.
+         */
+        private volatile boolean loaded;
+        /**
+         * True if the leaderboard contains all highscores of the topic and difficulty, not only the top K.
+         */
+        private volatile boolean complete;
+        /**
+         * True if a highscore of the top K was removed and the top K must be reloaded.
+         */
+        private volatile boolean stale;
+
+        /**
+         * Constructs an empty leaderboard.
+         *
+         * @param period the day or week of the highscores, null for the all-time leaderboard
+         */
+        private Board(LeaderboardPeriod period) {
+            this.period = period;
+        }
+    }
+
+    /**
+     * Maximum number of highscores kept per topic and difficulty.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${LEADERBOARD_SIZE:100}")
+    private int maxSize = 100;
+    /**
+     * Number of recent days with a daily leaderboard in memory, older days are read from the database.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${LEADERBOARD_DAYS:7}")
+    private int days = 7;
+    /**
+     * Number of recent weeks with a weekly leaderboard in memory, older weeks are read from the database.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${LEADERBOARD_WEEKS:4}")
+    private int weeks = 4;
+    /**
+     * Time zone the days of the daily and weekly leaderboards start in.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${LEADERBOARD_ZONE:UTC}")
+    private ZoneId zone = ZoneOffset.UTC;
+
+    /**
+     * Repository for managing highscores.
+     */
+    private final HighscoreRepository highscoreRepository;
+    /**
+     * Repository for managing topics.
+     */
+    private final TopicRepository topicRepository;
+    /**
+     * Transaction template to load a leaderboard from committed highscores only.
+     */
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * All-time leaderboards by topic and difficulty.
+     */
+    private final ConcurrentHashMap<Key, Board> boards = new ConcurrentHashMap<>();
+    /**
+     * Rings of the daily and weekly leaderboards by topic, difficulty and window, one slot per recent period.
+     */
+    private final ConcurrentHashMap<RingKey, AtomicReferenceArray<Board>> rings = new ConcurrentHashMap<>();
+    /**
+     * Highscore writes by topic and difficulty, kept while the application runs as writes may still be in progress.
+     */
+    private final ConcurrentHashMap<Key, Writes> writes = new ConcurrentHashMap<>();
+    /**
+     * Listeners notified with the topic ID and difficulty once a highscore is added to or removed from the leaderboards.
+     */
+    private final List<BiConsumer<Long, Difficulty>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new HighscoreLeaderboard.
+     *
+     * @param highscoreRepository the repository to manage highscores
+     * @param topicRepository     the repository to manage topics
+     * @param transactionManager  the transaction manager for loading the leaderboards
+     */
+    public HighscoreLeaderboard(HighscoreRepository highscoreRepository, TopicRepository topicRepository, PlatformTransactionManager transactionManager) {
+        this.highscoreRepository = highscoreRepository;
+        this.topicRepository = topicRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Builds the all-time leaderboards and the leaderboards of the current day and week
+     * of all topics and difficulties once the application is started.
+     */
+    // Spring annotation to run the method once the application is ready to serve requests.
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        for (Topic topic : topicRepository.findAll()) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                getBoard(topic.getId(), difficulty);
+                for (LeaderboardWindow window : PERIOD_WINDOWS) {
+                    getPeriodBoard(new Key(topic.getId(), difficulty), getPeriod(window, null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the period of a daily or weekly leaderboard.
+     *
+     * @param window the window, DAILY or WEEKLY
+     * @param date   a date in the period or null for the current period
+     * @return the day or week containing the date
+     */
+    public LeaderboardPeriod getPeriod(LeaderboardWindow window, LocalDate date) {
+        return LeaderboardPeriod.of(window, date != null ? date : LocalDate.now(zone), zone);
+    }
+
+    /**
+     * Retrieves the best highscores of a topic and difficulty sorted by score and ID, both descending.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param limit      the maximum number of highscores or null for all
+     * @return the highscores or empty if the leaderboard cannot answer the request and the database must be queried
+     */
+    public Optional<List<HighscoreSummaryDTO>> getTopHighscores(Long topicId, Difficulty difficulty, Integer limit) {
+        return getTopHighscores(getBoard(topicId, difficulty), limit);
+    }
+
+    /**
+     * Retrieves the best highscores of a topic and difficulty created in a day or week, sorted by score and ID, both descending.
+     * Only the recent days and weeks are kept in memory.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param period     the day or week
+     * @param limit      the maximum number of highscores or null for all
+     * @return the highscores or empty if the leaderboard cannot answer the request and the database must be queried
+     */
+    public Optional<List<HighscoreSummaryDTO>> getTopHighscores(Long topicId, Difficulty difficulty, LeaderboardPeriod period, Integer limit) {
+        return getTopHighscores(getPeriodBoard(new Key(topicId, difficulty), period), limit);
+    }
+
+    /**
+     * Counts the highscores of a topic and difficulty with a higher score.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param score      the score
+     * @return the number of higher highscores or empty if the leaderboard is not loaded and the database must be queried
+     */
+    public OptionalLong countHigherScores(Long topicId, Difficulty difficulty, int score) {
+        Board board = getBoard(topicId, difficulty);
+        return board != null ? OptionalLong.of(board.ranks.countHigher(score)) : OptionalLong.empty();
+    }
+
+    /**
+     * Counts the highscores of a topic and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @return the number of highscores or empty if the leaderboard is not loaded and the database must be queried
+     */
+    public OptionalLong countHighscores(Long topicId, Difficulty difficulty) {
+        Board board = getBoard(topicId, difficulty);
+        return board != null ? OptionalLong.of(board.ranks.count()) : OptionalLong.empty();
+    }
+
+    /**
+     * Runs a highscore write which adds or removes highscores with {@link #add(Highscore)} and {@link #remove(Highscore)}.
+     * The leaderboards of the topics and difficulties of the highscores are not loaded while the write is in progress,
+     * the other leaderboards are.
+     *
+     * @param highscores the written highscores, updated highscores with their values before and after the write
+     * @param write      the write
+     * @param <T>        the type of the result of the write
+     * @return the result of the write
+     */
+    public <T> T write(Collection<Highscore> highscores, Supplier<T> write) {
+        List<Writes> started = new ArrayList<>();
+        for (Highscore highscore : highscores) {
+            if (highscore.getTopic() == null || highscore.getDifficulty() == null) {
+                continue;
+            }
+            Writes keyWrites = writes.computeIfAbsent(new Key(highscore.getTopic().getId(), highscore.getDifficulty()), k -> new Writes());
+            if (!started.contains(keyWrites)) {
+                keyWrites.started.incrementAndGet();
+                started.add(keyWrites);
+            }
+        }
+
+        try {
+            return write.get();
+        } finally {
+            // finish once the updates of the write are applied, after commit or rollback
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        started.forEach(keyWrites -> keyWrites.finished.incrementAndGet());
+                    }
+                });
+            } else {
+                started.forEach(keyWrites -> keyWrites.finished.incrementAndGet());
+            }
+        }
+    }
+
+    /**
+     * Registers a listener notified with the topic ID and difficulty once a highscore write is applied to the leaderboards.
+     * The listener is called on the writing thread and must return quickly.
+     *
+     * @param listener the listener
+     */
+    public void addListener(BiConsumer<Long, Difficulty> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Adds a created or updated highscore to its leaderboards once the write is committed.
+     *
+     * @param highscore the written highscore with its ID
+     */
+    public void add(Highscore highscore) {
+        if (highscore.getId() == null || highscore.getTopic() == null || highscore.getDifficulty() == null) {
+            return;
+        }
+        Key key = new Key(highscore.getTopic().getId(), highscore.getDifficulty());
+        long id = highscore.getId();
+        int score = highscore.getScore();
+        String playerName = highscore.getPlayerName();
+        List<LeaderboardPeriod> periods = getPeriods(highscore.getCreatedAt());
+
+        afterCommit(() -> {
+            // leaderboards which are not loaded yet read the highscore from the database
+            insert(boards.get(key), id, playerName, score, key);
+            for (LeaderboardPeriod period : periods) {
+                insert(findPeriodBoard(key, period), id, playerName, score, key);
+            }
+            notifyListeners(key);
+        });
+    }
+
+    /**
+     * Removes a deleted or updated highscore from its leaderboards once the write is committed.
+     *
+     * @param highscore the highscore with the values before the write
+     */
+    public void remove(Highscore highscore) {
+        if (highscore.getId() == null || highscore.getTopic() == null || highscore.getDifficulty() == null) {
+            return;
+        }
+        Key key = new Key(highscore.getTopic().getId(), highscore.getDifficulty());
+        Entry removed = new Entry(highscore.getScore(), highscore.getId(), null);
+        List<LeaderboardPeriod> periods = getPeriods(highscore.getCreatedAt());
+
+        afterCommit(() -> {
+            delete(boards.get(key), removed);
+            for (LeaderboardPeriod period : periods) {
+                delete(findPeriodBoard(key, period), removed);
+            }
+            notifyListeners(key);
+        });
+    }
+
+    /**
+     * Removes the leaderboards of a topic, they are reloaded on the next read.
+     *
+     * @param topicId the ID of the topic
+     */
+    public void invalidateTopic(Long topicId) {
+        boards.keySet().removeIf(key -> key.topicId().equals(topicId));
+        rings.keySet().removeIf(key -> key.topicId().equals(topicId));
+    }
+
+    /**
+     * Removes all leaderboards.
+     */
+    public void clear() {
+        boards.clear();
+        rings.clear();
+    }
+
+    /**
+     * Retrieves the best highscores of a leaderboard.
+     *
+     * @param board the loaded leaderboard or null
+     * @param limit the maximum number of highscores or null for all
+     * @return the highscores or empty if the leaderboard cannot answer the request and the database must be queried
+     */
+    private Optional<List<HighscoreSummaryDTO>> getTopHighscores(Board board, Integer limit) {
+        // highscores below the top K are only in the database
+        if (board == null || board.stale || (!board.complete && (limit == null || limit > maxSize))) {
+            return Optional.empty();
+        }
+
+        int count = limit != null ? limit : Integer.MAX_VALUE;
+        List<HighscoreSummaryDTO> highscores = new ArrayList<>(Math.min(count, maxSize));
+        for (Entry entry : board.entries) {
+            if (highscores.size() >= count) {
+                break;
+            }
+            highscores.add(entry.highscore());
+        }
+        return Optional.of(highscores);
+    }
+
+    /**
+     * Adds a highscore to a loaded leaderboard and keeps only the top K.
+     *
+     * @param board      the leaderboard or null
+     * @param id         the ID of the highscore
+     * @param playerName the name of the player
+     * @param score      the score
+     * @param key        the topic and difficulty of the leaderboard
+     */
+    private void insert(Board board, long id, String playerName, int score, Key key) {
+        if (board == null) {
+            return;
+        }
+        synchronized (board) {
+            if (!board.loaded) {
+                return;
+            }
+            if (board.period == null) {
+                board.ranks.add(score, 1);
+            }
+            board.entries.add(new Entry(score, id, summary(id, playerName, score, key, board.topic)));
+            // keep only the top K
+            while (board.entries.size() > maxSize) {
+                board.entries.pollLast();
+                board.complete = false;
+            }
+        }
+    }
+
+    /**
+     * Removes a highscore from a loaded leaderboard.
+     *
+     * @param board   the leaderboard or null
+     * @param removed the score and ID of the highscore
+     */
+    private void delete(Board board, Entry removed) {
+        if (board == null) {
+            return;
+        }
+        synchronized (board) {
+            if (!board.loaded) {
+                return;
+            }
+            if (board.period == null) {
+                board.ranks.add(removed.score(), -1);
+            }
+            if (board.entries.remove(removed) && !board.complete) {
+                // the next best highscore is only in the database, reload the top K on the next read
+                board.stale = true;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the all-time leaderboard of a topic and difficulty and loads it if required.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @return the loaded leaderboard or null if the topic does not exist or the leaderboard could not be loaded
+     */
+    private Board getBoard(Long topicId, Difficulty difficulty) {
+        Key key = new Key(topicId, difficulty);
+        Board board = boards.computeIfAbsent(key, k -> new Board(null));
+        if (!loadIfRequired(key, board)) {
+            // do not keep leaderboards of unknown topics
+            boards.remove(key, board);
+            return null;
+        }
+        return board.loaded ? board : null;
+    }
+
+    /**
+     * Retrieves the daily or weekly leaderboard of a topic and difficulty and loads it if required.
+     * If the slot of the period in the ring still holds an older period, the older period is replaced.
+     *
+     * @param key    the topic and difficulty
+     * @param period the day or week
+     * @return the loaded leaderboard or null if the period is not recent, the topic does not exist or the leaderboard could not be loaded
+     */
+    private Board getPeriodBoard(Key key, LeaderboardPeriod period) {
+        int size = period.window() == LeaderboardWindow.WEEKLY ? weeks : days;
+        long current = getPeriod(period.window(), null).index();
+        if (size <= 0 || period.index() > current || period.index() <= current - size) {
+            // only the recent periods are kept in memory
+            return null;
+        }
+
+        AtomicReferenceArray<Board> ring = rings.computeIfAbsent(new RingKey(key.topicId(), key.difficulty(), period.window()),
+                k -> new AtomicReferenceArray<>(size));
+        int slot = slot(ring, period);
+        Board board = ring.get(slot);
+        while (board == null || board.period.index() < period.index()) {
+            // rotate the slot from the older period to the requested period
+            Board created = new Board(period);
+            board = ring.compareAndSet(slot, board, created) ? created : ring.get(slot);
+        }
+        if (board.period.index() != period.index()) {
+            // the slot already holds a newer period
+            return null;
+        }
+
+        if (!loadIfRequired(key, board)) {
+            // do not keep leaderboards of unknown topics
+            ring.compareAndSet(slot, board, null);
+            return null;
+        }
+        return board.loaded ? board : null;
+    }
+
+    /**
+     * Retrieves the daily or weekly leaderboard of a period from its ring, without creating or loading it.
+     *
+     * @param key    the topic and difficulty
+     * @param period the day or week
+     * @return the leaderboard or null if the ring does not hold the period
+     */
+    private Board findPeriodBoard(Key key, LeaderboardPeriod period) {
+        AtomicReferenceArray<Board> ring = rings.get(new RingKey(key.topicId(), key.difficulty(), period.window()));
+        if (ring == null) {
+            return null;
+        }
+        Board board = ring.get(slot(ring, period));
+        return board != null && board.period.index() == period.index() ? board : null;
+    }
+
+    /**
+     * Retrieves the slot of a period in a ring.
+     *
+     * @param ring   the ring of the daily or weekly leaderboards
+     * @param period the day or week
+     * @return the slot of the period
+     */
+    private static int slot(AtomicReferenceArray<Board> ring, LeaderboardPeriod period) {
+        return (int) Math.floorMod(period.index(), (long) ring.length());
+    }
+
+    /**
+     * Retrieves the day and week a highscore was created in.
+     *
+     * @param createdAt the time the highscore was created or null
+     * @return the day and the week, empty if the creation time is unknown
+     */
+    private List<LeaderboardPeriod> getPeriods(Instant createdAt) {
+        if (createdAt == null) {
+            return List.of();
+        }
+        List<LeaderboardPeriod> periods = new ArrayList<>(PERIOD_WINDOWS.size());
+        for (LeaderboardWindow window : PERIOD_WINDOWS) {
+            periods.add(LeaderboardPeriod.of(window, createdAt, zone));
+        }
+        return periods;
+    }
+
+    /**
+     * Loads a leaderboard if it is not loaded yet or stale, a leaderboard is loaded by one thread only.
+     *
+     * @param key   the topic and difficulty of the leaderboard
+     * @param board the leaderboard
+     * @return false if the topic does not exist
+     */
+    private boolean loadIfRequired(Key key, Board board) {
+        if (!board.loaded || board.stale) {
+            synchronized (board.loadMonitor) {
+                if (!board.loaded || board.stale) {
+                    return load(key, board);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Loads the top K highscores of a leaderboard from the database,
+     * and for the all-time leaderboard the number of highscores per score if not loaded yet.
+     * The load is only used if no highscore write of the topic and difficulty was in progress while reading, otherwise it is retried.
+     *
+     * @param key   the topic and difficulty of the leaderboard
+     * @param board the leaderboard to fill
+     * @return false if the topic does not exist
+     */
+    private boolean load(Key key, Board board) {
+        boolean loadRanks = board.period == null && !board.loaded;
+        Writes keyWrites = writes.computeIfAbsent(key, k -> new Writes());
+        for (int attempt = 0; attempt < LOAD_ATTEMPTS; attempt++) {
+            // read finished before started, if both are equal no write was in progress
+            long finished = keyWrites.finished.get();
+            long started = keyWrites.started.get();
+            if (finished != started) {
+                Thread.yield();
+                continue;
+            }
+
+            Snapshot snapshot = transactionTemplate.execute(status -> read(key, board.period, loadRanks));
+            if (snapshot == null) {
+                return false;
+            }
+
+            List<HighscoreSummaryDTO> highscores = snapshot.highscores();
+            ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+            for (HighscoreSummaryDTO highscore : highscores.subList(0, Math.min(maxSize, highscores.size()))) {
+                entries.add(new Entry(highscore.getScore(), highscore.getId(), highscore));
+            }
+            ScoreRankTree ranks = new ScoreRankTree();
+            for (Object[] scoreCount : snapshot.scoreCounts()) {
+                ranks.add(((Number) scoreCount[0]).intValue(), ((Number) scoreCount[1]).longValue());
+            }
+
+            synchronized (board) {
+                if (keyWrites.started.get() != started) {
+                    // a write started while reading, it may or may not be read
+                    continue;
+                }
+                board.topic = snapshot.topic();
+                board.entries = entries;
+                if (loadRanks) {
+                    board.ranks = ranks;
+                }
+                board.complete = highscores.size() <= maxSize;
+                board.stale = false;
+                board.loaded = true;
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the highscores of a leaderboard in one transaction.
+     *
+     * @param key        the topic and difficulty of the leaderboard
+     * @param period     the day or week of the highscores, null for all highscores
+     * @param readCounts true to read the number of highscores per score
+     * @return the highscores or null if the topic does not exist
+     */
+    private Snapshot read(Key key, LeaderboardPeriod period, boolean readCounts) {
+        Optional<Topic> topic = topicRepository.findById(key.topicId());
+        if (topic.isEmpty()) {
+            return null;
+        }
+
+        // read one more than K to know whether the leaderboard is complete
+        Sort sort = Sort.by(Sort.Direction.DESC, "score").and(Sort.by(Sort.Direction.DESC, "id"));
+        PageRequest pageRequest = PageRequest.of(0, maxSize + 1, sort);
+        List<HighscoreSummaryDTO> highscores = period == null
+                ? highscoreRepository.findSummariesByTopicIdAndDifficulty(key.topicId(), key.difficulty(), pageRequest)
+                : highscoreRepository.findSummariesCreatedBetween(key.topicId(), key.difficulty(), period.from(), period.to(), pageRequest);
+        List<Object[]> scoreCounts = readCounts ? highscoreRepository.countByScore(key.topicId(), key.difficulty()) : List.of();
+        return new Snapshot(topic.get(), highscores, scoreCounts);
+    }
+
+    /**
+     * Creates the summary of a highscore stored in a leaderboard.
+     *
+     * @param id         the ID of the highscore
+     * @param playerName the name of the player
+     * @param score      the score
+     * @param key        the topic and difficulty of the leaderboard
+     * @param topic      the loaded topic of the leaderboard
+     * @return the summary of the highscore
+     */
+    private static HighscoreSummaryDTO summary(long id, String playerName, int score, Key key, Topic topic) {
+        return HighscoreSummaryDTO.builder()
+                .id(id)
+                .playerName(playerName)
+                .score(score)
+                .difficulty(key.difficulty())
+                .topicId(topic.getId())
+                .topicName(topic.getName())
+                .build();
+    }
+
+    /**
+     * Notifies the listeners that the leaderboards of a topic and difficulty changed.
+     *
+     * @param key the topic and difficulty
+     */
+    private void notifyListeners(Key key) {
+        for (BiConsumer<Long, Difficulty> listener : listeners) {
+            listener.accept(key.topicId(), key.difficulty());
+        }
+    }
+
+    /**
+     * Runs an update of the leaderboards after the current transaction is committed, or immediately without a transaction.
+     * Leaderboards never contain highscores of rolled back transactions.
+     *
+     * @param update the update to run
+     */
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
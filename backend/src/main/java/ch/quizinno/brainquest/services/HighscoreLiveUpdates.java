@@ -0,0 +1,446 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.SortBy;
+import ch.quizinno.brainquest.enums.SortDir;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pushes the best highscores of a topic and difficulty to the subscribed clients as Server-Sent Events.
+ * A highscore write only marks the leaderboard as changed, the changed leaderboards are pushed once per interval,
+ * so a burst of writes results in one push. The leaderboard is only pushed if its best highscores changed,
+ * and it is serialized once per push for all subscribers.
+ * The events are sent by a bounded pool of sender threads, a subscriber keeps only its latest unsent event,
+ * so a slow subscriber skips leaderboards instead of delaying the others.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class HighscoreLiveUpdates implements SmartLifecycle {
+
+    /**
+     * Name of the events with the best highscores.
+     */
+    public static final String EVENT_NAME = "leaderboard";
+
+    /**
+     * Identifies the leaderboard of a topic and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     */
+    private record Key(Long topicId, Difficulty difficulty) {
+    }
+
+    /**
+     * Connection of a subscriber with its next event.
+     * Only one sender thread sends to a subscriber at a time, so the subscriber receives the leaderboards in order.
+     */
+    private static final class Subscriber {
+        /**
+         * The connection of the subscriber.
+         */
+        private final SseEmitter emitter;
+        /**
+         * The event to send next, replaced by a newer event if it was not sent yet, null if none.
+         */
+        private final AtomicReference<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new AtomicReference<>();
+        /**
+         * True while a sender thread is scheduled for the subscriber.
+         */
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        /**
+         * Constructs a new Subscriber.
+         *
+         * @param emitter the connection of the subscriber
+         */
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Subscribers of the leaderboard of a topic and difficulty, removed with its last subscriber.
+     * Pushes are synchronized on the channel, so the leaderboards are handed to the subscribers in order.
+     */
+    private static final class Channel {
+        /**
+         * The open connections of the subscribers.
+         */
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        /**
+         * True if a highscore of the leaderboard was written since the last push.
+         */
+        private final AtomicBoolean changed = new AtomicBoolean();
+        /**
+         * The last pushed leaderboard as JSON, null if none was pushed.
+         */
+        private volatile String leaderboard;
+    }
+
+    /**
+     * Number of the best highscores pushed.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_LIVE_SIZE:10}")
+    private int size = 10;
+    /**
+     * Time in milliseconds after which a subscription is closed, the client reconnects.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_LIVE_TIMEOUT:1800000}")
+    private long timeout = 1800000;
+    /**
+     * Number of threads sending the events to the subscribers.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_LIVE_SENDERS:4}")
+    private int senders = 4;
+    /**
+     * Maximum number of subscribers waiting for a sender thread, further events are dropped until the next push.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_LIVE_QUEUE_CAPACITY:10000}")
+    private int queueCapacity = 10000;
+    /**
+     * Maximum number of open subscriptions, new subscriptions are rejected once it is reached.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_LIVE_MAX_SUBSCRIBERS:10000}")
+    private int maxSubscribers = 10000;
+
+    /**
+     * Service to read the best highscores.
+     */
+    private final HighscoreService highscoreService;
+    /**
+     * Repository to check the topic of a subscription.
+     */
+    private final TopicRepository topicRepository;
+    /**
+     * Jackson object mapper to serialize the leaderboards.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Subscribers by topic and difficulty.
+     */
+    private final Map<Key, Channel> channels = new ConcurrentHashMap<>();
+    /**
+     * Number of open subscriptions of all channels.
+     */
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    /**
+     * Registry of the metrics, the gauge of the subscriptions is registered on start.
+     */
+    private final MeterRegistry meterRegistry;
+    /**
+     * Number of pushed leaderboards.
+     */
+    private final Counter pushCounter;
+    /**
+     * Number of events not sent because the subscriber was too slow.
+     */
+    private final Counter droppedCounter;
+    /**
+     * Threads sending the events to the subscribers, created on start.
+     */
+    private volatile ThreadPoolExecutor executor;
+
+    /**
+     * Constructs a new HighscoreLiveUpdates, notified by the leaderboards about highscore writes.
+     *
+     * @param highscoreService     the service to read the best highscores
+     * @param highscoreLeaderboard the in-memory leaderboards notifying about highscore writes
+     * @param topicRepository      the repository to check the topic of a subscription
+     * @param objectMapper         the object mapper to serialize the leaderboards
+     * @param meterRegistry        the registry of the metrics
+     */
+    public HighscoreLiveUpdates(HighscoreService highscoreService, HighscoreLeaderboard highscoreLeaderboard, TopicRepository topicRepository,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.highscoreService = highscoreService;
+        this.topicRepository = topicRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.pushCounter = Counter.builder("highscore.live.pushes")
+                .description("Leaderboards pushed to the subscribers")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("highscore.live.dropped")
+                .description("Events replaced or dropped because the subscriber was too slow")
+                .register(meterRegistry);
+        highscoreLeaderboard.addListener(this::markChanged);
+    }
+
+    /**
+     * Subscribes to the best highscores of a topic and difficulty.
+     * The current leaderboard is sent immediately, the changes are pushed once per interval.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @return the connection the leaderboards are sent to
+     */
+    public SseEmitter subscribe(Long topicId, Difficulty difficulty) {
+        if (!topicRepository.existsById(topicId)) {
+            throw new RuntimeException("Topic not found with id " + topicId);
+        }
+        // subscriptions can be opened without login, the number of open connections is limited
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Too many leaderboard subscriptions, try again later");
+        }
+
+        Key key = new Key(topicId, difficulty);
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter);
+        // added atomically, so the channel is not removed by the last subscriber leaving in the meantime
+        Channel channel = channels.compute(key, (k, current) -> {
+            Channel added = current != null ? current : new Channel();
+            added.subscribers.add(subscriber);
+            return added;
+        });
+        emitter.onCompletion(() -> unsubscribe(key, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(key, subscriber));
+
+        synchronized (channel) {
+            String leaderboard = read(key);
+            if (channel.leaderboard == null) {
+                // no subscriber received a pushed leaderboard of the new channel
+                channel.leaderboard = leaderboard;
+            }
+            send(key, subscriber, toEvent(leaderboard));
+        }
+        return emitter;
+    }
+
+    /**
+     * Pushes the changed leaderboards to their subscribers, runs once per interval.
+     */
+    // Spring annotation to run the method periodically.
+    @Scheduled(fixedDelayString = "${HIGHSCORE_LIVE_INTERVAL:1000}")
+    public void push() {
+        for (Map.Entry<Key, Channel> entry : channels.entrySet()) {
+            Channel channel = entry.getValue();
+            if (channel.subscribers.isEmpty() || !channel.changed.getAndSet(false)) {
+                continue;
+            }
+
+            synchronized (channel) {
+                String leaderboard = read(entry.getKey());
+                if (leaderboard.equals(channel.leaderboard)) {
+                    // the write did not change the best highscores
+                    continue;
+                }
+                channel.leaderboard = leaderboard;
+                Set<ResponseBodyEmitter.DataWithMediaType> event = toEvent(leaderboard);
+                for (Subscriber subscriber : channel.subscribers) {
+                    send(entry.getKey(), subscriber, event);
+                }
+                pushCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Sends a comment to all subscribers, so idle connections are kept open by proxies and closed connections are detected.
+     */
+    // Spring annotation to run the method periodically.
+    @Scheduled(fixedDelayString = "${HIGHSCORE_LIVE_HEARTBEAT:30000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event().comment("heartbeat").build();
+        for (Map.Entry<Key, Channel> entry : channels.entrySet()) {
+            for (Subscriber subscriber : entry.getValue().subscribers) {
+                // a pending leaderboard keeps the connection open as well
+                if (subscriber.pending.compareAndSet(null, event)) {
+                    schedule(entry.getKey(), subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers the gauge of the subscriptions and starts the threads sending the events.
+     */
+    @Override
+    public void start() {
+        Gauge.builder("highscore.live.subscribers", this, HighscoreLiveUpdates::getSubscriberCount)
+                .description("Open leaderboard subscriptions")
+                .register(meterRegistry);
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(senders, senders, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "highscore-live-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the threads sending the events, unsent events are dropped.
+     */
+    @Override
+    public void stop() {
+        ThreadPoolExecutor current = executor;
+        executor = null;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks if the threads sending the events are running.
+     *
+     * @return true if the threads are running
+     */
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Retrieves the number of open subscriptions.
+     *
+     * @return the number of subscriptions
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Marks the leaderboard of a topic and difficulty as changed if it has subscribers.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     */
+    private void markChanged(Long topicId, Difficulty difficulty) {
+        Channel channel = channels.get(new Key(topicId, difficulty));
+        if (channel != null) {
+            channel.changed.set(true);
+        }
+    }
+
+    /**
+     * Reads the best highscores of a topic and difficulty as JSON.
+     *
+     * @param key the topic and difficulty
+     * @return the best highscores as JSON array
+     */
+    private String read(Key key) {
+        List<HighscoreSummaryDTO> highscores = highscoreService.getHighscores(key.topicId(), key.difficulty(), SortBy.SCORE, SortDir.DESC, size);
+        try {
+            return objectMapper.writeValueAsString(highscores);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Leaderboard could not be serialized", e);
+        }
+    }
+
+    /**
+     * Builds the event of a leaderboard.
+     *
+     * @param leaderboard the best highscores as JSON array
+     * @return the event
+     */
+    private static Set<ResponseBodyEmitter.DataWithMediaType> toEvent(String leaderboard) {
+        return SseEmitter.event().name(EVENT_NAME).data(leaderboard).build();
+    }
+
+    /**
+     * Hands an event to the sender threads, an unsent event of the subscriber is replaced.
+     *
+     * @param key        the topic and difficulty of the subscriber
+     * @param subscriber the subscriber
+     * @param event      the event
+     */
+    private void send(Key key, Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (subscriber.pending.getAndSet(event) != null) {
+            // the subscriber did not receive the previous event yet
+            droppedCounter.increment();
+        }
+        schedule(key, subscriber);
+    }
+
+    /**
+     * Schedules a sender thread for a subscriber unless one is scheduled already.
+     * If all sender threads are busy and the queue is full, the event stays pending until the next event of the subscriber.
+     *
+     * @param key        the topic and difficulty of the subscriber
+     * @param subscriber the subscriber
+     */
+    private void schedule(Key key, Subscriber subscriber) {
+        ThreadPoolExecutor current = executor;
+        if (current == null || !subscriber.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.execute(() -> drain(key, subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.sending.set(false);
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Sends the pending events of a subscriber on a sender thread, the subscriber is removed if its connection is closed.
+     *
+     * @param key        the topic and difficulty of the subscriber
+     * @param subscriber the subscriber
+     */
+    private void drain(Key key, Subscriber subscriber) {
+        do {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while ((event = subscriber.pending.getAndSet(null)) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // the client disconnected or the subscription timed out
+                    subscriber.pending.set(null);
+                    unsubscribe(key, subscriber);
+                    return;
+                }
+            }
+            subscriber.sending.set(false);
+            // an event may have been handed over after the last check but before sending was reset
+        } while (subscriber.pending.get() != null && subscriber.sending.compareAndSet(false, true));
+    }
+
+    /**
+     * Removes a subscriber, the channel is removed with its last subscriber.
+     *
+     * @param key        the topic and difficulty of the subscriber
+     * @param subscriber the subscriber
+     */
+    private void unsubscribe(Key key, Subscriber subscriber) {
+        channels.computeIfPresent(key, (k, channel) -> {
+            // the connection may be completed and fail, it is counted once
+            if (channel.subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+}
@@ -1,14 +1,42 @@
 package ch.quizinno.brainquest.services;
 
+import ch.quizinno.brainquest.dtos.HighscorePageDTO;
+import ch.quizinno.brainquest.dtos.HighscoreRankDTO;
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.dtos.RankedHighscoreDTO;
 import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.ExportFormat;
+import ch.quizinno.brainquest.enums.LeaderboardWindow;
 import ch.quizinno.brainquest.enums.SortBy;
 import ch.quizinno.brainquest.enums.SortDir;
+import ch.quizinno.brainquest.models.HighscoreCursor;
+import ch.quizinno.brainquest.models.LeaderboardPeriod;
+import ch.quizinno.brainquest.models.ScoreRankTree;
 import ch.quizinno.brainquest.repositories.HighscoreRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service for managing highscores.
@@ -17,27 +45,58 @@ import java.util.Optional;
 @Service
 public class HighscoreService {
 
+    /**
+     * Maximum number of highscores shown above and below a player.
+     */
+    public static final int MAX_AROUND_SIZE = 50;
+    /**
+     * Maximum number of highscores per page.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     /**
      * Repository for managing highscores.
      */
     private final HighscoreRepository highscoreRepository;
-
     /**
-     * Constructs a new HighscoreService with the specified HighscoreRepository.
-     *
-     * @param highscoreRepository the repository to manage highscores
+     * Repository for managing topics.
      */
-    public HighscoreService(HighscoreRepository highscoreRepository) {
-        this.highscoreRepository = highscoreRepository;
-    }
+    private final TopicRepository topicRepository;
+    /**
+     * Write-behind pipeline for the highscores of finished games.
+     */
+    private final HighscoreWriteBehind highscoreWriteBehind;
+    /**
+     * In-memory leaderboards with the best highscores per topic and difficulty.
+     */
+    private final HighscoreLeaderboard highscoreLeaderboard;
+    /**
+     * Archive of the highscores moved out of the database.
+     */
+    private final HighscoreArchive highscoreArchive;
+    /**
+     * Jackson object mapper to write the NDJSON export.
+     */
+    private final ObjectMapper objectMapper;
 
     /**
-     * Retrieves a list of all highscores.
+     * Constructs a new HighscoreService with the specified HighscoreRepository.
      *
-     * @return a list of all highscores
+     * @param highscoreRepository  the repository to manage highscores
+     * @param topicRepository      the repository to manage topics
+     * @param highscoreWriteBehind the write-behind pipeline for the highscores of finished games
+     * @param highscoreLeaderboard the in-memory leaderboards
+     * @param highscoreArchive     the archive of the highscores moved out of the database
+     * @param objectMapper         the object mapper to write the NDJSON export
      */
-    public List<Highscore> getAllHighscores() {
-        return highscoreRepository.findAll();
+    public HighscoreService(HighscoreRepository highscoreRepository, TopicRepository topicRepository, HighscoreWriteBehind highscoreWriteBehind,
+                            HighscoreLeaderboard highscoreLeaderboard, HighscoreArchive highscoreArchive, ObjectMapper objectMapper) {
+        this.highscoreRepository = highscoreRepository;
+        this.topicRepository = topicRepository;
+        this.highscoreWriteBehind = highscoreWriteBehind;
+        this.highscoreLeaderboard = highscoreLeaderboard;
+        this.highscoreArchive = highscoreArchive;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -57,7 +116,24 @@ public class HighscoreService {
      * @return the created highscore
      */
     public Highscore createHighscore(Highscore highscore) {
-        return highscoreRepository.save(highscore);
+        return highscoreLeaderboard.write(List.of(highscore), () -> {
+            Highscore savedHighscore = highscoreRepository.save(highscore);
+            highscoreLeaderboard.add(savedHighscore);
+            return savedHighscore;
+        });
+    }
+
+    /**
+     * Submits the highscore of a finished game.
+     * The highscore is written asynchronously in a batch, so the game request does not wait for the insert.
+     * The score is sent by the client, it is limited to the scores the rank tree of the leaderboard counts exactly.
+     *
+     * @param highscore the highscore to write
+     */
+    public void submitHighscore(Highscore highscore) {
+        // a larger score would only grow the rank tree of the leaderboard up to its largest bucket
+        highscore.setScore(Math.max(0, Math.min(highscore.getScore(), ScoreRankTree.MAX_BUCKETS - 1)));
+        highscoreWriteBehind.submit(highscore);
     }
 
     /**
@@ -70,6 +146,14 @@ public class HighscoreService {
     public Highscore updateHighscore(Long id, Highscore highscoreDetails) {
         // get the highscore by its ID
         Highscore highscore = highscoreRepository.findById(id).orElseThrow(() -> new RuntimeException("Highscore not found with id " + id));
+        // keep the values the highscore is ranked by in the leaderboard
+        Highscore previousHighscore = Highscore.builder()
+                .id(highscore.getId())
+                .score(highscore.getScore())
+                .difficulty(highscore.getDifficulty())
+                .topic(highscore.getTopic())
+                .createdAt(highscore.getCreatedAt())
+                .build();
 
         // update the defined topic details
         if (highscoreDetails.getPlayerName() != null) {
@@ -85,7 +169,12 @@ public class HighscoreService {
             highscore.setTopic(highscoreDetails.getTopic());
         }
 
-        return highscoreRepository.save(highscore);
+        return highscoreLeaderboard.write(List.of(previousHighscore, highscore), () -> {
+            Highscore savedHighscore = highscoreRepository.save(highscore);
+            highscoreLeaderboard.remove(previousHighscore);
+            highscoreLeaderboard.add(savedHighscore);
+            return savedHighscore;
+        });
     }
 
     /**
@@ -94,65 +183,424 @@ public class HighscoreService {
      * @param id the ID of the highscore to delete
      */
     public void deleteHighscore(Long id) {
-        if (highscoreRepository.existsById(id)) {
-            highscoreRepository.deleteById(id);
-        } else {
-            throw new RuntimeException("Highscore not found with id " + id);
+        Highscore highscore = highscoreRepository.findById(id).orElseThrow(() -> new RuntimeException("Highscore not found with id " + id));
+        highscoreLeaderboard.write(List.of(highscore), () -> {
+            highscoreRepository.delete(highscore);
+            highscoreLeaderboard.remove(highscore);
+            return highscore;
+        });
+    }
+
+    /**
+     * Retrieves sorted highscores, optionally filtered by topic ID and difficulty.
+     * The best highscores of a topic and difficulty are read from the in-memory leaderboard,
+     * otherwise sorting and limiting is done by the database, so only the requested highscores are read.
+     * The highscores are returned as summaries with the topic ID and name instead of the topic entity.
+     *
+     * @param topicId    the ID of the topic to filter by or null
+     * @param difficulty the difficulty to filter by or null
+     * @param sortBy     the field to sort the highscores by
+     * @param sortDir    the direction to sort the highscores
+     * @param limit      the maximum number of highscores to retrieve or null for all
+     * @return the sorted highscores
+     */
+    public List<HighscoreSummaryDTO> getHighscores(Long topicId, Difficulty difficulty, SortBy sortBy, SortDir sortDir, Integer limit) {
+        if (limit != null && limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        if (topicId != null && difficulty != null && sortBy == SortBy.SCORE && sortDir == SortDir.DESC) {
+            Optional<List<HighscoreSummaryDTO>> topHighscores = highscoreLeaderboard.getTopHighscores(topicId, difficulty, limit);
+            if (topHighscores.isPresent()) {
+                return topHighscores.get();
+            }
+        }
+
+        Sort sort = toSort(sortBy, sortDir);
+        Pageable pageable = limit != null ? PageRequest.of(0, limit, sort) : Pageable.unpaged(sort);
+
+        if (topicId != null && difficulty != null) {
+            return highscoreRepository.findSummariesByTopicIdAndDifficulty(topicId, difficulty, pageable);
         }
+        return highscoreRepository.findAllSummaries(pageable);
     }
 
     /**
-     * Retrieves a list of highscores by topic ID and difficulty.
+     * Retrieves the best highscores of a topic and difficulty created in a day or week, or of all time.
+     * The recent days and weeks are served from the in-memory leaderboards,
+     * older days and weeks are read from the database with a range query on the creation time.
      *
-     * @param topicId    the ID of the topic to retrieve highscores for
-     * @param difficulty the difficulty of the highscores to retrieve
-     * @return a list of highscores by topic ID and difficulty
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param window     the window of the leaderboard
+     * @param date       a date in the day or week, null for the current day or week, ignored for ALL_TIME
+     * @param limit      the maximum number of highscores
+     * @return the highscores sorted by score and ID, both descending
      */
-    public List<Highscore> getHighscoresByTopicIdAndDifficulty(Long topicId, Difficulty difficulty) {
-        return highscoreRepository.findByTopicIdAndDifficulty(topicId, difficulty);
+    public List<HighscoreSummaryDTO> getLeaderboard(Long topicId, Difficulty difficulty, LeaderboardWindow window, LocalDate date, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (window == LeaderboardWindow.ALL_TIME) {
+            return getHighscores(topicId, difficulty, SortBy.SCORE, SortDir.DESC, limit);
+        }
+
+        LeaderboardPeriod period = highscoreLeaderboard.getPeriod(window, date);
+        Optional<List<HighscoreSummaryDTO>> topHighscores = highscoreLeaderboard.getTopHighscores(topicId, difficulty, period, limit);
+        if (topHighscores.isPresent()) {
+            return topHighscores.get();
+        }
+        return highscoreRepository.findSummariesCreatedBetween(topicId, difficulty, period.from(), period.to(),
+                PageRequest.of(0, limit, toSort(SortBy.SCORE, SortDir.DESC)));
     }
 
     /**
-     * Sorts highscores by the specified direction and field.
+     * Retrieves a page of sorted highscores, optionally filtered by topic ID and difficulty.
+     * The pages are read with keyset pagination, the cursor holds the sort key and ID of the last highscore,
+     * so the database seeks the index instead of skipping the previous pages.
+     * Highscores without player name are skipped when sorting by player name, they have no sort key to seek behind.
      *
-     * @param highscores the highscores to sort
-     * @param sortDir    the direction to sort the highscores
+     * @param topicId    the ID of the topic to filter by or null
+     * @param difficulty the difficulty to filter by or null
      * @param sortBy     the field to sort the highscores by
+     * @param sortDir    the direction to sort the highscores
+     * @param cursor     the cursor of the previous page or null for the first page
+     * @param limit      the maximum number of highscores of the page
+     * @return the highscores and the cursor of the next page
+     */
+    public HighscorePageDTO getHighscorePage(Long topicId, Difficulty difficulty, SortBy sortBy, SortDir sortDir, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        HighscoreCursor after = cursor != null ? HighscoreCursor.decode(cursor) : null;
+        if (after != null && (after.sortBy() != sortBy || after.sortDir() != sortDir || !hasValidSortValue(after))) {
+            throw new RuntimeException("Invalid cursor for the sort order");
+        }
+
+        // read one more to know whether there is a next page
+        List<HighscoreSummaryDTO> highscores;
+        if (topicId != null && difficulty != null) {
+            // within a topic and difficulty the ID is the only sort key left for DIFFICULTY and TOPIC
+            SortBy keysetSortBy = sortBy == SortBy.DIFFICULTY || sortBy == SortBy.TOPIC ? SortBy.ID : sortBy;
+            highscores = highscoreRepository.findKeysetPage(topicId, difficulty, keysetSortBy, sortDir,
+                    after != null ? after.value() : null, after != null ? after.id() : null, limit + 1);
+        } else if (sortBy == SortBy.DIFFICULTY) {
+            highscores = getHighscoresByDifficulties(sortDir, after, limit + 1);
+        } else if (sortBy == SortBy.TOPIC) {
+            highscores = getHighscoresByTopics(sortDir, after, limit + 1);
+        } else {
+            highscores = highscoreRepository.findKeysetPage(null, null, sortBy, sortDir,
+                    after != null ? after.value() : null, after != null ? after.id() : null, limit + 1);
+        }
+
+        String nextCursor = null;
+        if (highscores.size() > limit) {
+            highscores = new ArrayList<>(highscores.subList(0, limit));
+            HighscoreSummaryDTO last = highscores.getLast();
+            nextCursor = new HighscoreCursor(sortBy, sortDir, getSortValue(last, sortBy), last.getId()).encode();
+        }
+
+        return HighscorePageDTO.builder()
+                .highscores(highscores)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Writes all highscores ordered by ID as NDJSON (one JSON object per line) or CSV.
+     * The highscores are streamed from the database in a read-only transaction and written row by row,
+     * so the memory used does not depend on the number of highscores.
+     *
+     * @param format       the format of the export
+     * @param outputStream the stream to write the export to, it is flushed but not closed
+     * @throws IOException if the export cannot be written
+     */
+    // Spring annotation to stream the highscores in a read-only transaction, required for the fetch size to take effect.
+    @Transactional(readOnly = true)
+    public void exportHighscores(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write("id,playerName,score,difficulty,topicId,topicName\n");
+        }
+
+        try (Stream<HighscoreSummaryDTO> highscores = highscoreRepository.streamAllSummaries()) {
+            highscores.forEach(highscore -> {
+                try {
+                    String line = format == ExportFormat.CSV ? toCsv(highscore) : objectMapper.writeValueAsString(highscore);
+                    writer.write(line);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    // the client disconnected, stop reading
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the archived highscores of a range of months as NDJSON, ordered by month.
+     * The archive segments are read line by line, so the memory used does not depend on the size of the archive.
+     *
+     * @param from         the first month or null for all months before the end
+     * @param to           the last month or null for all months after the start
+     * @param topicId      the topic ID to filter by or null
+     * @param difficulty   the difficulty to filter by or null
+     * @param outputStream the stream to write the export to, it is flushed but not closed
+     * @throws IOException if the archive cannot be read or the export cannot be written
+     */
+    public void exportArchivedHighscores(YearMonth from, YearMonth to, Long topicId, Difficulty difficulty, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            highscoreArchive.scan(from, to, topicId, difficulty, highscore -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(highscore));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    // the client disconnected, stop reading
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Retrieves the rank of a score in the leaderboard of a topic and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param score      the score to rank
+     * @return the rank of the score and the number of highscores
+     */
+    public HighscoreRankDTO getHighscoreRank(Long topicId, Difficulty difficulty, int score) {
+        long total = highscoreLeaderboard.countHighscores(topicId, difficulty)
+                .orElseGet(() -> highscoreRepository.countByTopicIdAndDifficulty(topicId, difficulty));
+
+        return HighscoreRankDTO.builder()
+                .score(score)
+                .rank(getRank(topicId, difficulty, score))
+                .total(total)
+                .build();
+    }
+
+    /**
+     * Retrieves the best highscore of a player together with the highscores ranked directly above and below it.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param playerName the name of the player
+     * @param size       the number of highscores above and below the player
+     * @return the ranked highscores in leaderboard order
+     */
+    public List<RankedHighscoreDTO> getHighscoresAroundPlayer(Long topicId, Difficulty difficulty, String playerName, int size) {
+        if (size < 1 || size > MAX_AROUND_SIZE) {
+            throw new RuntimeException("Size must be between 1 and " + MAX_AROUND_SIZE);
+        }
+
+        // the best highscore of the player is the center of the window
+        Highscore highscore = highscoreRepository.findFirstByTopicIdAndDifficultyAndPlayerNameOrderByScoreDescIdDesc(topicId, difficulty, playerName)
+                .orElseThrow(() -> new RuntimeException("Highscore not found for player " + playerName));
+
+        // seek the neighbours in the score index in both directions
+        List<HighscoreSummaryDTO> window = new ArrayList<>(highscoreRepository.findRankedBefore(topicId, difficulty, highscore.getScore(), highscore.getId(), PageRequest.of(0, size)));
+        Collections.reverse(window);
+        window.add(HighscoreSummaryDTO.builder()
+                .id(highscore.getId())
+                .playerName(highscore.getPlayerName())
+                .score(highscore.getScore())
+                .build());
+        window.addAll(highscoreRepository.findRankedAfter(topicId, difficulty, highscore.getScore(), highscore.getId(), PageRequest.of(0, size)));
+
+        List<RankedHighscoreDTO> rankedHighscores = new ArrayList<>(window.size());
+        for (HighscoreSummaryDTO rankedHighscore : window) {
+            rankedHighscores.add(RankedHighscoreDTO.builder()
+                    .rank(getRank(topicId, difficulty, rankedHighscore.getScore()))
+                    .id(rankedHighscore.getId())
+                    .playerName(rankedHighscore.getPlayerName())
+                    .score(rankedHighscore.getScore())
+                    .build());
+        }
+        return rankedHighscores;
+    }
+
+    /**
+     * Retrieves the rank of a score, one more than the number of higher scores.
+     * The in-memory leaderboard answers in O(log S), the database is only queried if the leaderboard is not loaded.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     * @param score      the score to rank
+     * @return the rank of the score
+     */
+    private long getRank(Long topicId, Difficulty difficulty, int score) {
+        long higherScores = highscoreLeaderboard.countHigherScores(topicId, difficulty, score)
+                .orElseGet(() -> highscoreRepository.countByTopicIdAndDifficultyAndScoreGreaterThan(topicId, difficulty, score));
+        return higherScores + 1;
+    }
+
+    /**
+     * Reads highscores sorted by difficulty one difficulty after the other,
+     * so every difficulty is read by ID from the (difficulty, id) index.
+     *
+     * @param sortDir the direction to sort the highscores
+     * @param after   the cursor of the previous page or null for the first page
+     * @param count   the number of highscores to read
      * @return the sorted highscores
      */
-    public List<Highscore> sortHighscores(List<Highscore> highscores, SortDir sortDir, SortBy sortBy) {
-        // sort highscores based on the sort direction and field
-        /*
-            lambda expression to sort the highscores based on the sortBy field and sort direction.
-         */
-        highscores.sort((h1, h2) -> {
-            int comparison;
-            // Determine the comparison result based on the sortBy field.
-            switch (sortBy) {
-                case ID -> comparison = Long.compare(h1.getId(), h2.getId());
-                case PLAYER_NAME -> comparison = h1.getPlayerName().compareTo(h2.getPlayerName());
-                case SCORE -> comparison = Integer.compare(h1.getScore(), h2.getScore());
-                case DIFFICULTY -> comparison = h1.getDifficulty().compareTo(h2.getDifficulty());
-                case TOPIC -> comparison = h1.getTopic().getName().compareTo(h2.getTopic().getName());
-                default -> throw new IllegalArgumentException("Invalid sortBy value");
-            }
-            // adjust the comparison result based on the sort direction
-            return sortDir == SortDir.ASC ? comparison : -comparison;
-        });
+    private List<HighscoreSummaryDTO> getHighscoresByDifficulties(SortDir sortDir, HighscoreCursor after, int count) {
+        List<Difficulty> difficulties = new ArrayList<>(List.of(Difficulty.values()));
+        if (sortDir == SortDir.DESC) {
+            Collections.reverse(difficulties);
+        }
 
+        List<HighscoreSummaryDTO> highscores = new ArrayList<>(count);
+        int start = after != null ? difficulties.indexOf(Difficulty.valueOf(after.value())) : 0;
+        Long lastId = after != null ? after.id() : null;
+        for (int i = start; i < difficulties.size() && highscores.size() < count; i++) {
+            highscores.addAll(highscoreRepository.findKeysetPage(null, difficulties.get(i), SortBy.ID, sortDir, null, lastId, count - highscores.size()));
+            // the next difficulty is read from its beginning
+            lastId = null;
+        }
         return highscores;
     }
 
     /**
-     * Limits the number of highscores to the specified limit.
+     * Reads highscores sorted by topic ID one topic after the other,
+     * so every topic is read by ID from the (topic_id, id) index.
      *
-     * @param highscores the highscores to limit
-     * @param limit      the maximum number of highscores to retrieve
-     * @return the limited highscores
+     * @param sortDir the direction to sort the highscores
+     * @param after   the cursor of the previous page or null for the first page
+     * @param count   the number of highscores to read
+     * @return the sorted highscores
      */
-    public List<Highscore> limitHighscores(List<Highscore> highscores, Integer limit) {
-        // limit highscores
-        highscores = highscores.subList(0, Math.min(limit, highscores.size()));
+    private List<HighscoreSummaryDTO> getHighscoresByTopics(SortDir sortDir, HighscoreCursor after, int count) {
+        boolean ascending = sortDir == SortDir.ASC;
+        Long topicId;
+        Long lastId = null;
+        if (after != null) {
+            topicId = Long.valueOf(after.value());
+            lastId = after.id();
+        } else {
+            Optional<Topic> first = ascending ? topicRepository.findFirstByOrderByIdAsc() : topicRepository.findFirstByOrderByIdDesc();
+            topicId = first.map(Topic::getId).orElse(null);
+        }
+
+        List<HighscoreSummaryDTO> highscores = new ArrayList<>(count);
+        while (topicId != null && highscores.size() < count) {
+            highscores.addAll(highscoreRepository.findKeysetPage(topicId, null, SortBy.ID, sortDir, null, lastId, count - highscores.size()));
+
+            // continue with the next topic from its beginning
+            Optional<Topic> next = ascending ? topicRepository.findFirstByIdGreaterThanOrderByIdAsc(topicId)
+                    : topicRepository.findFirstByIdLessThanOrderByIdDesc(topicId);
+            topicId = next.map(Topic::getId).orElse(null);
+            lastId = null;
+        }
         return highscores;
     }
+
+    /**
+     * Checks that the sort key of a cursor sent by the client can be compared with the sorted field.
+     *
+     * @param cursor the decoded cursor
+     * @return true if the sort key is valid for the field the cursor is sorted by
+     */
+    private boolean hasValidSortValue(HighscoreCursor cursor) {
+        try {
+            return switch (cursor.sortBy()) {
+                case ID -> cursor.value() == null;
+                case PLAYER_NAME -> cursor.value() != null;
+                case TOPIC -> {
+                    Long.parseLong(cursor.value());
+                    yield true;
+                }
+                case SCORE -> {
+                    Integer.parseInt(cursor.value());
+                    yield true;
+                }
+                case DIFFICULTY -> {
+                    Difficulty.valueOf(cursor.value());
+                    yield true;
+                }
+            };
+        } catch (IllegalArgumentException | NullPointerException e) {
+            // not a number or no difficulty
+            return false;
+        }
+    }
+
+    /**
+     * Retrieves the sort key of a highscore stored in the cursor.
+     *
+     * @param highscore the highscore
+     * @param sortBy    the field the highscores are sorted by
+     * @return the sort key or null when sorting by ID
+     */
+    private String getSortValue(HighscoreSummaryDTO highscore, SortBy sortBy) {
+        return switch (sortBy) {
+            case ID -> null;
+            case PLAYER_NAME -> highscore.getPlayerName();
+            case SCORE -> String.valueOf(highscore.getScore());
+            case DIFFICULTY -> highscore.getDifficulty().name();
+            case TOPIC -> String.valueOf(highscore.getTopicId());
+        };
+    }
+
+    /**
+     * Converts an exported highscore to a CSV line without line break.
+     *
+     * @param highscore the exported highscore
+     * @return the CSV line
+     */
+    private String toCsv(HighscoreSummaryDTO highscore) {
+        return highscore.getId() + "," +
+                csvText(highscore.getPlayerName()) + "," +
+                highscore.getScore() + "," +
+                (highscore.getDifficulty() != null ? highscore.getDifficulty().name() : "") + "," +
+                (highscore.getTopicId() != null ? highscore.getTopicId() : "") + "," +
+                csvText(highscore.getTopicName());
+    }
+
+    /**
+     * Quotes a text for CSV if it contains a separator, quote or line break.
+     *
+     * @param text the text or null
+     * @return the CSV field
+     */
+    private String csvText(String text) {
+        if (text == null) {
+            return "";
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    /**
+     * Converts the sort field and direction to a sort order, the ID is added as tie-breaker.
+     *
+     * @param sortBy  the field to sort the highscores by
+     * @param sortDir the direction to sort the highscores
+     * @return the sort order
+     */
+    private Sort toSort(SortBy sortBy, SortDir sortDir) {
+        Sort.Direction direction = sortDir == SortDir.ASC ? Sort.Direction.ASC : Sort.Direction.DESC;
+        String property = switch (sortBy) {
+            case ID -> "id";
+            case PLAYER_NAME -> "playerName";
+            case SCORE -> "score";
+            // the difficulty is stored as string, sort by its stored position in the enum instead
+            case DIFFICULTY -> "difficultyRank";
+            // group the highscores by the topic ID of the highscore table, sorting by the topic name would join every topic
+            case TOPIC -> "topic.id";
+        };
+
+        Sort sort = Sort.by(direction, property);
+        return sortBy == SortBy.ID ? sort : sort.and(Sort.by(direction, "id"));
+    }
 }
@@ -0,0 +1,316 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.repositories.HighscoreRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for the highscores of finished games.
+ * Highscores are queued on the request path and inserted in JDBC batches by a background thread,
+ * their IDs are taken from the pooled highscore sequence, so Hibernate batches the inserts.
+ * The queue is flushed once a batch is full or the flush interval has passed.
+ * If the queue stays full the highscore is written by the calling thread, which slows producers down to the database speed.
+ * On shutdown the queue is drained before the database is closed.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class HighscoreWriteBehind implements SmartLifecycle {
+
+    /**
+     * Logger to report highscores which could not be written.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(HighscoreWriteBehind.class);
+    /**
+     * Maximum number of queued highscores.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_QUEUE_CAPACITY:10000}")
+    private int queueCapacity = 10000;
+    /**
+     * Maximum number of highscores inserted per batch.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_BATCH_SIZE:500}")
+    private int batchSize = 500;
+    /**
+     * Maximum time in milliseconds a highscore waits in the queue.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_FLUSH_INTERVAL:1000}")
+    private long flushInterval = 1000;
+    /**
+     * Time in milliseconds a producer waits for space in the full queue before writing the highscore itself.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${HIGHSCORE_ENQUEUE_TIMEOUT:50}")
+    private long enqueueTimeout = 50;
+
+    /**
+     * Repository to insert the highscores in batches.
+     */
+    private final HighscoreRepository highscoreRepository;
+    /**
+     * Transaction template to insert a batch atomically.
+     */
+    private final TransactionTemplate transactionTemplate;
+    /**
+     * Registry of the metrics.
+     */
+    private final MeterRegistry meterRegistry;
+    /**
+     * In-memory leaderboards the written highscores are added to.
+     */
+    private final HighscoreLeaderboard highscoreLeaderboard;
+    /**
+     * Duration of the batch inserts.
+     */
+    private final Timer flushTimer;
+    /**
+     * Number of highscores written by the producer since the queue was full.
+     */
+    private final Counter backpressureCounter;
+    /**
+     * Number of highscores which could not be written.
+     */
+    private final Counter failedCounter;
+
+    /**
+     * Queued highscores, created on start.
+     */
+    private volatile BlockingQueue<Highscore> queue;
+    /**
+     * Monitor the flusher waits on between flushes.
+     */
+    private final Object signal = new Object();
+    /**
+     * Background thread flushing the queue.
+     */
+    private Thread flusher;
+    /**
+     * True while the flusher accepts highscores.
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructs a new HighscoreWriteBehind.
+     *
+     * @param highscoreRepository  the repository to insert the highscores
+     * @param transactionManager   the transaction manager for the batch inserts
+     * @param meterRegistry        the registry of the metrics
+     * @param highscoreLeaderboard the in-memory leaderboards
+     */
+    public HighscoreWriteBehind(HighscoreRepository highscoreRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                HighscoreLeaderboard highscoreLeaderboard) {
+        this.highscoreRepository = highscoreRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.highscoreLeaderboard = highscoreLeaderboard;
+        this.flushTimer = Timer.builder("highscore.writebehind.flush")
+                .description("Duration of a highscore batch insert")
+                .register(meterRegistry);
+        this.backpressureCounter = Counter.builder("highscore.writebehind.backpressure")
+                .description("Highscores written by the request thread because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("highscore.writebehind.failed")
+                .description("Highscores which could not be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a highscore to be written in the background.
+     * If the queue is full the highscore is written synchronously.
+     *
+     * @param highscore the highscore to write
+     */
+    public void submit(Highscore highscore) {
+        // the highscore belongs to the leaderboards of the time it was submitted, not of the time it is written
+        highscore.onCreate();
+        BlockingQueue<Highscore> currentQueue = queue;
+        if (running && currentQueue != null) {
+            try {
+                if (currentQueue.offer(highscore, enqueueTimeout, TimeUnit.MILLISECONDS)) {
+                    if (currentQueue.size() >= batchSize) {
+                        // a batch is full, wake up the flusher
+                        wakeUpFlusher();
+                    }
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            backpressureCounter.increment();
+        }
+
+        // queue full or pipeline stopped, write on the calling thread
+        write(List.of(highscore));
+    }
+
+    /**
+     * Retrieves the number of queued highscores.
+     *
+     * @return the number of highscores waiting to be written
+     */
+    public int getQueueDepth() {
+        BlockingQueue<Highscore> currentQueue = queue;
+        return currentQueue != null ? currentQueue.size() : 0;
+    }
+
+    /**
+     * Writes all queued highscores on the calling thread.
+     */
+    public void flush() {
+        BlockingQueue<Highscore> currentQueue = queue;
+        if (currentQueue == null) {
+            return;
+        }
+        List<Highscore> batch = new ArrayList<>(batchSize);
+        while (currentQueue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Creates the queue and starts the flusher thread.
+     */
+    @Override
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("highscore.writebehind.queue.depth", this, HighscoreWriteBehind::getQueueDepth)
+                .description("Highscores waiting to be written")
+                .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "highscore-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stops accepting highscores and drains the queue.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        wakeUpFlusher();
+        if (flusher != null) {
+            try {
+                // the flusher exits once the queue is empty
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // write what the flusher could not take anymore
+        flush();
+    }
+
+    /**
+     * Stops after the web server, so highscores of requests finishing during a graceful shutdown are still queued.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    /**
+     * Checks if the flusher is running.
+     *
+     * @return true if the flusher is running
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Wakes up the flusher before the flush interval has passed.
+     */
+    private void wakeUpFlusher() {
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Flushes the queue once a batch is full or the flush interval has passed, until the pipeline is stopped and the queue is empty.
+     */
+    private void runFlusher() {
+        while (running || !queue.isEmpty()) {
+            synchronized (signal) {
+                if (running && queue.size() < batchSize) {
+                    try {
+                        signal.wait(flushInterval);
+                    } catch (InterruptedException e) {
+                        // the remaining highscores are drained by stop
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Inserts highscores in one batch and adds them to the leaderboards.
+     * If the batch fails the highscores are inserted one by one, so a single invalid highscore does not discard the others.
+     *
+     * @param highscores the highscores to insert
+     */
+    private void write(List<Highscore> highscores) {
+        long start = System.nanoTime();
+        try {
+            highscoreLeaderboard.write(highscores, () -> {
+                insertBatch(highscores);
+                highscores.forEach(highscoreLeaderboard::add);
+                return highscores;
+            });
+        } catch (RuntimeException e) {
+            if (highscores.size() == 1) {
+                failedCounter.increment();
+                LOGGER.error("Could not write highscore of player {}", highscores.getFirst().getPlayerName(), e);
+            } else {
+                for (Highscore highscore : highscores) {
+                    write(List.of(highscore));
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Inserts highscores in one transaction, Hibernate sends the inserts in JDBC batches.
+     * The IDs are assigned on persist, they are removed again if the transaction fails,
+     * so the highscores can be inserted one by one.
+     *
+     * @param highscores the highscores to insert
+     */
+    private void insertBatch(List<Highscore> highscores) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> highscoreRepository.saveAll(highscores));
+        } catch (RuntimeException e) {
+            highscores.forEach(highscore -> highscore.setId(null));
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.TopicDifficultyDTO;
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.entities.TopicDifficulty;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.repositories.AnswerRepository;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
+import ch.quizinno.brainquest.repositories.TopicDifficultyRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maintains the denormalized playable state, the playable flag of the questions and the difficulties of the topics with playable questions.
+ * A question is playable with 4 answers and one correct answer. The state is updated by the writes of questions and answers
+ * in their transaction, so the read paths never count answers.
+ * The difficulties of a topic are updated while holding a lock on the topic, so concurrent writes of its questions
+ * do not insert the same difficulty twice.
+ */
+// Spring annotation to indicate that this class is a Spring managed bean.
+@Component
+public class QuestionPlayability {
+
+    /**
+     * Number of answers of a playable question.
+     */
+    public static final int ANSWERS_PER_QUESTION = 4;
+
+    /**
+     * Repository for managing questions.
+     */
+    private final QuestionRepository questionRepository;
+    /**
+     * Repository for managing answers.
+     */
+    private final AnswerRepository answerRepository;
+    /**
+     * Repository for managing topics.
+     */
+    private final TopicRepository topicRepository;
+    /**
+     * Repository for managing the difficulties of the topics.
+     */
+    private final TopicDifficultyRepository topicDifficultyRepository;
+
+    /**
+     * Constructs a new QuestionPlayability.
+     *
+     * @param questionRepository        the repository to manage questions
+     * @param answerRepository          the repository to manage answers
+     * @param topicRepository           the repository to manage topics
+     * @param topicDifficultyRepository the repository to manage the difficulties of the topics
+     */
+    public QuestionPlayability(QuestionRepository questionRepository, AnswerRepository answerRepository, TopicRepository topicRepository,
+                               TopicDifficultyRepository topicDifficultyRepository) {
+        this.questionRepository = questionRepository;
+        this.answerRepository = answerRepository;
+        this.topicRepository = topicRepository;
+        this.topicDifficultyRepository = topicDifficultyRepository;
+    }
+
+    /**
+     * Checks whether answers make a question playable.
+     *
+     * @param answers the answers of the question
+     * @return true with 4 answers and one correct answer
+     */
+    public static boolean isPlayable(List<Answer> answers) {
+        return answers.size() == ANSWERS_PER_QUESTION && answers.stream().filter(Answer::isCorrect).count() == 1;
+    }
+
+    /**
+     * Re-evaluates the playable flag of a question after its answers have changed.
+     * The difficulties of its topic are updated if the flag changed.
+     *
+     * @param questionId the ID of the question
+     */
+    public void refresh(Long questionId) {
+        if (questionId == null) {
+            return;
+        }
+
+        // the question may have been deleted in the meantime
+        Question question = questionRepository.findById(questionId).orElse(null);
+        if (question == null) {
+            return;
+        }
+
+        boolean playable = isPlayable(answerRepository.findByQuestion(question));
+        if (question.isPlayable() != playable) {
+            question.setPlayable(playable);
+            questionRepository.save(question);
+            refreshTopicDifficulty(topicId(question), question.getDifficulty());
+        }
+    }
+
+    /**
+     * Updates the difficulties of the topics after a question has been moved to another topic or difficulty, or deleted.
+     *
+     * @param oldTopicId    the ID of the topic before the move
+     * @param oldDifficulty the difficulty before the move
+     * @param question      the moved question or null if it was deleted
+     * @param wasPlayable   whether the question was playable before the move
+     */
+    public void moved(Long oldTopicId, Difficulty oldDifficulty, Question question, boolean wasPlayable) {
+        Long newTopicId = question != null ? topicId(question) : null;
+        Difficulty newDifficulty = question != null ? question.getDifficulty() : null;
+        boolean playable = question != null && question.isPlayable();
+        if (Objects.equals(oldTopicId, newTopicId) && oldDifficulty == newDifficulty && wasPlayable == playable) {
+            return;
+        }
+
+        // the topics are locked in the order of their IDs, so moves in opposite directions do not deadlock
+        if (wasPlayable && playable && oldTopicId != null && newTopicId != null && newTopicId < oldTopicId) {
+            refreshTopicDifficulty(newTopicId, newDifficulty);
+            refreshTopicDifficulty(oldTopicId, oldDifficulty);
+            return;
+        }
+        if (wasPlayable) {
+            refreshTopicDifficulty(oldTopicId, oldDifficulty);
+        }
+        if (playable) {
+            refreshTopicDifficulty(newTopicId, newDifficulty);
+        }
+    }
+
+    /**
+     * Recomputes the playable flags of all questions and the difficulties of all topics once the application is started,
+     * e.g. after questions or answers were written to the database directly.
+     */
+    // Spring annotation to run the method once the application is ready to serve requests.
+    @EventListener(ApplicationReadyEvent.class)
+    // Spring annotation to run the method in a transaction.
+    @Transactional
+    public void rebuild() {
+        questionRepository.updateAllPlayable();
+        topicDifficultyRepository.deleteAllInBatch();
+        for (TopicDifficultyDTO row : questionRepository.findPlayableTopicDifficulties()) {
+            refreshTopicDifficulty(row.getTopic().getId(), row.getDifficulty());
+        }
+    }
+
+    /**
+     * Updates the number of playable questions of a topic and difficulty from the playable flags,
+     * the summary is removed once the topic has no playable questions of the difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty
+     */
+    private void refreshTopicDifficulty(Long topicId, Difficulty difficulty) {
+        if (topicId == null || difficulty == null) {
+            return;
+        }
+
+        // the lock serializes the read and insert of the summary with the other writes of the topic
+        Topic topic = topicRepository.findByIdForUpdate(topicId).orElse(null);
+        if (topic == null) {
+            return;
+        }
+
+        // counts the questions on the index, not their answers, after the lock so the writes committed in the meantime are counted
+        int playableQuestions = (int) questionRepository.countByTopicIdAndDifficultyAndPlayableTrue(topicId, difficulty);
+        TopicDifficulty topicDifficulty = topicDifficultyRepository.findByTopicIdAndDifficulty(topicId, difficulty).orElse(null);
+        if (playableQuestions == 0) {
+            if (topicDifficulty != null) {
+                topicDifficultyRepository.delete(topicDifficulty);
+            }
+            return;
+        }
+
+        if (topicDifficulty == null) {
+            topicDifficulty = TopicDifficulty.builder()
+                    .topic(topic)
+                    .difficulty(difficulty)
+                    .build();
+        }
+        topicDifficulty.setPlayableQuestions(playableQuestions);
+        topicDifficultyRepository.save(topicDifficulty);
+    }
+
+    /**
+     * Retrieves the ID of the topic of a question.
+     *
+     * @param question the question
+     * @return the ID of the topic or null
+     */
+    private static Long topicId(Question question) {
+        return question.getTopic() != null ? question.getTopic().getId() : null;
+    }
+}
@@ -1,23 +1,39 @@
 package ch.quizinno.brainquest.services;
 
+import ch.quizinno.brainquest.caches.AnswerKeyCache;
+import ch.quizinno.brainquest.caches.PlayableQuestionIndex;
+import ch.quizinno.brainquest.caches.QuizQuestionPayloadCache;
+import ch.quizinno.brainquest.caches.TopicCatalogCache;
 import ch.quizinno.brainquest.dtos.CorrectQuestionDTO;
 import ch.quizinno.brainquest.dtos.QuizAnswerDTO;
 import ch.quizinno.brainquest.dtos.QuizCorrectAnswerDTO;
 import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
-import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.dtos.QuizRoundDTO;
+import ch.quizinno.brainquest.dtos.QuizRoundResultDTO;
 import ch.quizinno.brainquest.entities.Highscore;
 import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.enums.Difficulty;
-import ch.quizinno.brainquest.mappers.QuestionMapper;
+import ch.quizinno.brainquest.enums.SamplingMode;
+import ch.quizinno.brainquest.models.AnswerKey;
 import ch.quizinno.brainquest.repositories.QuestionRepository;
 import ch.quizinno.brainquest.repositories.TopicRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
 
 /**
  * Service for managing questions.
@@ -26,6 +42,26 @@ import java.util.stream.Collectors;
 @Service
 public class QuestionService {
 
+    /**
+     * Number of random positions probed before the pool is scanned when selecting a quiz question.
+     */
+    private static final int RANDOM_PROBES = 8;
+    /**
+     * Number of question IDs read per query when the database pool is scanned.
+     */
+    private static final int SCAN_PAGE_SIZE = 500;
+    /**
+     * Maximum number of quiz questions returned by one prefetch request.
+     */
+    public static final int MAX_PREFETCH_COUNT = 20;
+
+    /**
+     * How random quiz questions are selected.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${QUIZ_SAMPLING_MODE:INDEX}")
+    private SamplingMode samplingMode = SamplingMode.INDEX;
+
     /**
      * Repository for managing questions.
      */
@@ -34,34 +70,54 @@ public class QuestionService {
      * Service for managing topics.
      */
     private final TopicRepository topicRepository;
-    /**
-     * Service for managing answers.
-     */
-    private final AnswerService answerService;
     /**
      * Service for managing highscores.
      */
     private final HighscoreService highscoreService;
     /**
-     * Mapper for mapping questions to DTOs.
+     * In-memory index of the playable questions.
+     */
+    private final PlayableQuestionIndex playableQuestionIndex;
+    /**
+     * Cache of the serialized quiz questions.
      */
-    private final QuestionMapper questionMapper;
+    private final QuizQuestionPayloadCache quizQuestionPayloadCache;
+    /**
+     * Cache of the answer keys of the questions.
+     */
+    private final AnswerKeyCache answerKeyCache;
+    /**
+     * Cache of the topic catalog, the difficulties of a topic depend on its questions.
+     */
+    private final TopicCatalogCache topicCatalogCache;
+    /**
+     * Maintains the playable flags of the questions and the difficulties of the topics.
+     */
+    private final QuestionPlayability questionPlayability;
 
     /**
      * Constructs a new QuestionService with the specified repositories and services.
      *
-     * @param questionRepository the repository to manage questions
-     * @param topicRepository    the repository to manage topics
-     * @param answerService      the service to manage answers
-     * @param highscoreService   the service to manage highscores
-     * @param questionMapper     the mapper to map questions to DTOs
+     * @param questionRepository       the repository to manage questions
+     * @param topicRepository          the repository to manage topics
+     * @param highscoreService         the service to manage highscores
+     * @param playableQuestionIndex    the in-memory index of the playable questions
+     * @param quizQuestionPayloadCache the cache of the serialized quiz questions
+     * @param answerKeyCache           the cache of the answer keys of the questions
+     * @param topicCatalogCache        the cache of the topic catalog
+     * @param questionPlayability      the maintainer of the playable state
      */
-    public QuestionService(QuestionRepository questionRepository, TopicRepository topicRepository,AnswerService answerService, HighscoreService highscoreService, QuestionMapper questionMapper) {
+    public QuestionService(QuestionRepository questionRepository, TopicRepository topicRepository, HighscoreService highscoreService,
+                           PlayableQuestionIndex playableQuestionIndex, QuizQuestionPayloadCache quizQuestionPayloadCache, AnswerKeyCache answerKeyCache,
+                           TopicCatalogCache topicCatalogCache, QuestionPlayability questionPlayability) {
         this.questionRepository = questionRepository;
         this.topicRepository = topicRepository;
-        this.answerService = answerService;
         this.highscoreService = highscoreService;
-        this.questionMapper = questionMapper;
+        this.playableQuestionIndex = playableQuestionIndex;
+        this.quizQuestionPayloadCache = quizQuestionPayloadCache;
+        this.answerKeyCache = answerKeyCache;
+        this.topicCatalogCache = topicCatalogCache;
+        this.questionPlayability = questionPlayability;
     }
 
     /**
@@ -90,7 +146,11 @@ public class QuestionService {
      * @return the created question
      */
     public Question createQuestion(Question question) {
-        return questionRepository.save(question);
+        // a new question has no answers yet and is therefore not playable
+        question.setPlayable(false);
+        Question savedQuestion = questionRepository.save(question);
+        topicCatalogCache.invalidate();
+        return savedQuestion;
     }
 
     /**
@@ -100,9 +160,15 @@ public class QuestionService {
      * @param questionDetails the details of the question to update
      * @return the updated question
      */
+    // Spring annotation to update the question and the difficulties of its topics in one transaction.
+    @Transactional
     public Question updateQuestion(Long id, Question questionDetails) {
         // get the question by its ID
         Question question = questionRepository.findById(id).orElseThrow(() -> new RuntimeException("Question not found with id " + id));
+        // remember the current index key since topic and difficulty may change
+        Long oldTopicId = question.getTopic() != null ? question.getTopic().getId() : null;
+        Difficulty oldDifficulty = question.getDifficulty();
+        boolean wasPlayable = question.isPlayable();
 
         // update the defined question details
         if (questionDetails.getQuestion() != null) {
@@ -114,12 +180,26 @@ public class QuestionService {
         if (questionDetails.getDifficulty() != null) {
             question.setDifficulty(questionDetails.getDifficulty());
         }
-        if (questionDetails.getTopic() != null && !questionDetails.getTopic().getId().equals(question.getTopic().getId())) {
+        if (questionDetails.getTopic() != null && (question.getTopic() == null || !questionDetails.getTopic().getId().equals(question.getTopic().getId()))) {
             // only update the topic has changed
             question.setTopic(questionDetails.getTopic());
         }
 
-        return questionRepository.save(question);
+        Question savedQuestion = questionRepository.save(question);
+        // a playable question moves to the difficulties of its new topic
+        questionPlayability.moved(oldTopicId, oldDifficulty, savedQuestion, wasPlayable);
+
+        topicCatalogCache.invalidate();
+
+        // move the question in the playable index once the change is visible
+        afterCommit(() -> {
+            playableQuestionIndex.remove(oldTopicId, oldDifficulty, id);
+            playableQuestionIndex.refresh(id);
+            quizQuestionPayloadCache.invalidateQuestion(id);
+            answerKeyCache.invalidateQuestion(id);
+        });
+
+        return savedQuestion;
     }
 
     /**
@@ -127,12 +207,23 @@ public class QuestionService {
      *
      * @param id the ID of the question to delete
      */
+    // Spring annotation to delete the question and update the difficulties of its topic in one transaction.
+    @Transactional
     public void deleteQuestion(Long id) {
-        if (questionRepository.existsById(id)) {
-            questionRepository.deleteById(id);
-        } else {
-            throw new RuntimeException("Question not found with id " + id);
-        }
+        Question question = questionRepository.findById(id).orElseThrow(() -> new RuntimeException("Question not found with id " + id));
+        Long topicId = question.getTopic() != null ? question.getTopic().getId() : null;
+
+        questionRepository.deleteById(id);
+        questionPlayability.moved(topicId, question.getDifficulty(), null, question.isPlayable());
+
+        topicCatalogCache.invalidate();
+
+        // remove the question from the playable index once the deletion is visible
+        afterCommit(() -> {
+            playableQuestionIndex.remove(topicId, question.getDifficulty(), id);
+            quizQuestionPayloadCache.invalidateQuestion(id);
+            answerKeyCache.invalidateQuestion(id);
+        });
     }
 
     /**
@@ -156,69 +247,308 @@ public class QuestionService {
         return questionRepository.findByTopicIdAndDifficulty(topicId, difficulty);
     }
 
+    /**
+     * Retrieves a list of playable questions (questions with 4 answers and one correct answer) by topic ID.
+     *
+     * @param topicId the ID of the topic
+     * @return a list of playable questions with the specified topic ID
+     */
+    public List<Question> getPlayableQuestionsByTopicId(Long topicId) {
+        return questionRepository.findPlayableByTopicId(topicId);
+    }
+
     /**
      * Retrieves a random question by topic ID and difficulty.
+     * The question is shared with other requests and must not be modified.
      *
      * @param topicId    the ID of the topic
      * @param difficulty the difficulty of the questions
+     * @param excludeIds the IDs of the questions to exclude
+     * @param playerName the name of the player
+     * @param score      the score of the player
      * @return a random question with the specified topic ID and difficulty
      */
     public QuizQuestionDTO getQuizQuestion(Long topicId, Difficulty difficulty, List<Long> excludeIds, String playerName, int score) {
+        Long questionId = nextQuizQuestionId(topicId, difficulty, excludeIds, playerName, score);
+        // the question is taken from the payload cache, so it is neither loaded nor mapped again
+        return questionId != null ? quizQuestionPayloadCache.getShuffledQuizQuestion(questionId) : null;
+    }
+
+    /**
+     * Retrieves a random question by topic ID and difficulty as serialized QuizQuestionDTO.
+     * The JSON is taken from the payload cache, so the question is neither loaded nor serialized again.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     * @param excludeIds the IDs of the questions to exclude
+     * @param playerName the name of the player
+     * @param score      the score of the player
+     * @return the JSON of a random question with the specified topic ID and difficulty
+     */
+    public byte[] getQuizQuestionPayload(Long topicId, Difficulty difficulty, List<Long> excludeIds, String playerName, int score) {
+        Long questionId = nextQuizQuestionId(topicId, difficulty, excludeIds, playerName, score);
+        return questionId != null ? quizQuestionPayloadCache.getPayload(questionId) : null;
+    }
+
+    /**
+     * Retrieves the next distinct quiz questions by topic ID and difficulty as serialized JSON array of QuizQuestionDTO.
+     * The frontend uses it to prefetch questions, so unlike getQuizQuestion no highscore is written when the pool is exhausted.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     * @param excludeIds the IDs of the questions to exclude
+     * @param count      the maximum number of questions
+     * @return the JSON array of up to count distinct questions, empty if all questions are excluded
+     */
+    public byte[] getQuizQuestionPayloads(Long topicId, Difficulty difficulty, List<Long> excludeIds, int count) {
         // both topicId and difficulty must be defined
         if (topicId == null || difficulty == null) {
             throw new RuntimeException("Topic ID and difficulty must be defined");
         }
+        if (count < 1 || count > MAX_PREFETCH_COUNT) {
+            throw new RuntimeException("Count must be between 1 and " + MAX_PREFETCH_COUNT);
+        }
 
-        // get all questions for the given topic and difficulty
-        List<Question> questions = this.getQuestionsByTopicIdAndDifficulty(topicId, difficulty);
-
-        if (questions.isEmpty()) {
-            throw new RuntimeException("No questions found for topic with id " + topicId + " and difficulty " + difficulty);
+        // hash the excluded IDs once for constant time lookups
+        Set<Long> excluded = new HashSet<>(excludeIds);
+        List<Long> questionIds = selectQuizQuestionIds(topicId, difficulty, excluded::contains, count);
+
+        // join the cached payloads to a JSON array
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.write('[');
+        for (int i = 0; i < questionIds.size(); i++) {
+            if (i > 0) {
+                json.write(',');
+            }
+            json.writeBytes(quizQuestionPayloadCache.getPayload(questionIds.get(i)));
         }
+        json.write(']');
+        return json.toByteArray();
+    }
 
-        // only get valid questions
-        // remove questions with less than 4 answers
-        questions.removeIf(question -> answerService.getAnswersByQuestion(question).size() < 4);
+    /**
+     * Selects the next quiz question and writes the highscore if no more questions are available.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     * @param excludeIds the IDs of the questions to exclude
+     * @param playerName the name of the player
+     * @param score      the score of the player
+     * @return the ID of a random question or null if the game is completed
+     */
+    private Long nextQuizQuestionId(Long topicId, Difficulty difficulty, List<Long> excludeIds, String playerName, int score) {
+        // both topicId and difficulty must be defined
+        if (topicId == null || difficulty == null) {
+            throw new RuntimeException("Topic ID and difficulty must be defined");
+        }
 
-        // remove questions with IDs that should be excluded
-        questions.removeIf(question -> excludeIds.contains(question.getId()));
+        // hash the excluded IDs once for constant time lookups
+        Set<Long> excluded = new HashSet<>(excludeIds);
+        Long questionId = selectQuizQuestionId(topicId, difficulty, excluded::contains);
 
-        if (questions.isEmpty()) {
+        if (questionId == null) {
             // no more questions available
             // write highscore with current score
+            recordHighscore(playerName, score, difficulty, topicId);
+        }
 
-            // get topic by ID
-            Topic topic = topicRepository.findById(topicId).orElseThrow(() -> new RuntimeException("Topic not found with id " + topicId));
+        return questionId;
+    }
 
-            // build highscore object
-            Highscore highscore = Highscore.builder()
-                    .playerName(playerName)
-                    .score(score)
-                    .difficulty(difficulty)
-                    .topic(topic)
-                    .build();
-            highscoreService.createHighscore(highscore);
+    /**
+     * Selects the ID of a random playable question by topic ID and difficulty.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     * @param excluded   predicate returning true for question IDs that must not be selected
+     * @return the ID of a random playable question or null if all questions are excluded
+     */
+    public Long selectQuizQuestionId(Long topicId, Difficulty difficulty, LongPredicate excluded) {
+        if (samplingMode == SamplingMode.DATABASE) {
+            return sampleQuizQuestionId(topicId, difficulty, excluded);
+        }
+
+        // get all playable questions for the given topic and difficulty from the in-memory index
+        long[] playableIds = playableQuestionIndex.getPlayableQuestionIds(topicId, difficulty);
+
+        if (playableIds.length == 0) {
+            throw new RuntimeException("No questions found for topic with id " + topicId + " and difficulty " + difficulty);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // probe random positions first, this is constant time as long as most questions are not excluded
+        for (int i = 0; i < RANDOM_PROBES; i++) {
+            long candidate = playableIds[random.nextInt(playableIds.length)];
+            if (!excluded.test(candidate)) {
+                return candidate;
+            }
+        }
+
+        // count the questions which are not excluded
+        int available = 0;
+        for (long playableId : playableIds) {
+            if (!excluded.test(playableId)) {
+                available++;
+            }
+        }
+
+        if (available == 0) {
             return null;
         }
 
-        // Select a random question
-        Question randomQuestion = questions.get(new Random().nextInt(questions.size()));
-        // get all answers for the selected question
-        List<Answer> answers = answerService.getAnswersByQuestion(randomQuestion);
-        // shuffle the answers
-        answers.sort((a, b) -> new Random().nextInt(3) - 1);
-        // map answers to QuizAnswerDTO
-        /*
-            .stream is used to convert the list of answers to a stream for further operations
-            .map is used to convert each answer to a QuizAnswerDTO
-            .collect is used to collect the stream of QuizAnswerDTOs to a list
-         */
-        List<QuizAnswerDTO> answerDTOs = answers.stream()
-                .map(questionMapper::answerToQuizAnswerDTO)
-                .collect(Collectors.toList());
-
-        // map the question and its answers to QuizQuestionDTO
-        return questionMapper.questionToQuizQuestionDTO(randomQuestion, answerDTOs);
+        // select a random question among the not excluded questions
+        int skip = random.nextInt(available);
+        for (long playableId : playableIds) {
+            if (!excluded.test(playableId) && skip-- == 0) {
+                return playableId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Selects the IDs of distinct random playable questions by topic ID and difficulty.
+     * The question pool is read once, the questions are then drawn from it without replacement.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     * @param excluded   predicate returning true for question IDs that must not be selected
+     * @param count      the maximum number of questions
+     * @return the IDs of up to count distinct playable questions
+     */
+    public List<Long> selectQuizQuestionIds(Long topicId, Difficulty difficulty, LongPredicate excluded, int count) {
+        Set<Long> selected = new LinkedHashSet<>();
+
+        if (samplingMode == SamplingMode.DATABASE) {
+            // every question is sampled separately, the selected questions are excluded from the next samples
+            Long questionId;
+            while (selected.size() < count
+                    && (questionId = sampleQuizQuestionId(topicId, difficulty, id -> excluded.test(id) || selected.contains(id))) != null) {
+                selected.add(questionId);
+            }
+            return new ArrayList<>(selected);
+        }
+
+        long[] playableIds = playableQuestionIndex.getPlayableQuestionIds(topicId, difficulty);
+
+        if (playableIds.length == 0) {
+            throw new RuntimeException("No questions found for topic with id " + topicId + " and difficulty " + difficulty);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // probe random positions first, duplicates are rejected so the result is a sample without replacement
+        for (int i = 0; i < count * RANDOM_PROBES && selected.size() < count; i++) {
+            long candidate = playableIds[random.nextInt(playableIds.length)];
+            if (!excluded.test(candidate)) {
+                selected.add(candidate);
+            }
+        }
+
+        if (selected.size() < count) {
+            // collect the remaining questions and draw from them with a partial Fisher-Yates shuffle
+            long[] available = new long[playableIds.length];
+            int size = 0;
+            for (long playableId : playableIds) {
+                if (!excluded.test(playableId) && !selected.contains(playableId)) {
+                    available[size++] = playableId;
+                }
+            }
+            for (int i = 0; i < size && selected.size() < count; i++) {
+                int j = random.nextInt(i, size);
+                long candidate = available[j];
+                available[j] = available[i];
+                selected.add(candidate);
+            }
+        }
+
+        return new ArrayList<>(selected);
+    }
+
+    /**
+     * Selects the ID of a random playable question in the database without loading the question pool.
+     * Random keys between the lowest and highest playable ID are probed first. If they are all excluded
+     * the pool is scanned in pages and a question is picked by reservoir sampling, so the memory used stays constant.
+     *
+     * @param topicId    the ID of the topic
+     * @param difficulty the difficulty of the questions
+     * @param excluded   predicate returning true for question IDs that must not be selected
+     * @return the ID of a random playable question or null if all questions are excluded
+     */
+    private Long sampleQuizQuestionId(Long topicId, Difficulty difficulty, LongPredicate excluded) {
+        Long minId = questionRepository.findMinPlayableId(topicId, difficulty);
+        Long maxId = questionRepository.findMaxPlayableId(topicId, difficulty);
+
+        if (minId == null || maxId == null) {
+            throw new RuntimeException("No questions found for topic with id " + topicId + " and difficulty " + difficulty);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // probe random keys, the first playable question at or after the key is the candidate
+        for (int i = 0; i < RANDOM_PROBES; i++) {
+            long pivot = random.nextLong(minId, maxId + 1);
+            List<Long> candidates = questionRepository.findPlayableIdsFrom(topicId, difficulty, pivot, PageRequest.of(0, 1));
+            // wrap around to the lowest ID, which always exists
+            long candidate = candidates.isEmpty() ? minId : candidates.getFirst();
+            if (!excluded.test(candidate)) {
+                return candidate;
+            }
+        }
+
+        // scan the pool page by page and keep one uniformly chosen question (reservoir sampling)
+        Long selected = null;
+        int available = 0;
+        long fromId = minId;
+        List<Long> page;
+        do {
+            page = questionRepository.findPlayableIdsFrom(topicId, difficulty, fromId, PageRequest.of(0, SCAN_PAGE_SIZE));
+            for (Long candidate : page) {
+                if (!excluded.test(candidate) && random.nextInt(++available) == 0) {
+                    selected = candidate;
+                }
+            }
+            if (!page.isEmpty()) {
+                fromId = page.getLast() + 1;
+            }
+        } while (page.size() == SCAN_PAGE_SIZE);
+
+        return selected;
+    }
+
+    /**
+     * Retrieves a question with its shuffled answers for the quiz.
+     * The question is shared with other requests and must not be modified.
+     *
+     * @param questionId the ID of the question
+     * @return the quiz question with the specified ID
+     */
+    public QuizQuestionDTO getQuizQuestionById(Long questionId) {
+        // the question is taken from the payload cache, so it is neither loaded nor mapped again
+        return quizQuestionPayloadCache.getShuffledQuizQuestion(questionId);
+    }
+
+    /**
+     * Writes the highscore of a finished game.
+     *
+     * @param playerName the name of the player
+     * @param score      the score of the player
+     * @param difficulty the difficulty of the game
+     * @param topicId    the ID of the topic of the game
+     */
+    public void recordHighscore(String playerName, int score, Difficulty difficulty, Long topicId) {
+        // get topic by ID
+        Topic topic = topicRepository.findById(topicId).orElseThrow(() -> new RuntimeException("Topic not found with id " + topicId));
+
+        // build highscore object
+        Highscore highscore = Highscore.builder()
+                .playerName(playerName)
+                .score(score)
+                .difficulty(difficulty)
+                .topic(topic)
+                .build();
+        highscoreService.submitHighscore(highscore);
     }
 
     /**
@@ -234,57 +564,91 @@ public class QuestionService {
             throw new RuntimeException("Answer ID and player name must be defined");
         }
 
-        // get question by ID
-        Optional<Question> questionOpt = this.getQuestionById(id);
+        // get the answer key of the question, the question and its answers are not loaded
+        return checkCorrectAnswer(answerKeyCache.getAnswerKey(id), quizCorrectAnswerDTO);
+    }
+
+    /**
+     * Submits a game round: checks the given answer and selects the next question in one step.
+     * The topic and difficulty of the next question are taken from the answered question.
+     *
+     * @param id           the ID of the answered question
+     * @param quizRoundDTO the answer, player, score and already played questions
+     * @return the checked answer and the next question
+     */
+    public QuizRoundResultDTO submitRound(Long id, QuizRoundDTO quizRoundDTO) {
+        // all attributes must be defined
+        if (quizRoundDTO.getAnswerId() == null || quizRoundDTO.getPlayerName() == null) {
+            throw new RuntimeException("Answer ID and player name must be defined");
+        }
 
-        if (questionOpt.isEmpty()) {
-            throw new RuntimeException("Question not found with id " + id);
+        // the answer key is used for the check and the selection of the next question
+        AnswerKey answerKey = answerKeyCache.getAnswerKey(id);
+        CorrectQuestionDTO correctQuestionDTO = checkCorrectAnswer(answerKey, QuizCorrectAnswerDTO.builder()
+                .answerId(quizRoundDTO.getAnswerId())
+                .playerName(quizRoundDTO.getPlayerName())
+                .score(quizRoundDTO.getScore())
+                .build());
+
+        QuizQuestionDTO nextQuestion = null;
+        if (correctQuestionDTO.isCorrect()) {
+            // the answered question is excluded as well
+            List<Long> excludeIds = new ArrayList<>();
+            if (quizRoundDTO.getExcludeIds() != null) {
+                excludeIds.addAll(quizRoundDTO.getExcludeIds());
+            }
+            excludeIds.add(id);
+            // the correct answer counts to the score written if no more questions are available
+            nextQuestion = getQuizQuestion(answerKey.topicId(), answerKey.difficulty(), excludeIds, quizRoundDTO.getPlayerName(), quizRoundDTO.getScore() + 1);
         }
 
-        // question must not be type Optional<Question>
-        Question question = questionOpt.get();
-        // get all answers for the selected question
-        List<Answer> answers = answerService.getAnswersByQuestion(question);
+        return QuizRoundResultDTO.builder()
+                .correctQuestion(correctQuestionDTO)
+                .nextQuestion(nextQuestion)
+                .build();
+    }
+
+    /**
+     * Check if the given answer is correct using the answer key of the question.
+     *
+     * @param answerKey            the answer key of the question
+     * @param quizCorrectAnswerDTO the answer to check
+     * @return the question with the given answer and if it is correct
+     */
+    private CorrectQuestionDTO checkCorrectAnswer(AnswerKey answerKey, QuizCorrectAnswerDTO quizCorrectAnswerDTO) {
+        long answerId = quizCorrectAnswerDTO.getAnswerId();
 
         // verify the given answerId is in the list of answers for the question
-        /*
-            .stream is used to convert the list of answers to a stream for further operations
-            .noneMatch is used to check if no answer has the given ID
-            answer -> is a lambda expression to check if the answer ID is equal to the given answer ID
-         */
-        if (quizCorrectAnswerDTO.getAnswerId().equals(0L)) {
+        if (answerId == 0L) {
             // no answer selected since quiz timer expired
             // question is considered as not correct
             // do not throw an exception
-        } else if (answers.stream().noneMatch(answer -> answer.getId().equals(quizCorrectAnswerDTO.getAnswerId()))) {
-            throw new RuntimeException("Answer not found with id " + quizCorrectAnswerDTO.getAnswerId());
+        } else if (answerKey.indexOf(answerId) < 0) {
+            throw new RuntimeException("Answer not found with id " + answerId);
         }
 
-        // get correct answer for the selected question
-        /*
-            .stream is used to convert the list of answers to a stream for further operations
-            .filter is used to filter the answers that are correct
-            .findFirst is used to get the first object in the stream
-            .orElseThrow is used to throw an exception if no correct answer is found
-         */
-        Answer correctAnswer = answers.stream()
-                .filter(Answer::isCorrect).findFirst()
-                .orElseThrow();
+        if (!answerKey.hasCorrectAnswer()) {
+            throw new RuntimeException("Correct answer not found for question with id " + answerKey.questionId());
+        }
         // check if the given answer is correct
-        boolean correct = correctAnswer.getId().equals(quizCorrectAnswerDTO.getAnswerId());
-        // map the question and its answers to QuizQuestionDTO
-        CorrectQuestionDTO correctQuestionDTO = questionMapper.questionToCorrectQuestionDTO(question, correct, correctAnswer);
-
-        // write highscore if answer is not correct
-        if (!correct) {
-            // build highscore object
+        boolean correct = answerKey.correctAnswerId() == answerId;
+        CorrectQuestionDTO correctQuestionDTO = CorrectQuestionDTO.builder()
+                .id(answerKey.questionId())
+                .info(answerKey.info())
+                .correct(correct)
+                .correctAnswerId(answerKey.correctAnswerId())
+                .build();
+
+        // write highscore if answer is not correct, a highscore requires the topic of the question
+        if (!correct && answerKey.topicId() != null) {
+            // build highscore object, the topic is only referenced by its ID
             Highscore highscore = Highscore.builder()
                     .playerName(quizCorrectAnswerDTO.getPlayerName())
                     .score(quizCorrectAnswerDTO.getScore())
-                    .difficulty(question.getDifficulty())
-                    .topic(question.getTopic())
+                    .difficulty(answerKey.difficulty())
+                    .topic(topicRepository.getReferenceById(answerKey.topicId()))
                     .build();
-            highscoreService.createHighscore(highscore);
+            highscoreService.submitHighscore(highscore);
         }
 
         return correctQuestionDTO;
@@ -298,55 +662,71 @@ public class QuestionService {
      * @return a random question with two wrong answers removed
      */
     public QuizQuestionDTO fiftyFiftyJoker(Long id) {
-        // get question by ID
-        Optional<Question> questionOpt = this.getQuestionById(id);
+        // get the answer key of the question, the question and its answers are not loaded
+        AnswerKey answerKey = answerKeyCache.getAnswerKey(id);
+        int answerCount = answerKey.answerIds().length;
 
-        if (questionOpt.isEmpty()) {
-            throw new RuntimeException("Question not found with id " + id);
+        if (!answerKey.hasCorrectAnswer() || answerCount < 2) {
+            throw new RuntimeException("Correct and wrong answer not found for question with id " + id);
         }
 
-        // question must not be type Optional<Question>
-        Question question = questionOpt.get();
-        // get all answers for the selected question
-        List<Answer> answers = answerService.getAnswersByQuestion(question);
-
-        // get correct and a false answer for the selected question
-        /*
-            .stream is used to convert the list of answers to a stream for further operations
-            .filter is used to filter the answers that are correct
-            .skip is used to skip a random number of answers that are not correct
-            .findFirst is used to get the first object in the stream
-            .orElseThrow is used to throw an exception if no correct answer is found
-         */
-        Answer correctAnswer = answers.stream()
-                .filter(Answer::isCorrect)
-                .findFirst()
-                .orElseThrow();
-        Answer falseAnswer = answers.stream()
-                .filter(answer -> !answer.isCorrect())
-                .skip(new Random().nextInt((int) answers.stream().filter(answer -> !answer.isCorrect()).count()))
-                .findFirst()
-                .orElseThrow();
+        // choose a random wrong answer by skipping the index of the correct answer
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int falseIndex = random.nextInt(answerCount - 1);
+        if (falseIndex >= answerKey.correctIndex()) {
+            falseIndex++;
+        }
+
+        // the cached question with all answers, its answers are found by their ID
+        QuizQuestionDTO quizQuestion = quizQuestionPayloadCache.getQuizQuestion(id);
+        QuizAnswerDTO correctAnswer = findQuizAnswer(quizQuestion, answerKey.correctAnswerId());
+        QuizAnswerDTO falseAnswer = findQuizAnswer(quizQuestion, answerKey.answerIds()[falseIndex]);
 
         // randomly order the answers
-        List<Answer> answerList;
-        if (new Random().nextInt(2) == 0) {
-            answerList = List.of(correctAnswer, falseAnswer);
-        } else {
-            answerList = List.of(falseAnswer, correctAnswer);
+        List<QuizAnswerDTO> answerDTOs = random.nextBoolean() ? List.of(correctAnswer, falseAnswer) : List.of(falseAnswer, correctAnswer);
+
+        // copy the cached question with the remaining answers
+        return QuizQuestionDTO.builder()
+                .id(quizQuestion.getId())
+                .question(quizQuestion.getQuestion())
+                .difficulty(quizQuestion.getDifficulty())
+                .topic(quizQuestion.getTopic())
+                .answers(answerDTOs)
+                .build();
+    }
+
+    /**
+     * Finds an answer of a quiz question by its ID.
+     *
+     * @param quizQuestion the quiz question
+     * @param answerId     the ID of the answer
+     * @return the answer
+     */
+    private static QuizAnswerDTO findQuizAnswer(QuizQuestionDTO quizQuestion, long answerId) {
+        for (QuizAnswerDTO answer : quizQuestion.getAnswers()) {
+            if (answer.getId() != null && answer.getId() == answerId) {
+                return answer;
+            }
         }
+        throw new RuntimeException("Answer not found with id " + answerId);
+    }
 
-        // map answers to QuizAnswerDTO
-        /*
-            .stream is used to convert the list of answers to a stream for further operations
-            .map is used to convert each answer to a QuizAnswerDTO
-            .collect is used to collect the stream of QuizAnswerDTOs to a list
-         */
-        List<QuizAnswerDTO> answerDTOs = answerList.stream()
-                .map(questionMapper::answerToQuizAnswerDTO)
-                .collect(Collectors.toList());
-        // map the question and its answers to QuizQuestionDTO
-
-        return questionMapper.questionToQuizQuestionDTO(question, answerDTOs);
+    /**
+     * Runs an update of the playable index and the caches after the current transaction has committed,
+     * so they never serve a question which is rolled back. Without a transaction the update is run immediately.
+     *
+     * @param action the update to run
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
@@ -0,0 +1,234 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.CorrectQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizCorrectAnswerDTO;
+import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionAnswerDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionStartDTO;
+import ch.quizinno.brainquest.mappers.QuizSessionMapper;
+import ch.quizinno.brainquest.models.QuizSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for managing quiz sessions.
+ * The served questions and the score of a running game are kept on the server,
+ * so the client only has to send the session ID.
+ */
+// Spring annotation to indicate that this class is a service.
+@Service
+public class QuizSessionService {
+
+    /**
+     * Time in milliseconds after which an idle session is removed.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${QUIZ_SESSION_TIMEOUT:1800000}")
+    private long sessionTimeout = 1800000;
+    /**
+     * Maximum number of running sessions, new sessions are rejected once it is reached.
+     */
+    // This annotation indicates that a field should be resolved by the environment variable.
+    @Value("${QUIZ_SESSION_MAX:10000}")
+    private int maxSessions = 10000;
+
+    /**
+     * Service for managing questions.
+     */
+    private final QuestionService questionService;
+    /**
+     * Mapper for mapping quiz sessions to DTOs.
+     */
+    private final QuizSessionMapper quizSessionMapper;
+    /**
+     * Running quiz sessions by their ID.
+     */
+    private final ConcurrentHashMap<UUID, QuizSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new QuizSessionService with the specified services.
+     *
+     * @param questionService   the service to manage questions
+     * @param quizSessionMapper the mapper to map quiz sessions to DTOs
+     */
+    public QuizSessionService(QuestionService questionService, QuizSessionMapper quizSessionMapper) {
+        this.questionService = questionService;
+        this.quizSessionMapper = quizSessionMapper;
+    }
+
+    /**
+     * Starts a new quiz session.
+     *
+     * @param quizSessionStartDTO the topic, difficulty and player of the session
+     * @return the started session
+     */
+    public QuizSessionDTO startSession(QuizSessionStartDTO quizSessionStartDTO) {
+        // all attributes must be defined
+        if (quizSessionStartDTO.getTopicId() == null || quizSessionStartDTO.getDifficulty() == null || quizSessionStartDTO.getPlayerName() == null) {
+            throw new RuntimeException("Topic ID, difficulty and player name must be defined");
+        }
+
+        // ensure the topic and difficulty can be played, throws if no questions exist
+        questionService.selectQuizQuestionId(quizSessionStartDTO.getTopicId(), quizSessionStartDTO.getDifficulty(), questionId -> false);
+
+        // sessions can be started without login, the number of sessions held in memory is limited
+        if (sessions.size() >= maxSessions) {
+            evictExpiredSessions();
+            if (sessions.size() >= maxSessions) {
+                throw new RuntimeException("Too many quiz sessions, try again later");
+            }
+        }
+
+        QuizSession quizSession = new QuizSession(quizSessionStartDTO.getTopicId(), quizSessionStartDTO.getDifficulty(), quizSessionStartDTO.getPlayerName());
+        sessions.put(quizSession.getId(), quizSession);
+
+        return quizSessionMapper.quizSessionToQuizSessionDTO(quizSession);
+    }
+
+    /**
+     * Retrieves a quiz session by its ID.
+     *
+     * @param id the ID of the session
+     * @return the session with the specified ID
+     */
+    public Optional<QuizSessionDTO> getSession(UUID id) {
+        /*
+            .map is used to convert the Optional<QuizSession> to an Optional<QuizSessionDTO>
+         */
+        return Optional.ofNullable(sessions.get(id))
+                .map(quizSession -> {
+                    synchronized (quizSession) {
+                        return quizSessionMapper.quizSessionToQuizSessionDTO(quizSession);
+                    }
+                });
+    }
+
+    /**
+     * Retrieves the next question of a quiz session.
+     * When all questions have been served the highscore is written and the session ends.
+     *
+     * @param id the ID of the session
+     * @return the next question or null if no more questions are available
+     */
+    public QuizQuestionDTO nextQuestion(UUID id) {
+        QuizSession quizSession = getQuizSession(id);
+
+        synchronized (quizSession) {
+            quizSession.setLastAccess(System.currentTimeMillis());
+
+            if (quizSession.getCurrentQuestionId() != null) {
+                // the current question has not been answered yet, serve it again
+                return questionService.getQuizQuestionById(quizSession.getCurrentQuestionId());
+            }
+
+            // select a question which has not been served in this session
+            Long questionId = questionService.selectQuizQuestionId(quizSession.getTopicId(), quizSession.getDifficulty(), quizSession::isServed);
+
+            if (questionId == null) {
+                // no more questions available
+                // write highscore with current score and end the session
+                questionService.recordHighscore(quizSession.getPlayerName(), quizSession.getScore(), quizSession.getDifficulty(), quizSession.getTopicId());
+                sessions.remove(id);
+                return null;
+            }
+
+            quizSession.markServed(questionId);
+            quizSession.setCurrentQuestionId(questionId);
+
+            return questionService.getQuizQuestionById(questionId);
+        }
+    }
+
+    /**
+     * Checks the answer to the current question of a quiz session.
+     * A correct answer increases the score, a wrong answer writes the highscore and ends the session.
+     *
+     * @param id                   the ID of the session
+     * @param quizSessionAnswerDTO the answer to check
+     * @return the question with the given answer and if it is correct
+     */
+    public CorrectQuestionDTO answerQuestion(UUID id, QuizSessionAnswerDTO quizSessionAnswerDTO) {
+        // the answer must be defined
+        if (quizSessionAnswerDTO.getAnswerId() == null) {
+            throw new RuntimeException("Answer ID must be defined");
+        }
+
+        QuizSession quizSession = getQuizSession(id);
+
+        synchronized (quizSession) {
+            quizSession.setLastAccess(System.currentTimeMillis());
+
+            if (quizSession.getCurrentQuestionId() == null) {
+                throw new RuntimeException("No question pending for quiz session with id " + id);
+            }
+
+            // check the answer with the score held by the server
+            QuizCorrectAnswerDTO quizCorrectAnswerDTO = QuizCorrectAnswerDTO.builder()
+                    .answerId(quizSessionAnswerDTO.getAnswerId())
+                    .playerName(quizSession.getPlayerName())
+                    .score(quizSession.getScore())
+                    .build();
+            CorrectQuestionDTO correctQuestionDTO = questionService.checkCorrectAnswer(quizSession.getCurrentQuestionId(), quizCorrectAnswerDTO);
+
+            if (correctQuestionDTO.isCorrect()) {
+                quizSession.setScore(quizSession.getScore() + 1);
+                quizSession.setCurrentQuestionId(null);
+            } else {
+                // highscore has been written, the game is over
+                sessions.remove(id);
+            }
+
+            return correctQuestionDTO;
+        }
+    }
+
+    /**
+     * Ends a quiz session without writing a highscore.
+     *
+     * @param id the ID of the session
+     */
+    public void endSession(UUID id) {
+        if (sessions.remove(id) == null) {
+            throw new RuntimeException("Quiz session not found with id " + id);
+        }
+    }
+
+    /**
+     * Retrieves the number of running sessions.
+     *
+     * @return the number of sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Removes sessions which have not been accessed within the session timeout.
+     */
+    // Spring annotation to run the method periodically.
+    @Scheduled(fixedDelayString = "${QUIZ_SESSION_EVICTION_INTERVAL:60000}")
+    public void evictExpiredSessions() {
+        long expiredBefore = System.currentTimeMillis() - sessionTimeout;
+        sessions.values().removeIf(quizSession -> quizSession.getLastAccess() < expiredBefore);
+    }
+
+    /**
+     * Retrieves a running quiz session.
+     *
+     * @param id the ID of the session
+     * @return the session with the specified ID
+     */
+    private QuizSession getQuizSession(UUID id) {
+        QuizSession quizSession = sessions.get(id);
+        if (quizSession == null) {
+            throw new RuntimeException("Quiz session not found with id " + id);
+        }
+        return quizSession;
+    }
+}
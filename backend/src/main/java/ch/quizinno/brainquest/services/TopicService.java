@@ -1,14 +1,12 @@
 package ch.quizinno.brainquest.services;
 
+import ch.quizinno.brainquest.caches.QuizQuestionPayloadCache;
+import ch.quizinno.brainquest.caches.TopicCatalogCache;
 import ch.quizinno.brainquest.dtos.TopicDTO;
-import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.entities.Topic;
-import ch.quizinno.brainquest.enums.Difficulty;
-import ch.quizinno.brainquest.mappers.TopicMapper;
 import ch.quizinno.brainquest.repositories.TopicRepository;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,69 +22,51 @@ public class TopicService {
      */
     private final TopicRepository topicRepository;
     /**
-     * Repository for managing questions.
+     * Cache of the topic catalog.
      */
-    private final QuestionService questionService;
+    private final TopicCatalogCache topicCatalogCache;
     /**
-     * Service for managing answers.
+     * Cache of the serialized quiz questions.
      */
-    private final AnswerService answerService;
+    private final QuizQuestionPayloadCache quizQuestionPayloadCache;
     /**
-     * Mapper for mapping topics to DTOs.
+     * In-memory leaderboards, their highscores contain the topic.
      */
-    private final TopicMapper topicMapper;
+    private final HighscoreLeaderboard highscoreLeaderboard;
 
     /**
      * Constructor for the TopicService.
      *
-     * @param topicRepository the repository for managing topics
-     * @param questionService the service for managing questions
-     * @param answerService   the service for managing answers
-     * @param topicMapper     the mapper for mapping topics to DTOs
+     * @param topicRepository          the repository for managing topics
+     * @param topicCatalogCache        the cache of the topic catalog
+     * @param quizQuestionPayloadCache the cache of the serialized quiz questions
+     * @param highscoreLeaderboard     the in-memory leaderboards
      */
-    public TopicService(TopicRepository topicRepository, QuestionService questionService, AnswerService answerService, TopicMapper topicMapper) {
+    public TopicService(TopicRepository topicRepository, TopicCatalogCache topicCatalogCache, QuizQuestionPayloadCache quizQuestionPayloadCache,
+                        HighscoreLeaderboard highscoreLeaderboard) {
         this.topicRepository = topicRepository;
-        this.questionService = questionService;
-        this.answerService = answerService;
-        this.topicMapper = topicMapper;
+        this.topicCatalogCache = topicCatalogCache;
+        this.quizQuestionPayloadCache = quizQuestionPayloadCache;
+        this.highscoreLeaderboard = highscoreLeaderboard;
     }
 
     /**
-     * Retrieves a list of all topics.
+     * Retrieves a list of all topics with the difficulties of their playable questions.
      *
      * @return a list of all topics
      */
     public List<TopicDTO> getAllTopics() {
-        // get all topics
-        List<Topic> topics = topicRepository.findAll();
-        // initialize a list to store the mapped TopicDTOs
-        List<TopicDTO> topicDTOs = new ArrayList<>();
-
-        // map each topic to a TopicDTO
-        for (Topic topic : topics) {
-            // get all questions for the given topic
-            List<Question> questions = questionService.getQuestionsByTopicId(topic.getId());
-
-            // only get valid questions
-            // remove questions with less than 4 answers
-            questions.removeIf(question -> answerService.getAnswersByQuestion(question).size() < 4);
-
-            // get the difficulties of the questions for the topic
-            /*
-                .stream is used to convert the list of question to a stream for further operations
-                .map is used to map the stream of questions to a stream of difficulties
-                .distinct is used to get unique difficulties
-                .toList is used to convert the stream of difficulties to a list
-             */
-            List<Difficulty> difficulties = questions.stream()
-                    .map(Question::getDifficulty)
-                    .distinct()
-                    .toList();
-
-            topicDTOs.add(topicMapper.topicToTopicDTO(topic, difficulties));
-        }
+        return topicCatalogCache.getCatalog().topics();
+    }
 
-        return topicDTOs;
+    /**
+     * Retrieves the topic catalog, all topics with their difficulties serialized as JSON with its entity tag.
+     * The catalog is only loaded again after a write of topics, questions or answers.
+     *
+     * @return the topic catalog
+     */
+    public TopicCatalogCache.Catalog getTopicCatalog() {
+        return topicCatalogCache.getCatalog();
     }
 
     /**
@@ -106,7 +86,9 @@ public class TopicService {
      * @return the created topic
      */
     public Topic createTopic(Topic topic) {
-        return topicRepository.save(topic);
+        Topic savedTopic = topicRepository.save(topic);
+        topicCatalogCache.invalidate();
+        return savedTopic;
     }
 
     /**
@@ -128,7 +110,14 @@ public class TopicService {
             topic.setDescription(topicDetails.getDescription());
         }
 
-        return topicRepository.save(topic);
+        Topic savedTopic = topicRepository.save(topic);
+
+        // the cached quiz questions contain the topic
+        quizQuestionPayloadCache.invalidateTopic(id);
+        highscoreLeaderboard.invalidateTopic(id);
+        topicCatalogCache.invalidate();
+
+        return savedTopic;
     }
 
     /**
@@ -139,6 +128,9 @@ public class TopicService {
     public void deleteTopic(Long id) {
         if (topicRepository.existsById(id)) {
             topicRepository.deleteById(id);
+            quizQuestionPayloadCache.invalidateTopic(id);
+            highscoreLeaderboard.invalidateTopic(id);
+            topicCatalogCache.invalidate();
         } else {
             throw new RuntimeException("Topic not found with id " + id);
         }
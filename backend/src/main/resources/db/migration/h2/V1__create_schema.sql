@@ -0,0 +1,55 @@
+-- Schema of the entities for H2, used by the tests.
+-- H2 has no table partitioning, the highscore table is not partitioned but has the same indexes as in PostgreSQL.
+
+CREATE TABLE topic
+(
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description varchar(255),
+    name        varchar(255) UNIQUE
+);
+
+CREATE TABLE question
+(
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    difficulty varchar(255) CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    info       varchar(2000),
+    question   varchar(255),
+    topic_id   bigint,
+    CONSTRAINT fk_question_topic FOREIGN KEY (topic_id) REFERENCES topic (id)
+);
+
+CREATE TABLE answer
+(
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    answer      varchar(255),
+    correct     boolean NOT NULL,
+    question_id bigint,
+    CONSTRAINT fk_answer_question FOREIGN KEY (question_id) REFERENCES question (id)
+);
+
+CREATE TABLE brainquest_user
+(
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    password varchar(255),
+    username varchar(255) UNIQUE
+);
+
+CREATE TABLE highscore
+(
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  timestamp(6) with time zone,
+    difficulty  varchar(255) CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    player_name varchar(255),
+    score       integer NOT NULL,
+    topic_id    bigint,
+    CONSTRAINT fk_highscore_topic FOREIGN KEY (topic_id) REFERENCES topic (id)
+);
+
+CREATE INDEX idx_highscore_topic_difficulty_score ON highscore (topic_id, difficulty, score DESC, id DESC);
+CREATE INDEX idx_highscore_topic_difficulty_player_name ON highscore (topic_id, difficulty, player_name, id);
+CREATE INDEX idx_highscore_topic_difficulty_id ON highscore (topic_id, difficulty, id);
+CREATE INDEX idx_highscore_topic_difficulty_created_at ON highscore (topic_id, difficulty, created_at);
+CREATE INDEX idx_highscore_topic_id ON highscore (topic_id, id);
+CREATE INDEX idx_highscore_score ON highscore (score DESC, id DESC);
+CREATE INDEX idx_highscore_player_name ON highscore (player_name, id);
+CREATE INDEX idx_highscore_difficulty_id ON highscore (difficulty, id);
@@ -0,0 +1,30 @@
+-- Denormalized playable state for H2, the same as in PostgreSQL.
+-- A question is playable with 4 answers and one correct answer, the topic_difficulty table
+-- holds the number of playable questions per topic and difficulty, so the read paths never count answers.
+
+ALTER TABLE question ADD COLUMN playable boolean NOT NULL DEFAULT false;
+
+UPDATE question q
+SET playable = true
+WHERE (SELECT count(*) FROM answer a WHERE a.question_id = q.id) = 4
+  AND (SELECT count(*) FROM answer a WHERE a.question_id = q.id AND a.correct) = 1;
+
+CREATE INDEX idx_question_topic_difficulty_playable ON question (topic_id, difficulty, playable, id);
+
+CREATE TABLE topic_difficulty
+(
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    difficulty         varchar(255) NOT NULL CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    playable_questions integer      NOT NULL,
+    topic_id           bigint       NOT NULL,
+    CONSTRAINT uk_topic_difficulty_topic_difficulty UNIQUE (topic_id, difficulty),
+    CONSTRAINT fk_topic_difficulty_topic FOREIGN KEY (topic_id) REFERENCES topic (id)
+);
+
+INSERT INTO topic_difficulty (difficulty, playable_questions, topic_id)
+SELECT difficulty, count(*), topic_id
+FROM question
+WHERE playable
+  AND topic_id IS NOT NULL
+  AND difficulty IS NOT NULL
+GROUP BY topic_id, difficulty;
@@ -0,0 +1,5 @@
+-- Index of the foreign key of the answers, the answers of a question are read by every answer write and quiz question.
+-- The other lookups are covered by existing indexes: question (topic_id, difficulty) by idx_question_topic_difficulty_playable,
+-- highscore (topic_id, difficulty, score) by idx_highscore_topic_difficulty_score and brainquest_user (username) by its unique constraint.
+
+CREATE INDEX idx_answer_question_id ON answer (question_id);
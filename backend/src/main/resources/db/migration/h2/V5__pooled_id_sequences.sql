@@ -0,0 +1,21 @@
+-- Sequences instead of identity columns, so Hibernate knows the IDs before the insert and can send the inserts in JDBC batches.
+-- Every sequence is incremented by the allocation size of the entities (50), Hibernate's pooled optimizer
+-- hands out the IDs of a block from memory. The test databases are empty, so the sequences start at 1.
+
+CREATE SEQUENCE topic_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE topic ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE question_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE question ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE answer_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE answer ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE brainquest_user_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE brainquest_user ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE topic_difficulty_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE topic_difficulty ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE highscore_seq START WITH 1 INCREMENT BY 50;
+ALTER TABLE highscore ALTER COLUMN id DROP IDENTITY;
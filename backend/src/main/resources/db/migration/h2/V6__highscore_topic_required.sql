@@ -0,0 +1,8 @@
+-- Every highscore needs a topic, as in PostgreSQL where the topic is the partition key (V2).
+-- The primary key contains the topic ID like the key of the partitioned table, so both databases accept the same rows.
+
+DELETE FROM highscore WHERE topic_id IS NULL;
+
+ALTER TABLE highscore ALTER COLUMN topic_id SET NOT NULL;
+ALTER TABLE highscore DROP PRIMARY KEY;
+ALTER TABLE highscore ADD CONSTRAINT highscore_pkey PRIMARY KEY (id, topic_id);
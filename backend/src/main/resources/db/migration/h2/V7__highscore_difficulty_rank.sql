@@ -0,0 +1,9 @@
+-- The position of the difficulty in the Difficulty enum, stored with the highscore since the difficulty is a string.
+-- Sorting by difficulty is served by the (difficulty_rank, id) index instead of computing the rank for every row.
+-- Like the difficulty the rank is null for highscores without difficulty.
+
+ALTER TABLE highscore ADD COLUMN difficulty_rank integer;
+
+UPDATE highscore SET difficulty_rank = CASE difficulty WHEN 'EASY' THEN 0 WHEN 'MEDIUM' THEN 1 WHEN 'HARD' THEN 2 END;
+
+CREATE INDEX idx_highscore_difficulty_rank_id ON highscore (difficulty_rank, id);
@@ -0,0 +1,46 @@
+-- Schema of the entities as created by Hibernate before the migrations were introduced.
+-- Existing databases are baselined at this version, so this script only runs on an empty database.
+
+CREATE TABLE topic
+(
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description varchar(255),
+    name        varchar(255) UNIQUE
+);
+
+CREATE TABLE question
+(
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    difficulty varchar(255) CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    info       varchar(2000),
+    question   varchar(255),
+    topic_id   bigint,
+    CONSTRAINT fk_question_topic FOREIGN KEY (topic_id) REFERENCES topic (id)
+);
+
+CREATE TABLE answer
+(
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    answer      varchar(255),
+    correct     boolean NOT NULL,
+    question_id bigint,
+    CONSTRAINT fk_answer_question FOREIGN KEY (question_id) REFERENCES question (id)
+);
+
+CREATE TABLE brainquest_user
+(
+    id       bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    password varchar(255),
+    username varchar(255) UNIQUE
+);
+
+CREATE TABLE highscore
+(
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at  timestamp(6) with time zone,
+    difficulty  varchar(255) CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    player_name varchar(255),
+    score       integer NOT NULL,
+    topic_id    bigint,
+    CONSTRAINT fk_highscore_topic FOREIGN KEY (topic_id) REFERENCES topic (id)
+);
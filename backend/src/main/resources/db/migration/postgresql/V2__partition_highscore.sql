@@ -0,0 +1,72 @@
+-- Moves the highscores to a table hash partitioned by topic, so every leaderboard query filtering by topic
+-- reads a single partition and its local indexes. A hash partition holds several topics,
+-- so the indexes still start with the topic ID. Partitions do not have to be created for new topics.
+-- The partition key must be part of the primary key, so every highscore needs a topic.
+
+-- databases created before the creation time was recorded
+ALTER TABLE highscore ADD COLUMN IF NOT EXISTS created_at timestamp(6) with time zone;
+
+CREATE TABLE highscore_partitioned
+(
+    id          bigint       NOT NULL,
+    created_at  timestamp(6) with time zone,
+    difficulty  varchar(255) CHECK (difficulty IN ('EASY', 'MEDIUM', 'HARD')),
+    player_name varchar(255),
+    score       integer      NOT NULL,
+    topic_id    bigint       NOT NULL,
+    CONSTRAINT highscore_partitioned_pkey PRIMARY KEY (id, topic_id)
+) PARTITION BY HASH (topic_id);
+
+DO
+$$
+    BEGIN
+        FOR remainder IN 0..15
+            LOOP
+                EXECUTE format('CREATE TABLE highscore_p%s PARTITION OF highscore_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                               remainder, remainder);
+            END LOOP;
+    END
+$$;
+
+INSERT INTO highscore_partitioned (id, created_at, difficulty, player_name, score, topic_id)
+SELECT id, created_at, difficulty, player_name, score, topic_id
+FROM highscore
+WHERE topic_id IS NOT NULL;
+
+-- highscores without a topic are in no leaderboard, they are kept aside instead of being dropped
+CREATE TABLE highscore_without_topic AS
+SELECT *
+FROM highscore
+WHERE topic_id IS NULL;
+
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM highscore_without_topic) THEN
+            DROP TABLE highscore_without_topic;
+        END IF;
+    END
+$$;
+
+-- drops the identity sequence and the indexes of the unpartitioned table as well
+DROP TABLE highscore;
+
+ALTER TABLE highscore_partitioned RENAME TO highscore;
+ALTER TABLE highscore RENAME CONSTRAINT highscore_partitioned_pkey TO highscore_pkey;
+
+-- a sequence instead of an identity column, partitioned tables only support identity columns from PostgreSQL 17
+CREATE SEQUENCE highscore_id_seq OWNED BY highscore.id;
+SELECT setval('highscore_id_seq', COALESCE((SELECT max(id) FROM highscore), 0) + 1, false);
+ALTER TABLE highscore ALTER COLUMN id SET DEFAULT nextval('highscore_id_seq');
+
+ALTER TABLE highscore ADD CONSTRAINT fk_highscore_topic FOREIGN KEY (topic_id) REFERENCES topic (id);
+
+-- created on every partition, the leaderboard index is (difficulty, score DESC) per topic of a partition
+CREATE INDEX idx_highscore_topic_difficulty_score ON highscore (topic_id, difficulty, score DESC, id DESC);
+CREATE INDEX idx_highscore_topic_difficulty_player_name ON highscore (topic_id, difficulty, player_name, id);
+CREATE INDEX idx_highscore_topic_difficulty_id ON highscore (topic_id, difficulty, id);
+CREATE INDEX idx_highscore_topic_difficulty_created_at ON highscore (topic_id, difficulty, created_at);
+CREATE INDEX idx_highscore_topic_id ON highscore (topic_id, id);
+CREATE INDEX idx_highscore_score ON highscore (score DESC, id DESC);
+CREATE INDEX idx_highscore_player_name ON highscore (player_name, id);
+CREATE INDEX idx_highscore_difficulty_id ON highscore (difficulty, id);
@@ -0,0 +1,30 @@
+-- Sequences instead of identity columns, so Hibernate knows the IDs before the insert and can send the inserts in JDBC batches.
+-- Every sequence is incremented by the allocation size of the entities (50), Hibernate's pooled optimizer
+-- hands out the IDs of a block from memory. A value v of a sequence reserves the IDs v - 49 to v,
+-- so the sequences start at the highest ID + 50 to reserve the IDs right after the existing rows.
+
+CREATE SEQUENCE topic_seq INCREMENT BY 50 OWNED BY topic.id;
+SELECT setval('topic_seq', COALESCE((SELECT max(id) FROM topic), 0) + 50, false);
+ALTER TABLE topic ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE question_seq INCREMENT BY 50 OWNED BY question.id;
+SELECT setval('question_seq', COALESCE((SELECT max(id) FROM question), 0) + 50, false);
+ALTER TABLE question ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE answer_seq INCREMENT BY 50 OWNED BY answer.id;
+SELECT setval('answer_seq', COALESCE((SELECT max(id) FROM answer), 0) + 50, false);
+ALTER TABLE answer ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE brainquest_user_seq INCREMENT BY 50 OWNED BY brainquest_user.id;
+SELECT setval('brainquest_user_seq', COALESCE((SELECT max(id) FROM brainquest_user), 0) + 50, false);
+ALTER TABLE brainquest_user ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE topic_difficulty_seq INCREMENT BY 50 OWNED BY topic_difficulty.id;
+SELECT setval('topic_difficulty_seq', COALESCE((SELECT max(id) FROM topic_difficulty), 0) + 50, false);
+ALTER TABLE topic_difficulty ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- the partitioned highscore table replaces the default of its single step sequence (V2)
+CREATE SEQUENCE highscore_seq INCREMENT BY 50 OWNED BY highscore.id;
+SELECT setval('highscore_seq', COALESCE((SELECT max(id) FROM highscore), 0) + 50, false);
+ALTER TABLE highscore ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE highscore_id_seq;
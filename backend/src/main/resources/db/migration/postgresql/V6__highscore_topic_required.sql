@@ -0,0 +1,5 @@
+-- The highscores without a topic were kept aside when the highscore table was partitioned (V2).
+-- They are in no leaderboard, no export and no archive, and nothing reads the table, so it is dropped.
+-- The H2 variant of this migration makes the topic required, as it already is here.
+
+DROP TABLE IF EXISTS highscore_without_topic;
@@ -0,0 +1,147 @@
+package ch.quizinno.brainquest.caches;
+
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.models.AnswerKey;
+import ch.quizinno.brainquest.repositories.AnswerRepository;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import ch.quizinno.brainquest.services.AnswerService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AnswerKeyCache.
+ */
+// Create application context for testing
+@SpringBootTest
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class AnswerKeyCacheTest {
+    /**
+     * AnswerKeyCache for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+    /**
+     * AnswerService for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerService answerService;
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * QuestionRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionRepository questionRepository;
+    /**
+     * AnswerRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    /**
+     * Question used for testing.
+     */
+    private Question question;
+    /**
+     * Correct answer used for testing.
+     */
+    private Answer correctAnswer;
+
+    /**
+     * Method to setup data for testing.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        Topic topic = new Topic();
+        topic.setName("Answer Key Topic");
+        topic.setDescription("Description 1");
+        topicRepository.save(topic);
+
+        question = new Question();
+        question.setQuestion("Question 1");
+        question.setInfo("Info 1");
+        question.setDifficulty(Difficulty.EASY);
+        question.setTopic(topic);
+        questionRepository.save(question);
+
+        for (int i = 0; i < 4; i++) {
+            Answer answer = new Answer();
+            answer.setAnswer("Answer " + i);
+            answer.setCorrect(i == 0);
+            answer.setQuestion(question);
+            answerRepository.save(answer);
+            if (i == 0) {
+                correctAnswer = answer;
+            }
+        }
+    }
+
+    /**
+     * Method to reset the cache before each test.
+     */
+    @BeforeEach
+    public void resetCache() {
+        answerKeyCache.clear();
+    }
+
+    /**
+     * Test for loading an answer key.
+     */
+    @Test
+    public void testGetAnswerKey() {
+        // Call the method to be tested
+        AnswerKey answerKey = answerKeyCache.getAnswerKey(question.getId());
+
+        // Check the result
+        assertEquals(4, answerKey.answerIds().length);
+        assertEquals(correctAnswer.getId(), answerKey.correctAnswerId());
+        assertEquals(Difficulty.EASY, answerKey.difficulty());
+        assertEquals(question.getTopic().getId(), answerKey.topicId());
+        assertEquals("Info 1", answerKey.info());
+        assertEquals(-1, answerKey.indexOf(0L));
+        assertSame(answerKey, answerKeyCache.getAnswerKey(question.getId()));
+        assertThrows(RuntimeException.class, () -> answerKeyCache.getAnswerKey(0L));
+    }
+
+    /**
+     * Test for invalidating the answer key when an answer is changed.
+     */
+    @Test
+    public void testInvalidateByAnswerService() {
+        AnswerKey answerKey = answerKeyCache.getAnswerKey(question.getId());
+        Answer answer = answerRepository.findByQuestion(question).get(1);
+
+        // Call the method to be tested
+        answerService.updateAnswer(answer.getId(), Answer.builder().answer("Answer updated").build());
+
+        // Check the result, the reloaded key has the same values
+        AnswerKey reloaded = answerKeyCache.getAnswerKey(question.getId());
+        assertNotSame(answerKey, reloaded);
+        assertEquals(answerKey, reloaded);
+        assertEquals(answerKey.hashCode(), reloaded.hashCode());
+        assertTrue(reloaded.indexOf(answer.getId()) >= 0);
+    }
+}
@@ -0,0 +1,164 @@
+package ch.quizinno.brainquest.caches;
+
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.repositories.AnswerRepository;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import ch.quizinno.brainquest.services.QuestionPlayability;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PlayableQuestionIndex.
+ */
+// Create application context for testing
+@SpringBootTest
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class PlayableQuestionIndexTest {
+    /**
+     * PlayableQuestionIndex for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private PlayableQuestionIndex playableQuestionIndex;
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * QuestionRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionRepository questionRepository;
+    /**
+     * AnswerRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerRepository answerRepository;
+    /**
+     * QuestionPlayability to compute the playable state of the test data.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionPlayability questionPlayability;
+
+    /**
+     * Playable question used for testing.
+     */
+    private Question playableQuestion;
+    /**
+     * Question without answers used for testing.
+     */
+    private Question incompleteQuestion;
+
+    /**
+     * Method to setup data for testing.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        Topic topic1 = new Topic();
+        topic1.setName("Topic 1");
+        topic1.setDescription("Description 1");
+        topicRepository.save(topic1);
+
+        playableQuestion = new Question();
+        playableQuestion.setQuestion("Question 1");
+        playableQuestion.setDifficulty(Difficulty.EASY);
+        playableQuestion.setTopic(topic1);
+        questionRepository.save(playableQuestion);
+
+        incompleteQuestion = new Question();
+        incompleteQuestion.setQuestion("Question 2");
+        incompleteQuestion.setDifficulty(Difficulty.EASY);
+        incompleteQuestion.setTopic(topic1);
+        questionRepository.save(incompleteQuestion);
+
+        for (int i = 0; i < 4; i++) {
+            Answer answer = new Answer();
+            answer.setAnswer("Answer " + i);
+            answer.setCorrect(i == 0);
+            answer.setQuestion(playableQuestion);
+            answerRepository.save(answer);
+        }
+
+        // the data is written by the repositories, the playable state is computed once
+        questionPlayability.rebuild();
+    }
+
+    /**
+     * Method to reset the index before each test.
+     */
+    @BeforeEach
+    public void resetIndex() {
+        playableQuestionIndex.clear();
+    }
+
+    /**
+     * Test for loading the playable questions.
+     */
+    @Test
+    public void testGetPlayableQuestionIds() {
+        // Call the method to be tested
+        long[] ids = playableQuestionIndex.getPlayableQuestionIds(playableQuestion.getTopic().getId(), Difficulty.EASY);
+
+        // Check the result
+        assertArrayEquals(new long[]{playableQuestion.getId()}, ids);
+        assertEquals(0, playableQuestionIndex.getPlayableQuestionIds(playableQuestion.getTopic().getId(), Difficulty.HARD).length);
+    }
+
+    /**
+     * Test for adding and removing questions.
+     */
+    @Test
+    public void testAddAndRemove() {
+        Long topicId = playableQuestion.getTopic().getId();
+        // load the pool
+        playableQuestionIndex.getPlayableQuestionIds(topicId, Difficulty.EASY);
+
+        // Call the methods to be tested
+        playableQuestionIndex.add(topicId, Difficulty.EASY, incompleteQuestion.getId());
+        playableQuestionIndex.add(topicId, Difficulty.EASY, incompleteQuestion.getId());
+
+        // Check the result
+        assertEquals(2, playableQuestionIndex.getPlayableQuestionIds(topicId, Difficulty.EASY).length);
+
+        playableQuestionIndex.remove(topicId, Difficulty.EASY, playableQuestion.getId());
+
+        assertArrayEquals(new long[]{incompleteQuestion.getId()}, playableQuestionIndex.getPlayableQuestionIds(topicId, Difficulty.EASY));
+    }
+
+    /**
+     * Test for refreshing a question.
+     */
+    @Test
+    public void testRefresh() {
+        Long topicId = playableQuestion.getTopic().getId();
+        // load the pool and add a question which is not playable
+        playableQuestionIndex.getPlayableQuestionIds(topicId, Difficulty.EASY);
+        playableQuestionIndex.add(topicId, Difficulty.EASY, incompleteQuestion.getId());
+
+        // Call the method to be tested
+        playableQuestionIndex.refresh(incompleteQuestion.getId());
+
+        // Check the result
+        assertArrayEquals(new long[]{playableQuestion.getId()}, playableQuestionIndex.getPlayableQuestionIds(topicId, Difficulty.EASY));
+    }
+}
@@ -0,0 +1,204 @@
+package ch.quizinno.brainquest.caches;
+
+import ch.quizinno.brainquest.dtos.QuizAnswerDTO;
+import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.repositories.AnswerRepository;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for QuizQuestionPayloadCache.
+ */
+// Create application context for testing
+@SpringBootTest
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class QuizQuestionPayloadCacheTest {
+    /**
+     * QuizQuestionPayloadCache for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuizQuestionPayloadCache quizQuestionPayloadCache;
+    /**
+     * ObjectMapper for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private ObjectMapper objectMapper;
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * QuestionRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionRepository questionRepository;
+    /**
+     * AnswerRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    /**
+     * Question used for testing.
+     */
+    private Question question;
+
+    /**
+     * Method to setup data for testing.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        Topic topic = new Topic();
+        topic.setName("Payload Topic");
+        topic.setDescription("Description 1");
+        topicRepository.save(topic);
+
+        question = new Question();
+        question.setQuestion("Question 1");
+        question.setInfo("Info 1");
+        question.setDifficulty(Difficulty.EASY);
+        question.setTopic(topic);
+        questionRepository.save(question);
+
+        for (int i = 0; i < 4; i++) {
+            Answer answer = new Answer();
+            answer.setAnswer("Answer " + i);
+            answer.setCorrect(i == 0);
+            answer.setQuestion(question);
+            answerRepository.save(answer);
+        }
+    }
+
+    /**
+     * Method to reset the cache before each test.
+     */
+    @BeforeEach
+    public void resetCache() {
+        quizQuestionPayloadCache.clear();
+    }
+
+    /**
+     * Test for reading a payload.
+     *
+     * @throws Exception if the payload is not valid JSON
+     */
+    @Test
+    public void testGetPayload() throws Exception {
+        // Call the method to be tested
+        QuizQuestionDTO quizQuestionDTO = objectMapper.readValue(quizQuestionPayloadCache.getPayload(question.getId()), QuizQuestionDTO.class);
+
+        // Check the result
+        assertEquals("Question 1", quizQuestionDTO.getQuestion());
+        assertEquals("Payload Topic", quizQuestionDTO.getTopic().getName());
+        assertEquals(4, quizQuestionDTO.getAnswers().size());
+    }
+
+    /**
+     * Test for reading the question from the cached payloads.
+     */
+    @Test
+    public void testGetQuizQuestion() {
+        // Call the methods to be tested
+        QuizQuestionDTO quizQuestionDTO = quizQuestionPayloadCache.getQuizQuestion(question.getId());
+
+        // Check the result
+        assertEquals("Question 1", quizQuestionDTO.getQuestion());
+        assertEquals(4, quizQuestionDTO.getAnswers().size());
+        assertSame(quizQuestionDTO, quizQuestionPayloadCache.getQuizQuestion(question.getId()));
+    }
+
+    /**
+     * Test for the answer orders of the payloads.
+     *
+     * @throws Exception if the payload is not valid JSON
+     */
+    @Test
+    public void testGetPayload_ShufflesAnswers() throws Exception {
+        Set<List<Long>> orders = new HashSet<>();
+
+        // Call the method to be tested
+        for (int i = 0; i < 500; i++) {
+            QuizQuestionDTO quizQuestionDTO = objectMapper.readValue(quizQuestionPayloadCache.getPayload(question.getId()), QuizQuestionDTO.class);
+            orders.add(quizQuestionDTO.getAnswers().stream().map(QuizAnswerDTO::getId).toList());
+        }
+
+        // Check the result, all 24 orders are served
+        assertEquals(24, orders.size());
+    }
+
+    /**
+     * Test for the answer orders of the shuffled questions, they are not loaded again.
+     */
+    @Test
+    public void testGetShuffledQuizQuestion() {
+        Set<List<Long>> orders = new HashSet<>();
+        // the questions are compared by identity
+        Set<QuizQuestionDTO> quizQuestions = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // Call the method to be tested
+        for (int i = 0; i < 500; i++) {
+            QuizQuestionDTO quizQuestionDTO = quizQuestionPayloadCache.getShuffledQuizQuestion(question.getId());
+            orders.add(quizQuestionDTO.getAnswers().stream().map(QuizAnswerDTO::getId).toList());
+            quizQuestions.add(quizQuestionDTO);
+        }
+
+        // Check the result, all 24 orders are served from the 24 cached questions
+        assertEquals(24, orders.size());
+        assertEquals(24, quizQuestions.size());
+        assertEquals("Question 1", quizQuestions.iterator().next().getQuestion());
+    }
+
+    /**
+     * Test for invalidating a question.
+     *
+     * @throws Exception if the payload is not valid JSON
+     */
+    @Test
+    public void testInvalidateQuestion() throws Exception {
+        quizQuestionPayloadCache.getPayload(question.getId());
+        question.setQuestion("Question 1 updated");
+        questionRepository.save(question);
+
+        // the cached payload is served until the question is invalidated
+        assertEquals("Question 1", objectMapper.readValue(quizQuestionPayloadCache.getPayload(question.getId()), QuizQuestionDTO.class).getQuestion());
+
+        // Call the method to be tested
+        quizQuestionPayloadCache.invalidateQuestion(question.getId());
+
+        // Check the result
+        assertEquals("Question 1 updated", objectMapper.readValue(quizQuestionPayloadCache.getPayload(question.getId()), QuizQuestionDTO.class).getQuestion());
+
+        question.setQuestion("Question 1");
+        questionRepository.save(question);
+    }
+}
@@ -0,0 +1,161 @@
+package ch.quizinno.brainquest.caches;
+
+import ch.quizinno.brainquest.dtos.TopicDTO;
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.services.AnswerService;
+import ch.quizinno.brainquest.services.QuestionService;
+import ch.quizinno.brainquest.services.TopicService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TopicCatalogCache.
+ */
+// Create application context for testing
+@SpringBootTest
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class TopicCatalogCacheTest {
+    /**
+     * TopicCatalogCache for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicCatalogCache topicCatalogCache;
+    /**
+     * TopicService for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicService topicService;
+    /**
+     * QuestionService for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionService questionService;
+    /**
+     * AnswerService for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerService answerService;
+    /**
+     * ObjectMapper for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private ObjectMapper objectMapper;
+    /**
+     * TransactionManager to roll back a write.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Test for loading the catalog once per version.
+     *
+     * @throws Exception if the catalog is not valid JSON
+     */
+    @Test
+    public void testGetCatalog() throws Exception {
+        // Call the method to be tested
+        TopicCatalogCache.Catalog catalog = topicCatalogCache.getCatalog();
+
+        // Check the result, the cached catalog is served until the version changes
+        assertSame(catalog, topicCatalogCache.getCatalog());
+        assertEquals(catalog.topics(), List.of(objectMapper.readValue(catalog.json(), TopicDTO[].class)));
+        assertTrue(catalog.etag().startsWith("\"") && catalog.etag().endsWith("\""));
+
+        // the entity tag depends on the content only
+        topicCatalogCache.invalidate();
+        TopicCatalogCache.Catalog reloaded = topicCatalogCache.getCatalog();
+        assertNotSame(catalog, reloaded);
+        assertEquals(catalog.etag(), reloaded.etag());
+    }
+
+    /**
+     * Test for changing the catalog by writes of topics, questions and answers.
+     */
+    @Test
+    public void testInvalidate_ShouldBeCalledByWrites() {
+        String etag = topicCatalogCache.getCatalog().etag();
+
+        // a new topic is part of the catalog
+        Topic topic = topicService.createTopic(Topic.builder().name("Catalog Topic").description("Description 1").build());
+        TopicDTO topicDTO = findTopic(topic.getId());
+        assertNotNull(topicDTO);
+        assertEquals(List.of(), topicDTO.getDifficulty());
+        assertNotEquals(etag, topicCatalogCache.getCatalog().etag());
+
+        // the difficulty is part of the catalog once its question has 4 answers
+        Question question = questionService.createQuestion(Question.builder().question("Question 1").difficulty(Difficulty.MEDIUM).topic(topic).build());
+        List<Answer> answers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            answers.add(answerService.createAnswer(Answer.builder().answer("Answer " + i).correct(i == 0).question(question).build()));
+            assertEquals(i == 3 ? List.of(Difficulty.MEDIUM) : List.of(), findTopic(topic.getId()).getDifficulty());
+        }
+
+        // the difficulty is removed with an answer
+        for (Answer answer : answers) {
+            answerService.deleteAnswer(answer.getId());
+            assertEquals(List.of(), findTopic(topic.getId()).getDifficulty());
+        }
+
+        // a renamed topic is renamed in the catalog
+        topicService.updateTopic(topic.getId(), Topic.builder().name("Catalog Topic updated").build());
+        assertEquals("Catalog Topic updated", findTopic(topic.getId()).getName());
+
+        // a deleted topic is removed from the catalog
+        questionService.deleteQuestion(question.getId());
+        topicService.deleteTopic(topic.getId());
+        assertNull(findTopic(topic.getId()));
+    }
+
+    /**
+     * Test for not keeping a catalog which was loaded in a rolled back transaction.
+     */
+    @Test
+    public void testInvalidate_ShouldIgnoreRolledBackWrites() {
+        Long topicId = new TransactionTemplate(transactionManager).execute(status -> {
+            Topic topic = topicService.createTopic(Topic.builder().name("Rolled Back Topic").description("Description 1").build());
+            // the catalog of the transaction contains the topic
+            assertNotNull(findTopic(topic.getId()));
+            status.setRollbackOnly();
+            return topic.getId();
+        });
+
+        // Check the result
+        assertNull(findTopic(topicId));
+    }
+
+    /**
+     * Finds a topic in the catalog.
+     *
+     * @param topicId the ID of the topic
+     * @return the topic or null if it is not part of the catalog
+     */
+    private TopicDTO findTopic(Long topicId) {
+        return topicCatalogCache.getCatalog().topics().stream()
+                .filter(topicDTO -> topicDTO.getId().equals(topicId))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -1,10 +1,17 @@
 package ch.quizinno.brainquest.controllers;
 
+import ch.quizinno.brainquest.dtos.HighscorePageDTO;
+import ch.quizinno.brainquest.dtos.HighscoreRankDTO;
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.dtos.RankedHighscoreDTO;
 import ch.quizinno.brainquest.entities.Highscore;
 import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.ExportFormat;
+import ch.quizinno.brainquest.enums.LeaderboardWindow;
 import ch.quizinno.brainquest.enums.SortBy;
 import ch.quizinno.brainquest.enums.SortDir;
+import ch.quizinno.brainquest.services.HighscoreLiveUpdates;
 import ch.quizinno.brainquest.services.HighscoreService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -14,13 +21,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -49,6 +67,12 @@ public class HighscoreControllerTest {
     // Mock required dependency.
     @MockBean
     private HighscoreService highscoreService;
+    /**
+     * MockBean for testing.
+     */
+    // Mock required dependency.
+    @MockBean
+    private HighscoreLiveUpdates highscoreLiveUpdates;
 
     /**
      * Method to test the get all highscores.
@@ -57,28 +81,18 @@ public class HighscoreControllerTest {
      */
     @Test
     public void testGetAllHighscores() throws Exception {
-        // build a topic
-        Topic topic = Topic.builder()
-                .id(1L)
-                .name("Topic 1")
-                .description("Description 1")
-                .build();
-        Highscore highscore = Highscore.builder()
+        // build a highscore summary
+        HighscoreSummaryDTO highscore = HighscoreSummaryDTO.builder()
                 .id(1L)
                 .playerName("Player 1")
                 .difficulty(Difficulty.EASY)
                 .score(100)
-                .topic(topic)
+                .topicId(1L)
+                .topicName("Topic 1")
                 .build();
 
-        // mock the get all highscores method
-        when(highscoreService.getAllHighscores()).thenReturn(List.of(highscore));
-        // mock the getHighscoresByTopicIdAndDifficulty method
-        when(highscoreService.getHighscoresByTopicIdAndDifficulty(1L, Difficulty.EASY)).thenReturn(List.of(highscore));
-        // mock the sortHighscores method
-        when(highscoreService.sortHighscores(List.of(highscore), SortDir.ASC, SortBy.ID)).thenReturn(List.of(highscore));
-        // mock the limitHighscores method
-        when(highscoreService.limitHighscores(List.of(highscore), null)).thenReturn(List.of(highscore));
+        // mock the getHighscores method
+        when(highscoreService.getHighscores(null, null, SortBy.ID, SortDir.ASC, null)).thenReturn(List.of(highscore));
 
         // perform the get request
         mockMvc.perform(get("/api/highscores")
@@ -86,7 +100,8 @@ public class HighscoreControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.[0].playerName").value("Player 1"))
                 .andExpect(jsonPath("$.[0].score").value(100))
-                .andExpect(jsonPath("$.[0].topic.name").value("Topic 1"));
+                .andExpect(jsonPath("$.[0].topicName").value("Topic 1"))
+                .andExpect(jsonPath("$.[0].topic").doesNotExist());
     }
 
     /**
@@ -96,28 +111,18 @@ public class HighscoreControllerTest {
      */
     @Test
     public void testGetHighscoresByTopicIdAndDifficulty() throws Exception {
-        // build a topic
-        Topic topic = Topic.builder()
-                .id(1L)
-                .name("Topic 1")
-                .description("Description 1")
-                .build();
-        Highscore highscore = Highscore.builder()
+        // build a highscore summary
+        HighscoreSummaryDTO highscore = HighscoreSummaryDTO.builder()
                 .id(1L)
                 .playerName("Player 1")
                 .difficulty(Difficulty.EASY)
                 .score(100)
-                .topic(topic)
+                .topicId(1L)
+                .topicName("Topic 1")
                 .build();
 
-        // mock the get all highscores method
-        when(highscoreService.getAllHighscores()).thenReturn(List.of(highscore));
-        // mock the getHighscoresByTopicIdAndDifficulty method
-        when(highscoreService.getHighscoresByTopicIdAndDifficulty(1L, Difficulty.EASY)).thenReturn(List.of(highscore));
-        // mock the sortHighscores method
-        when(highscoreService.sortHighscores(List.of(highscore), SortDir.ASC, SortBy.ID)).thenReturn(List.of(highscore));
-        // mock the limitHighscores method
-        when(highscoreService.limitHighscores(List.of(highscore), null)).thenReturn(List.of(highscore));
+        // mock the getHighscores method
+        when(highscoreService.getHighscores(1L, Difficulty.EASY, SortBy.ID, SortDir.ASC, null)).thenReturn(List.of(highscore));
 
         // perform the get request
         mockMvc.perform(get("/api/highscores")
@@ -126,7 +131,8 @@ public class HighscoreControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.[0].playerName").value("Player 1"))
                 .andExpect(jsonPath("$.[0].score").value(100))
-                .andExpect(jsonPath("$.[0].topic.name").value("Topic 1"));
+                .andExpect(jsonPath("$.[0].topicName").value("Topic 1"))
+                .andExpect(jsonPath("$.[0].topic").doesNotExist());
     }
 
     /**
@@ -136,28 +142,18 @@ public class HighscoreControllerTest {
      */
     @Test
     public void testGetHighscoresWithLimit() throws Exception {
-        // build a topic
-        Topic topic = Topic.builder()
-                .id(1L)
-                .name("Topic 1")
-                .description("Description 1")
-                .build();
-        Highscore highscore = Highscore.builder()
+        // build a highscore summary
+        HighscoreSummaryDTO highscore = HighscoreSummaryDTO.builder()
                 .id(1L)
                 .playerName("Player 1")
                 .difficulty(Difficulty.EASY)
                 .score(100)
-                .topic(topic)
+                .topicId(1L)
+                .topicName("Topic 1")
                 .build();
 
-        // mock the get all highscores method
-        when(highscoreService.getAllHighscores()).thenReturn(List.of(highscore));
-        // mock the getHighscoresByTopicIdAndDifficulty method
-        when(highscoreService.getHighscoresByTopicIdAndDifficulty(1L, Difficulty.EASY)).thenReturn(List.of(highscore));
-        // mock the sortHighscores method
-        when(highscoreService.sortHighscores(List.of(highscore), SortDir.ASC, SortBy.ID)).thenReturn(List.of(highscore));
-        // mock the limitHighscores method
-        when(highscoreService.limitHighscores(List.of(highscore), 1)).thenReturn(List.of(highscore));
+        // mock the getHighscores method
+        when(highscoreService.getHighscores(null, null, SortBy.ID, SortDir.ASC, 1)).thenReturn(List.of(highscore));
 
         // perform the get request
         mockMvc.perform(get("/api/highscores")
@@ -166,7 +162,8 @@ public class HighscoreControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.[0].playerName").value("Player 1"))
                 .andExpect(jsonPath("$.[0].score").value(100))
-                .andExpect(jsonPath("$.[0].topic.name").value("Topic 1"));
+                .andExpect(jsonPath("$.[0].topicName").value("Topic 1"))
+                .andExpect(jsonPath("$.[0].topic").doesNotExist());
     }
 
     /**
@@ -176,28 +173,18 @@ public class HighscoreControllerTest {
      */
     @Test
     public void testGetHighscoresWithSortBy() throws Exception {
-        // build a topic
-        Topic topic = Topic.builder()
-                .id(1L)
-                .name("Topic 1")
-                .description("Description 1")
-                .build();
-        Highscore highscore = Highscore.builder()
+        // build a highscore summary
+        HighscoreSummaryDTO highscore = HighscoreSummaryDTO.builder()
                 .id(1L)
                 .playerName("Player 1")
                 .difficulty(Difficulty.EASY)
                 .score(100)
-                .topic(topic)
+                .topicId(1L)
+                .topicName("Topic 1")
                 .build();
 
-        // mock the get all highscores method
-        when(highscoreService.getAllHighscores()).thenReturn(List.of(highscore));
-        // mock the getHighscoresByTopicIdAndDifficulty method
-        when(highscoreService.getHighscoresByTopicIdAndDifficulty(1L, Difficulty.EASY)).thenReturn(List.of(highscore));
-        // mock the sortHighscores method
-        when(highscoreService.sortHighscores(List.of(highscore), SortDir.ASC, SortBy.SCORE)).thenReturn(List.of(highscore));
-        // mock the limitHighscores method
-        when(highscoreService.limitHighscores(List.of(highscore), null)).thenReturn(List.of(highscore));
+        // mock the getHighscores method
+        when(highscoreService.getHighscores(null, null, SortBy.SCORE, SortDir.ASC, null)).thenReturn(List.of(highscore));
 
         // perform the get request
         mockMvc.perform(get("/api/highscores")
@@ -207,7 +194,8 @@ public class HighscoreControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.[0].playerName").value("Player 1"))
                 .andExpect(jsonPath("$.[0].score").value(100))
-                .andExpect(jsonPath("$.[0].topic.name").value("Topic 1"));
+                .andExpect(jsonPath("$.[0].topicName").value("Topic 1"))
+                .andExpect(jsonPath("$.[0].topic").doesNotExist());
     }
 
     /**
@@ -389,4 +377,289 @@ public class HighscoreControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    /**
+     * Method to test the get highscore page.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetHighscorePage() throws Exception {
+        HighscoreSummaryDTO highscore = HighscoreSummaryDTO.builder()
+                .id(1L)
+                .playerName("Player 1")
+                .difficulty(Difficulty.EASY)
+                .score(100)
+                .build();
+
+        // mock the getHighscorePage method
+        when(highscoreService.getHighscorePage(null, null, SortBy.SCORE, SortDir.DESC, "cursor", 1)).thenReturn(new HighscorePageDTO(List.of(highscore), "next"));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/page")
+                        .param("sortBy", "SCORE")
+                        .param("sortDir", "DESC")
+                        .param("cursor", "cursor")
+                        .param("limit", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.highscores[0].playerName").value("Player 1"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    /**
+     * Method to test the get highscore page with an invalid cursor.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetHighscorePage_ShouldReturnBadRequest() throws Exception {
+        // mock the getHighscorePage method
+        when(highscoreService.getHighscorePage(null, null, SortBy.ID, SortDir.ASC, "invalid", 20)).thenThrow(new RuntimeException("Invalid cursor invalid"));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/page")
+                        .param("cursor", "invalid")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Method to test the highscore export.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testExportHighscores() throws Exception {
+        // mock the exportHighscores method
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("id,playerName,score,difficulty,topicId,topicName\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(highscoreService).exportHighscores(eq(ExportFormat.CSV), any(OutputStream.class));
+
+        // perform the get request, the export is written asynchronously
+        MvcResult result = mockMvc.perform(get("/api/highscores/export")
+                        .param("format", "CSV")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"highscores.csv\""))
+                .andExpect(content().string("id,playerName,score,difficulty,topicId,topicName\n"));
+    }
+
+    /**
+     * Method to test the export of the archived highscores.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testExportArchivedHighscores() throws Exception {
+        String line = "{\"id\":1,\"playerName\":\"Player 1\",\"score\":100,\"difficulty\":\"EASY\",\"topicId\":1,\"topicName\":\"Topic 1\",\"createdAt\":\"2025-01-15T10:00:00Z\"}\n";
+        // mock the exportArchivedHighscores method
+        doAnswer(invocation -> {
+            invocation.getArgument(4, OutputStream.class).write(line.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(highscoreService).exportArchivedHighscores(eq(YearMonth.of(2025, 1)), eq(YearMonth.of(2025, 3)), eq(1L), eq(Difficulty.EASY), any(OutputStream.class));
+
+        // perform the get request, the export is written asynchronously
+        MvcResult result = mockMvc.perform(get("/api/highscores/archive")
+                        .param("from", "2025-01")
+                        .param("to", "2025-03")
+                        .param("topicId", "1")
+                        .param("difficulty", "EASY")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"highscores-archive.ndjson\""))
+                .andExpect(content().string(line));
+    }
+
+    /**
+     * Method to test the export of the archived highscores with a range ending before it starts.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testExportArchivedHighscores_ShouldReturnBadRequest() throws Exception {
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/archive")
+                        .param("from", "2025-03")
+                        .param("to", "2025-01")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Method to test the subscription to a leaderboard.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testSubscribeLeaderboard() throws Exception {
+        // mock the subscribe method
+        when(highscoreLiveUpdates.subscribe(1L, Difficulty.EASY)).thenReturn(new SseEmitter());
+
+        // perform the get request, the events are sent asynchronously
+        mockMvc.perform(get("/api/highscores/live")
+                        .param("topicId", "1")
+                        .param("difficulty", "EASY")
+                )
+                .andExpect(request().asyncStarted());
+    }
+
+    /**
+     * Method to test the subscription to a leaderboard of a topic which does not exist.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testSubscribeLeaderboard_ShouldReturnNotFound() throws Exception {
+        // mock the subscribe method
+        when(highscoreLiveUpdates.subscribe(99L, Difficulty.EASY)).thenThrow(new RuntimeException("Topic not found with id 99"));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/live")
+                        .param("topicId", "99")
+                        .param("difficulty", "EASY")
+                )
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Method to test the subscription to a leaderboard when too many subscriptions are open.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testSubscribeLeaderboard_ShouldReturnServiceUnavailable() throws Exception {
+        // mock the subscribe method
+        when(highscoreLiveUpdates.subscribe(1L, Difficulty.EASY)).thenThrow(new RuntimeException("Too many leaderboard subscriptions, try again later"));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/live")
+                        .param("topicId", "1")
+                        .param("difficulty", "EASY")
+                )
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    /**
+     * Method to test the get leaderboard of a day.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetLeaderboard() throws Exception {
+        HighscoreSummaryDTO highscore = HighscoreSummaryDTO.builder()
+                .id(1L)
+                .playerName("Player 1")
+                .difficulty(Difficulty.EASY)
+                .score(100)
+                .topicId(1L)
+                .topicName("Topic 1")
+                .build();
+
+        // mock the getLeaderboard method
+        when(highscoreService.getLeaderboard(1L, Difficulty.EASY, LeaderboardWindow.WEEKLY, LocalDate.of(2024, 1, 15), 10)).thenReturn(List.of(highscore));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/leaderboard")
+                        .param("topicId", "1")
+                        .param("difficulty", "EASY")
+                        .param("window", "WEEKLY")
+                        .param("date", "2024-01-15")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].playerName").value("Player 1"))
+                .andExpect(jsonPath("$.[0].topicName").value("Topic 1"));
+    }
+
+    /**
+     * Method to test the get leaderboard with an invalid limit.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetLeaderboard_ShouldReturnBadRequest() throws Exception {
+        // mock the getLeaderboard method
+        when(highscoreService.getLeaderboard(1L, Difficulty.EASY, LeaderboardWindow.DAILY, null, 0)).thenThrow(new RuntimeException("Limit must be between 1 and 100"));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/leaderboard")
+                        .param("topicId", "1")
+                        .param("difficulty", "EASY")
+                        .param("limit", "0")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Method to test the get highscore rank.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetHighscoreRank() throws Exception {
+        // mock the getHighscoreRank method
+        when(highscoreService.getHighscoreRank(1L, Difficulty.EASY, 250)).thenReturn(new HighscoreRankDTO(250, 3, 4));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/rank")
+                        .param("topicId", "1")
+                        .param("difficulty", "EASY")
+                        .param("score", "250")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(3))
+                .andExpect(jsonPath("$.total").value(4));
+    }
+
+    /**
+     * Method to test the get highscores around a player.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetHighscoresAroundPlayer() throws Exception {
+        // mock the getHighscoresAroundPlayer method
+        when(highscoreService.getHighscoresAroundPlayer(1L, Difficulty.EASY, "Player 2", 1)).thenReturn(List.of(
+                new RankedHighscoreDTO(1, 3L, "Player 3", 300),
+                new RankedHighscoreDTO(2, 2L, "Player 2", 200),
+                new RankedHighscoreDTO(3, 1L, "Player 1", 100)));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/around")
+                        .param("topicId", "1")
+                        .param("difficulty", "EASY")
+                        .param("playerName", "Player 2")
+                        .param("size", "1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].playerName").value("Player 2"))
+                .andExpect(jsonPath("$[1].rank").value(2));
+    }
+
+    /**
+     * Method to test the get highscores around an unknown player.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetHighscoresAroundPlayer_ShouldReturnNotFound() throws Exception {
+        // mock the getHighscoresAroundPlayer method
+        when(highscoreService.getHighscoresAroundPlayer(1L, Difficulty.EASY, "Unknown", 5)).thenThrow(new RuntimeException("Highscore not found for player Unknown"));
+
+        // perform the get request
+        mockMvc.perform(get("/api/highscores/around")
+                        .param("topicId", "1")
+                        .param("difficulty", "EASY")
+                        .param("playerName", "Unknown")
+                )
+                .andExpect(status().isNotFound());
+    }
 }
@@ -4,6 +4,8 @@ import ch.quizinno.brainquest.dtos.CorrectQuestionDTO;
 import ch.quizinno.brainquest.dtos.QuizAnswerDTO;
 import ch.quizinno.brainquest.dtos.QuizCorrectAnswerDTO;
 import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizRoundDTO;
+import ch.quizinno.brainquest.dtos.QuizRoundResultDTO;
 import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.enums.Difficulty;
@@ -390,8 +392,8 @@ public class QuestionControllerTest {
                 .topic(topic)
                 .answers(List.of(quizAnswerDTO1, quizAnswerDTO2, quizAnswerDTO3, quizAnswerDTO4))
                 .build();
-        // mock the getQuizQuestion method
-        when(questionService.getQuizQuestion(1L, Difficulty.HARD, List.of(), "Player 1", 100)).thenReturn(quizQuestionDTO);
+        // mock the getQuizQuestionPayload method
+        when(questionService.getQuizQuestionPayload(1L, Difficulty.HARD, List.of(), "Player 1", 100)).thenReturn(objectMapper.writeValueAsBytes(quizQuestionDTO));
 
         // perform the get request
         mockMvc.perform(get("/api/questions/quiz-question")
@@ -441,8 +443,8 @@ public class QuestionControllerTest {
                 .topic(topic)
                 .answers(List.of(quizAnswerDTO1, quizAnswerDTO2, quizAnswerDTO3, quizAnswerDTO4))
                 .build();
-        // mock the getQuizQuestion method
-        when(questionService.getQuizQuestion(1L, Difficulty.HARD, List.of(), "Player 1", 100)).thenReturn(quizQuestionDTO);
+        // mock the getQuizQuestionPayload method
+        when(questionService.getQuizQuestionPayload(1L, Difficulty.HARD, List.of(), "Player 1", 100)).thenReturn(objectMapper.writeValueAsBytes(quizQuestionDTO));
 
         // perform the get request
         mockMvc.perform(get("/api/questions/quiz-question")
@@ -462,8 +464,8 @@ public class QuestionControllerTest {
      */
     @Test
     public void testGetQuizQuestion_ShouldReturnNotFound() throws Exception {
-        // mock the getQuizQuestion method
-        when(questionService.getQuizQuestion(100L, Difficulty.HARD, List.of(), "Player 1", 100)).thenThrow(new RuntimeException("No questions found"));
+        // mock the getQuizQuestionPayload method
+        when(questionService.getQuizQuestionPayload(100L, Difficulty.HARD, List.of(), "Player 1", 100)).thenThrow(new RuntimeException("No questions found"));
 
         // perform the get request
         mockMvc.perform(get("/api/questions/quiz-question")
@@ -500,6 +502,61 @@ public class QuestionControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    /**
+     * Method to test prefetching quiz questions.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetQuizQuestions() throws Exception {
+        // build questionDTOs
+        QuizQuestionDTO quizQuestionDTO1 = QuizQuestionDTO.builder()
+                .id(1L)
+                .question("Question 1")
+                .difficulty(Difficulty.HARD)
+                .answers(List.of(QuizAnswerDTO.builder().id(1L).answer("Answer 1").build()))
+                .build();
+        QuizQuestionDTO quizQuestionDTO2 = QuizQuestionDTO.builder()
+                .id(2L)
+                .question("Question 2")
+                .difficulty(Difficulty.HARD)
+                .answers(List.of(QuizAnswerDTO.builder().id(2L).answer("Answer 2").build()))
+                .build();
+        // mock the getQuizQuestionPayloads method
+        when(questionService.getQuizQuestionPayloads(1L, Difficulty.HARD, List.of(3L), 2))
+                .thenReturn(objectMapper.writeValueAsBytes(List.of(quizQuestionDTO1, quizQuestionDTO2)));
+
+        // perform the get request
+        mockMvc.perform(get("/api/questions/quiz-questions")
+                        .param("topicId", "1")
+                        .param("difficulty", "HARD")
+                        .param("excludeIds", "3")
+                        .param("count", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[0].question").value("Question 1"))
+                .andExpect(jsonPath("$[1].question").value("Question 2"));
+    }
+
+    /**
+     * Method to test prefetching too many quiz questions.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetQuizQuestions_ShouldReturnBadRequest() throws Exception {
+        // mock the getQuizQuestionPayloads method
+        when(questionService.getQuizQuestionPayloads(1L, Difficulty.HARD, List.of(), 100)).thenThrow(new RuntimeException("Count must be between 1 and 20"));
+
+        // perform the get request
+        mockMvc.perform(get("/api/questions/quiz-questions")
+                        .param("topicId", "1")
+                        .param("difficulty", "HARD")
+                        .param("excludeIds", "")
+                        .param("count", "100"))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Method to test get quiz question.
      *
@@ -530,6 +587,61 @@ public class QuestionControllerTest {
                 .andExpect(jsonPath("$.correctAnswerId").value("1"));
     }
 
+    /**
+     * Method to test submitting a round.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testSubmitRound() throws Exception {
+        // build a round DTO
+        QuizRoundDTO quizRoundDTO = QuizRoundDTO.builder()
+                .answerId(1L)
+                .playerName("Player 1")
+                .score(100)
+                .excludeIds(List.of(1L))
+                .build();
+        // build a round result DTO
+        QuizRoundResultDTO quizRoundResultDTO = QuizRoundResultDTO.builder()
+                .correctQuestion(CorrectQuestionDTO.builder()
+                        .correct(true)
+                        .correctAnswerId(1)
+                        .build())
+                .nextQuestion(QuizQuestionDTO.builder()
+                        .id(2L)
+                        .question("Question 2")
+                        .difficulty(Difficulty.HARD)
+                        .build())
+                .build();
+        // mock the submitRound method
+        when(questionService.submitRound(1L, quizRoundDTO)).thenReturn(quizRoundResultDTO);
+
+        // perform the post request
+        mockMvc.perform(post("/api/questions/1/round")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(quizRoundDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.correctQuestion.correct").value(true))
+                .andExpect(jsonPath("$.nextQuestion.question").value("Question 2"));
+    }
+
+    /**
+     * Method to test submitting a round without an answer.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testSubmitRound_ShouldReturnBadRequest() throws Exception {
+        // mock the submitRound method
+        when(questionService.submitRound(1L, new QuizRoundDTO())).thenThrow(new RuntimeException("Answer ID and player name must be defined"));
+
+        // perform the post request
+        mockMvc.perform(post("/api/questions/1/round")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(new QuizRoundDTO())))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Method to test get quiz question.
      *
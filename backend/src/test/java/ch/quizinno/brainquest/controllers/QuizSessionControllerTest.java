@@ -0,0 +1,237 @@
+package ch.quizinno.brainquest.controllers;
+
+import ch.quizinno.brainquest.dtos.CorrectQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizAnswerDTO;
+import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionAnswerDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionStartDTO;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.services.QuizSessionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for QuizSessionController.
+ */
+// Specifies the controller to be tested.
+@WebMvcTest(QuizSessionController.class)
+// Ignore the security configuration for the test.
+@AutoConfigureMockMvc(addFilters = false)
+public class QuizSessionControllerTest {
+    /**
+     * MockMvc for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private MockMvc mockMvc;
+    /**
+     * ObjectMapper for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private ObjectMapper objectMapper;
+    /**
+     * MockBean for testing.
+     */
+    // Mock required dependency.
+    @MockBean
+    private QuizSessionService quizSessionService;
+
+    /**
+     * Method to test starting a quiz session.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testStartSession() throws Exception {
+        UUID id = UUID.randomUUID();
+        // build a start DTO
+        QuizSessionStartDTO quizSessionStartDTO = QuizSessionStartDTO.builder()
+                .topicId(1L)
+                .difficulty(Difficulty.EASY)
+                .playerName("Player 1")
+                .build();
+        // build a session DTO
+        QuizSessionDTO quizSessionDTO = QuizSessionDTO.builder()
+                .id(id)
+                .topicId(1L)
+                .difficulty(Difficulty.EASY)
+                .playerName("Player 1")
+                .build();
+        // mock the startSession method
+        when(quizSessionService.startSession(quizSessionStartDTO)).thenReturn(quizSessionDTO);
+
+        // perform the post request
+        mockMvc.perform(post("/api/quiz-sessions")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(quizSessionStartDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.score").value(0));
+    }
+
+    /**
+     * Method to test starting a quiz session without questions.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testStartSession_ShouldReturnNotFound() throws Exception {
+        // build a start DTO
+        QuizSessionStartDTO quizSessionStartDTO = QuizSessionStartDTO.builder()
+                .topicId(100L)
+                .difficulty(Difficulty.EASY)
+                .playerName("Player 1")
+                .build();
+        // mock the startSession method
+        when(quizSessionService.startSession(quizSessionStartDTO)).thenThrow(new RuntimeException("No questions found"));
+
+        // perform the post request
+        mockMvc.perform(post("/api/quiz-sessions")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(quizSessionStartDTO)))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Method to test starting a quiz session when the maximum number of sessions is reached.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testStartSession_ShouldReturnServiceUnavailable() throws Exception {
+        // build a start DTO
+        QuizSessionStartDTO quizSessionStartDTO = QuizSessionStartDTO.builder()
+                .topicId(1L)
+                .difficulty(Difficulty.EASY)
+                .playerName("Player 1")
+                .build();
+        // mock the startSession method
+        when(quizSessionService.startSession(quizSessionStartDTO)).thenThrow(new RuntimeException("Too many quiz sessions, try again later"));
+
+        // perform the post request
+        mockMvc.perform(post("/api/quiz-sessions")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(quizSessionStartDTO)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    /**
+     * Method to test getting a quiz session.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testGetSession_ShouldReturnNotFound() throws Exception {
+        UUID id = UUID.randomUUID();
+        // mock the getSession method
+        when(quizSessionService.getSession(id)).thenReturn(Optional.empty());
+
+        // perform the get request
+        mockMvc.perform(get("/api/quiz-sessions/" + id))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Method to test getting the next question of a quiz session.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testNextQuestion() throws Exception {
+        UUID id = UUID.randomUUID();
+        // build a questionDTO
+        QuizQuestionDTO quizQuestionDTO = QuizQuestionDTO.builder()
+                .id(1L)
+                .question("Question 1")
+                .difficulty(Difficulty.EASY)
+                .answers(List.of(QuizAnswerDTO.builder().id(1L).answer("Answer 1").build()))
+                .build();
+        // mock the nextQuestion method
+        when(quizSessionService.nextQuestion(id)).thenReturn(quizQuestionDTO);
+
+        // perform the get request
+        mockMvc.perform(get("/api/quiz-sessions/" + id + "/question"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.question").value("Question 1"))
+                .andExpect(jsonPath("$.answers.size()").value(1));
+    }
+
+    /**
+     * Method to test getting the next question of an unknown quiz session.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testNextQuestion_ShouldReturnNotFound() throws Exception {
+        UUID id = UUID.randomUUID();
+        // mock the nextQuestion method
+        when(quizSessionService.nextQuestion(id)).thenThrow(new RuntimeException("Quiz session not found with id " + id));
+
+        // perform the get request
+        mockMvc.perform(get("/api/quiz-sessions/" + id + "/question"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Method to test answering the current question of a quiz session.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testAnswerQuestion() throws Exception {
+        UUID id = UUID.randomUUID();
+        // build an answer DTO
+        QuizSessionAnswerDTO quizSessionAnswerDTO = QuizSessionAnswerDTO.builder()
+                .answerId(1L)
+                .build();
+        // build a correct question DTO
+        CorrectQuestionDTO correctQuestionDTO = CorrectQuestionDTO.builder()
+                .correct(true)
+                .correctAnswerId(1)
+                .build();
+        // mock the answerQuestion method
+        when(quizSessionService.answerQuestion(id, quizSessionAnswerDTO)).thenReturn(correctQuestionDTO);
+
+        // perform the post request
+        mockMvc.perform(post("/api/quiz-sessions/" + id + "/answer")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(objectMapper.writeValueAsString(quizSessionAnswerDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.correct").value(true))
+                .andExpect(jsonPath("$.correctAnswerId").value("1"));
+    }
+
+    /**
+     * Method to test ending a quiz session.
+     *
+     * @throws Exception if any error occurs
+     */
+    @Test
+    public void testEndSession() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        // perform the delete request
+        mockMvc.perform(delete("/api/quiz-sessions/" + id))
+                .andExpect(status().isNoContent());
+
+        // verify the session has been ended
+        verify(quizSessionService).endSession(id);
+    }
+}
@@ -1,5 +1,6 @@
 package ch.quizinno.brainquest.controllers;
 
+import ch.quizinno.brainquest.caches.TopicCatalogCache;
 import ch.quizinno.brainquest.dtos.TopicDTO;
 import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.services.TopicService;
@@ -9,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -17,8 +19,7 @@ import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Test class for TopicController.
@@ -59,13 +60,40 @@ public class TopicControllerTest {
                 .name("Topic 1")
                 .description("Description 1")
                 .build();
-        // mock the getAllTopics method
-        when(topicService.getAllTopics()).thenReturn(List.of(topicDTO));
+        // mock the getTopicCatalog method
+        when(topicService.getTopicCatalog()).thenReturn(catalog(List.of(topicDTO)));
 
         // perform the get request
         mockMvc.perform(get("/api/topics")
                 )
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalog\""))
+                .andExpect(jsonPath("$[0].name").value("Topic 1"));
+    }
+
+    /**
+     * Method for testing getting all topics which have not changed since the given entity tag.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    public void testGetAllTopics_ShouldReturnNotModified() throws Exception {
+        // mock the getTopicCatalog method
+        when(topicService.getTopicCatalog()).thenReturn(catalog(List.of(TopicDTO.builder().name("Topic 1").build())));
+
+        // perform the get request with the current entity tag
+        mockMvc.perform(get("/api/topics")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"catalog\"")
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"catalog\""))
+                .andExpect(content().string(""));
+
+        // perform the get request with an outdated entity tag
+        mockMvc.perform(get("/api/topics")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"outdated\"")
+                )
+                .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].name").value("Topic 1"));
     }
 
@@ -208,4 +236,15 @@ public class TopicControllerTest {
                 )
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds a topic catalog with the entity tag "catalog".
+     *
+     * @param topics the topics of the catalog
+     * @return the topic catalog
+     * @throws Exception if the topics cannot be serialized
+     */
+    private TopicCatalogCache.Catalog catalog(List<TopicDTO> topics) throws Exception {
+        return new TopicCatalogCache.Catalog(1L, topics, objectMapper.writeValueAsBytes(topics), "\"catalog\"");
+    }
+}
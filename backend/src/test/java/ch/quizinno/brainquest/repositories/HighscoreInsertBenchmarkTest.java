@@ -0,0 +1,164 @@
+package ch.quizinno.brainquest.repositories;
+
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark comparing highscore inserts with one statement per row, like with identity columns, and in JDBC batches.
+ * Run with ./gradlew benchmark
+ */
+// Only run with the benchmark task
+@Tag("benchmark")
+// Create application context for testing with Hibernate statistics to count the prepared statements
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class HighscoreInsertBenchmarkTest {
+    /**
+     * Number of topics of the benchmark.
+     */
+    private static final int TOPICS = 10;
+    /**
+     * Number of highscores inserted per approach.
+     */
+    private static final int HIGHSCORES = 100000;
+    /**
+     * Number of highscores after which the persistence context is flushed and cleared.
+     */
+    private static final int FLUSH_SIZE = 1000;
+
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * HighscoreRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreRepository highscoreRepository;
+    /**
+     * EntityManager to persist the highscores.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private EntityManager entityManager;
+    /**
+     * EntityManagerFactory to access the Hibernate statistics.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    /**
+     * TransactionManager to insert the highscores in one transaction.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * The topics of the highscores.
+     */
+    private final List<Topic> topics = new ArrayList<>();
+
+    /**
+     * Method to setup the topics for the benchmark.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        for (int i = 0; i < TOPICS; i++) {
+            Topic topic = new Topic();
+            topic.setName("Insert Benchmark " + i);
+            topic.setDescription("Description " + i);
+            topics.add(topic);
+        }
+        topicRepository.saveAll(topics);
+    }
+
+    /**
+     * Compares the duration and the prepared statements of both approaches.
+     */
+    @Test
+    public void benchmarkHighscoreInsert() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = highscoreRepository.count();
+
+        // warm up both code paths
+        insert(FLUSH_SIZE, 1);
+        insert(FLUSH_SIZE, null);
+
+        // previous approach: one insert statement per highscore, as identity columns disable the batching
+        statistics.clear();
+        long start = System.nanoTime();
+        insert(HIGHSCORES, 1);
+        long singleNanos = System.nanoTime() - start;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        // IDs from the pooled sequence, the inserts are sent in JDBC batches of the configured size
+        statistics.clear();
+        start = System.nanoTime();
+        insert(HIGHSCORES, null);
+        long batchedNanos = System.nanoTime() - start;
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("single:  %d highscores, %d statements, %.1f ms%n",
+                HIGHSCORES, singleStatements, singleNanos / 1_000_000.0);
+        System.out.printf("batched: %d highscores, %d statements, %.1f ms%n",
+                HIGHSCORES, batchedStatements, batchedNanos / 1_000_000.0);
+
+        // Check the result
+        assertEquals(before + 2L * (HIGHSCORES + FLUSH_SIZE), highscoreRepository.count());
+        assertTrue(singleStatements >= HIGHSCORES);
+        assertTrue(batchedStatements * 10 < singleStatements);
+    }
+
+    /**
+     * Inserts highscores in one transaction, the persistence context is flushed and cleared every 1000 highscores.
+     *
+     * @param count         the number of highscores to insert
+     * @param jdbcBatchSize the JDBC batch size of the session or null for the configured batch size
+     */
+    private void insert(int count, Integer jdbcBatchSize) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(jdbcBatchSize);
+            for (int i = 0; i < count; i++) {
+                Highscore highscore = new Highscore();
+                highscore.setPlayerName("Player " + i);
+                highscore.setScore(i % 1000);
+                highscore.setDifficulty(Difficulty.values()[i % Difficulty.values().length]);
+                highscore.setTopic(topics.get(i % TOPICS));
+                session.persist(highscore);
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package ch.quizinno.brainquest.repositories;
+
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark comparing the highscore response with the topic entity and with the summary projection.
+ * Run with ./gradlew benchmark
+ */
+// Only run with the benchmark task
+@Tag("benchmark")
+// Create application context for testing with Hibernate statistics to count the loaded entities
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class HighscoreRepositoryBenchmarkTest {
+    /**
+     * Number of topics of the benchmark.
+     */
+    private static final int TOPICS = 10;
+    /**
+     * Number of highscores of the benchmark.
+     */
+    private static final int HIGHSCORES = 10000;
+
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * HighscoreRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreRepository highscoreRepository;
+    /**
+     * ObjectMapper to serialize the responses.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private ObjectMapper objectMapper;
+    /**
+     * EntityManagerFactory to access the Hibernate statistics.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Method to setup data for the benchmark.
+     * Every topic has a description like the topics of the quiz.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        List<Topic> topics = new ArrayList<>();
+        for (int i = 0; i < TOPICS; i++) {
+            Topic topic = new Topic();
+            topic.setName("Benchmark " + i);
+            topic.setDescription("Questions about benchmark topic " + i + ", from the basics to the details only experts know.");
+            topics.add(topic);
+        }
+        topicRepository.saveAll(topics);
+
+        List<Highscore> highscores = new ArrayList<>();
+        for (int i = 0; i < HIGHSCORES; i++) {
+            Highscore highscore = new Highscore();
+            highscore.setPlayerName("Player " + i);
+            highscore.setScore(i % 1000);
+            highscore.setDifficulty(Difficulty.values()[i % Difficulty.values().length]);
+            highscore.setTopic(topics.get(i % TOPICS));
+            highscores.add(highscore);
+        }
+        highscoreRepository.saveAll(highscores);
+    }
+
+    /**
+     * Compares the response size, the duration and the loaded entities of both approaches.
+     *
+     * @throws JsonProcessingException if a response cannot be serialized
+     */
+    @Test
+    public void benchmarkHighscoreResponse() throws JsonProcessingException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Sort sort = Sort.by(Sort.Direction.DESC, "score").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        // warm up both code paths
+        objectMapper.writeValueAsBytes(highscoreRepository.findAll(sort));
+        objectMapper.writeValueAsBytes(highscoreRepository.findAllSummaries(PageRequest.of(0, HIGHSCORES, sort)));
+
+        // previous approach: highscore entities with the topic entity
+        statistics.clear();
+        long start = System.nanoTime();
+        byte[] entityResponse = objectMapper.writeValueAsBytes(highscoreRepository.findAll(sort));
+        long entityNanos = System.nanoTime() - start;
+        long entityLoads = statistics.getEntityLoadCount();
+
+        // summary projection with the topic ID and name
+        statistics.clear();
+        start = System.nanoTime();
+        List<HighscoreSummaryDTO> summaries = highscoreRepository.findAllSummaries(PageRequest.of(0, HIGHSCORES, sort));
+        byte[] summaryResponse = objectMapper.writeValueAsBytes(summaries);
+        long summaryNanos = System.nanoTime() - start;
+        long summaryLoads = statistics.getEntityLoadCount();
+
+        System.out.printf("entities:   %d highscores, %d bytes, %d entities loaded, %.1f ms%n",
+                HIGHSCORES, entityResponse.length, entityLoads, entityNanos / 1_000_000.0);
+        System.out.printf("projection: %d highscores, %d bytes, %d entities loaded, %.1f ms%n",
+                summaries.size(), summaryResponse.length, summaryLoads, summaryNanos / 1_000_000.0);
+
+        // Check the result
+        assertEquals(HIGHSCORES, summaries.size());
+        assertEquals(0, summaryLoads);
+        assertTrue(entityLoads >= HIGHSCORES);
+        assertTrue(summaryResponse.length < entityResponse.length);
+        assertFalse(new String(summaryResponse, StandardCharsets.UTF_8).contains("description"));
+    }
+}
@@ -0,0 +1,192 @@
+package ch.quizinno.brainquest.repositories;
+
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.services.QuestionPlayability;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark comparing the per-question answer lookup with the single playable question query.
+ * Run with ./gradlew benchmark
+ */
+// Only run with the benchmark task
+@Tag("benchmark")
+// Create application context for testing with Hibernate statistics to count the statements
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class QuestionRepositoryBenchmarkTest {
+    /**
+     * Number of questions of the benchmark topic.
+     */
+    private static final int QUESTIONS = 2000;
+
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * QuestionRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionRepository questionRepository;
+    /**
+     * AnswerRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerRepository answerRepository;
+    /**
+     * QuestionPlayability to compute the playable state of the test data.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionPlayability questionPlayability;
+    /**
+     * EntityManagerFactory to access the Hibernate statistics.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * The topic used for the benchmark.
+     */
+    private Topic topic;
+
+    /**
+     * Method to setup data for the benchmark.
+     * Every second question is playable.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        topic = new Topic();
+        topic.setName("Benchmark");
+        topic.setDescription("Benchmark topic");
+        topicRepository.save(topic);
+
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            Question question = new Question();
+            question.setQuestion("Question " + i);
+            question.setDifficulty(Difficulty.values()[i % Difficulty.values().length]);
+            question.setTopic(topic);
+            questions.add(question);
+        }
+        questionRepository.saveAll(questions);
+
+        List<Answer> answers = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            // odd questions only get 3 answers and are not playable
+            int answerCount = i % 2 == 0 ? 4 : 3;
+            for (int j = 0; j < answerCount; j++) {
+                Answer answer = new Answer();
+                answer.setAnswer("Answer " + j);
+                answer.setCorrect(j == 0);
+                answer.setQuestion(questions.get(i));
+                answers.add(answer);
+            }
+        }
+        answerRepository.saveAll(answers);
+
+        // the data is written by the repositories, the playable state is computed once
+        questionPlayability.rebuild();
+    }
+
+    /**
+     * Compares the number of statements and the duration of both approaches.
+     */
+    @Test
+    public void benchmarkPlayableQuestions() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // warm up both code paths
+        perQuestionLookup();
+        questionRepository.findPlayableByTopicId(topic.getId());
+
+        // previous approach: load all questions and their answers one by one
+        statistics.clear();
+        long start = System.nanoTime();
+        List<Question> perQuestion = perQuestionLookup();
+        long perQuestionNanos = System.nanoTime() - start;
+        long perQuestionStatements = statistics.getPrepareStatementCount();
+
+        // single query on the maintained playable flag
+        statistics.clear();
+        start = System.nanoTime();
+        List<Question> singleQuery = questionRepository.findPlayableByTopicId(topic.getId());
+        long singleQueryNanos = System.nanoTime() - start;
+        long singleQueryStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("per-question lookup: %d questions, %d statements, %.1f ms%n",
+                perQuestion.size(), perQuestionStatements, perQuestionNanos / 1_000_000.0);
+        System.out.printf("single query:        %d questions, %d statements, %.1f ms%n",
+                singleQuery.size(), singleQueryStatements, singleQueryNanos / 1_000_000.0);
+
+        // Check the result
+        assertEquals(QUESTIONS / 2, singleQuery.size());
+        assertEquals(perQuestion.size(), singleQuery.size());
+        assertEquals(1, singleQueryStatements);
+        assertTrue(perQuestionStatements > QUESTIONS);
+    }
+
+    /**
+     * Checks the answer counts returned with the questions.
+     */
+    @Test
+    public void benchmarkAnswerCounts() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // the questions with their number of answers in one grouped query, each row is the question and its count
+        List<Object[]> questions;
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            questions = entityManager.createQuery("SELECT q, COUNT(a.id) FROM Question q LEFT JOIN Answer a ON a.question = q " +
+                            "WHERE q.topic.id = :topicId GROUP BY q", Object[].class)
+                    .setParameter("topicId", topic.getId())
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+
+        // Check the result
+        System.out.printf("answer counts: %d questions, %d statements%n", questions.size(), statistics.getPrepareStatementCount());
+        assertEquals(QUESTIONS, questions.size());
+        assertEquals(QUESTIONS / 2, questions.stream().filter(question -> ((Long) question[1]) == 4).count());
+    }
+
+    /**
+     * The previous approach used by QuestionService and TopicService.
+     *
+     * @return the playable questions
+     */
+    private List<Question> perQuestionLookup() {
+        List<Question> questions = questionRepository.findByTopicId(topic.getId());
+        questions.removeIf(question -> answerRepository.findByQuestion(question).size() < 4);
+        return questions;
+    }
+}
@@ -1,11 +1,13 @@
 package ch.quizinno.brainquest.services;
 
+import ch.quizinno.brainquest.caches.PlayableQuestionIndex;
 import ch.quizinno.brainquest.entities.Answer;
 import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.enums.Difficulty;
 import ch.quizinno.brainquest.repositories.AnswerRepository;
 import ch.quizinno.brainquest.repositories.QuestionRepository;
+import ch.quizinno.brainquest.repositories.TopicDifficultyRepository;
 import ch.quizinno.brainquest.repositories.TopicRepository;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -13,9 +15,15 @@ import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,6 +63,18 @@ public class AnswerServiceTest {
     // Injected required dependency into the bean.
     @Autowired
     private TopicRepository topicRepository;
+    /**
+     * TopicDifficultyRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicDifficultyRepository topicDifficultyRepository;
+    /**
+     * PlayableQuestionIndex for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private PlayableQuestionIndex playableQuestionIndex;
 
     /**
      * Method to setup data for testing.
@@ -179,6 +199,87 @@ public class AnswerServiceTest {
         assertFalse(answer.isCorrect());
     }
 
+    /**
+     * Test for making a question playable with its fourth answer.
+     */
+    @Test
+    public void testCreateAnswer_ShouldMakeQuestionPlayable() {
+        // Call the method to be tested
+        Question question = completeQuestion2();
+
+        // Check the result, 4 answers with one correct answer
+        assertTrue(questionRepository.findById(2L).get().isPlayable());
+        assertEquals(1, topicDifficultyRepository.findByTopicIdAndDifficulty(question.getTopic().getId(), Difficulty.EASY).get().getPlayableQuestions());
+        assertEquals(List.of(2L), questionRepository.findPlayableIdsByTopicIdAndDifficulty(question.getTopic().getId(), Difficulty.EASY));
+    }
+
+    /**
+     * Test for not indexing a question which has become playable in a transaction that is not committed.
+     */
+    @Test
+    public void testCreateAnswer_ShouldIndexAfterCommit() {
+        Long topicId = questionRepository.findById(2L).get().getTopic().getId();
+        long[] playableIds = playableQuestionIndex.getPlayableQuestionIds(topicId, Difficulty.EASY);
+
+        // Call the method to be tested
+        completeQuestion2();
+
+        // Check the result, the test transaction is rolled back and never commits the question
+        assertTrue(questionRepository.findById(2L).get().isPlayable());
+        assertArrayEquals(playableIds, playableQuestionIndex.getPlayableQuestionIds(topicId, Difficulty.EASY));
+    }
+
+    /**
+     * Test for making questions of a topic and difficulty playable concurrently, the difficulty of the topic is inserted once.
+     *
+     * @throws Exception if a write fails
+     */
+    @Test
+    // Spring annotation to run the test without the test transaction, so the concurrent writes are committed.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testCreateAnswer_Concurrently() throws Exception {
+        Topic topic = new Topic();
+        topic.setName("Concurrent Topic");
+        topic.setDescription("Description 2");
+        topicRepository.save(topic);
+
+        // questions with one correct and two wrong answers
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Question question = new Question();
+            question.setQuestion("Concurrent question " + i);
+            question.setDifficulty(Difficulty.HARD);
+            question.setTopic(topic);
+            questionRepository.save(question);
+            for (int j = 0; j < 3; j++) {
+                answerRepository.save(Answer.builder().answer("Answer " + j).correct(j == 0).question(question).build());
+            }
+            questions.add(question);
+        }
+
+        // Call the method to be tested, the fourth answers are written at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(questions.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Answer>> answers = new ArrayList<>();
+            for (Question question : questions) {
+                answers.add(executor.submit(() -> {
+                    start.await();
+                    return answerService.createAnswer(Answer.builder().answer("Answer 3").correct(false).question(question).build());
+                }));
+            }
+            start.countDown();
+            for (Future<Answer> answer : answers) {
+                assertNotNull(answer.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Check the result
+        assertEquals(4, topicDifficultyRepository.findByTopicIdAndDifficulty(topic.getId(), Difficulty.HARD).get().getPlayableQuestions());
+    }
+
     /**
      * Test for creating a new answer.
      */
@@ -215,6 +316,21 @@ public class AnswerServiceTest {
         assertFalse(answer.isCorrect());
     }
 
+    /**
+     * Test for making a question not playable by removing its correct answer.
+     */
+    @Test
+    public void testUpdateAnswer_ShouldMakeQuestionNotPlayable() {
+        Question question = completeQuestion2();
+
+        // Call the method to be tested
+        answerService.updateAnswer(5L, Answer.builder().answer("Answer 5").correct(false).build());
+
+        // Check the result, 4 answers without a correct answer
+        assertFalse(questionRepository.findById(2L).get().isPlayable());
+        assertTrue(topicDifficultyRepository.findByTopicIdAndDifficulty(question.getTopic().getId(), Difficulty.EASY).isEmpty());
+    }
+
     /**
      * Test for updating a answer.
      */
@@ -246,6 +362,22 @@ public class AnswerServiceTest {
         assertEquals(size - 1, answerRepository.findAll().size());
     }
 
+    /**
+     * Test for making a question not playable by deleting an answer.
+     */
+    @Test
+    public void testDeleteAnswer_ShouldMakeQuestionNotPlayable() {
+        Question question = completeQuestion2();
+
+        // Call the method to be tested
+        answerService.deleteAnswer(5L);
+
+        // Check the result
+        assertFalse(questionRepository.findById(2L).get().isPlayable());
+        assertTrue(topicDifficultyRepository.findByTopicIdAndDifficulty(question.getTopic().getId(), Difficulty.EASY).isEmpty());
+        assertEquals(List.of(), questionRepository.findPlayableIdsByTopicIdAndDifficulty(question.getTopic().getId(), Difficulty.EASY));
+    }
+
     /**
      * Test for deleting a topic.
      */
@@ -255,4 +387,18 @@ public class AnswerServiceTest {
         // Check the result
         assertThrows(RuntimeException.class, () -> answerService.deleteAnswer(100L));
     }
+
+    /**
+     * Adds 3 wrong answers to question 2, which has one correct answer.
+     *
+     * @return question 2
+     */
+    private Question completeQuestion2() {
+        Question question = questionRepository.findById(2L).get();
+        for (int i = 0; i < 3; i++) {
+            assertFalse(question.isPlayable());
+            answerService.createAnswer(Answer.builder().answer("Wrong answer " + i).correct(false).question(question).build());
+        }
+        return question;
+    }
 }
@@ -0,0 +1,162 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.ArchivedHighscoreDTO;
+import ch.quizinno.brainquest.enums.Difficulty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HighscoreArchive.
+ */
+// Create application context for testing with an archive directory of the test
+@SpringBootTest(properties = {"HIGHSCORE_COMPACTION_CRON=-", "HIGHSCORE_ARCHIVE_DIR=" + HighscoreArchiveTest.ARCHIVE_DIR})
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class HighscoreArchiveTest {
+    /**
+     * Directory of the archive of the test.
+     */
+    static final String ARCHIVE_DIR = "build/test-archive/archive";
+
+    /**
+     * HighscoreArchive for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreArchive highscoreArchive;
+
+    /**
+     * Method to setup an archive with highscores of two months and undated highscores.
+     *
+     * @throws IOException if the archive cannot be written
+     */
+    // Run before each test
+    @BeforeEach
+    public void setup() throws IOException {
+        FileSystemUtils.deleteRecursively(Path.of(ARCHIVE_DIR));
+
+        highscoreArchive.append(List.of(
+                highscore(1L, 100, Difficulty.EASY, Instant.parse("2025-01-15T10:00:00Z")),
+                highscore(2L, 200, Difficulty.HARD, Instant.parse("2025-01-31T23:59:59Z")),
+                highscore(3L, 300, Difficulty.EASY, Instant.parse("2025-02-01T00:00:00Z")),
+                highscore(4L, 400, Difficulty.EASY, null)));
+        // the second append adds a member to the segment of January
+        highscoreArchive.append(List.of(highscore(5L, 500, Difficulty.EASY, Instant.parse("2025-01-20T10:00:00Z"))));
+    }
+
+    /**
+     * Test for writing one segment per month.
+     */
+    @Test
+    public void testAppend() {
+        assertTrue(Files.exists(Path.of(ARCHIVE_DIR, "highscores-2025-01.ndjson.gz")));
+        assertTrue(Files.exists(Path.of(ARCHIVE_DIR, "highscores-2025-02.ndjson.gz")));
+        assertTrue(Files.exists(Path.of(ARCHIVE_DIR, "highscores-undated.ndjson.gz")));
+    }
+
+    /**
+     * Test for reading the archived highscores of a range of months.
+     *
+     * @throws IOException if the archive cannot be read
+     */
+    @Test
+    public void testScan() throws IOException {
+        // Call the method to be tested and check the result
+        assertEquals(List.of(4L, 1L, 2L, 5L, 3L), scan(null, null, null, null));
+        assertEquals(List.of(1L, 2L, 5L), scan(YearMonth.of(2025, 1), YearMonth.of(2025, 1), null, null));
+        assertEquals(List.of(1L, 2L, 5L, 3L), scan(YearMonth.of(2025, 1), null, null, null));
+        assertEquals(List.of(4L, 1L, 2L, 5L), scan(null, YearMonth.of(2025, 1), null, null));
+        assertEquals(List.of(1L, 5L), scan(YearMonth.of(2025, 1), YearMonth.of(2025, 1), 1L, Difficulty.EASY));
+        assertEquals(List.of(), scan(YearMonth.of(2025, 3), null, null, null));
+    }
+
+    /**
+     * Test for reading highscores archived again only once.
+     *
+     * @throws IOException if the archive cannot be read or written
+     */
+    @Test
+    public void testScan_ShouldSkipDuplicates() throws IOException {
+        highscoreArchive.append(List.of(highscore(1L, 100, Difficulty.EASY, Instant.parse("2025-01-15T10:00:00Z"))));
+
+        // Call the method to be tested and check the result
+        assertEquals(List.of(1L, 2L, 5L), scan(YearMonth.of(2025, 1), YearMonth.of(2025, 1), null, null));
+    }
+
+    /**
+     * Test for reading a segment ending with an incomplete member.
+     *
+     * @throws IOException if the archive cannot be read or written
+     */
+    @Test
+    public void testScan_ShouldReadSegmentWithIncompleteMember() throws IOException {
+        ByteArrayOutputStream member = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(member)) {
+            gzip.write("{\"id\":6,\"playerName\":\"Player 6\",\"score\":600}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] bytes = member.toByteArray();
+        Files.write(Path.of(ARCHIVE_DIR, "highscores-2025-02.ndjson.gz"), Arrays.copyOf(bytes, bytes.length / 2), StandardOpenOption.APPEND);
+
+        // Call the method to be tested and check the result
+        assertEquals(List.of(3L), scan(YearMonth.of(2025, 2), YearMonth.of(2025, 2), null, null));
+    }
+
+    /**
+     * Reads the IDs of the archived highscores.
+     *
+     * @param from       the first month or null
+     * @param to         the last month or null
+     * @param topicId    the topic ID to filter by or null
+     * @param difficulty the difficulty to filter by or null
+     * @return the IDs in the order of the archive
+     * @throws IOException if the archive cannot be read
+     */
+    private List<Long> scan(YearMonth from, YearMonth to, Long topicId, Difficulty difficulty) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        highscoreArchive.scan(from, to, topicId, difficulty, highscore -> ids.add(highscore.getId()));
+        return ids;
+    }
+
+    /**
+     * Creates an archived highscore of topic 1.
+     *
+     * @param id         the ID of the highscore
+     * @param score      the score
+     * @param difficulty the difficulty
+     * @param createdAt  the creation time or null
+     * @return the archived highscore
+     */
+    private ArchivedHighscoreDTO highscore(Long id, int score, Difficulty difficulty, Instant createdAt) {
+        return ArchivedHighscoreDTO.builder()
+                .id(id)
+                .playerName("Player " + id)
+                .score(score)
+                .difficulty(difficulty)
+                .topicId(1L)
+                .topicName("Topic 1")
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.ArchivedHighscoreDTO;
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.repositories.HighscoreRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HighscoreCompaction.
+ */
+// Create application context for testing, 2 highscores per player and the top 3 are kept, archived in batches of 2
+@SpringBootTest(properties = {"HIGHSCORE_RETENTION_PER_PLAYER=2", "HIGHSCORE_RETENTION_TOP=3", "HIGHSCORE_RETENTION_MIN_AGE_DAYS=1",
+        "HIGHSCORE_COMPACTION_BATCH_SIZE=2", "HIGHSCORE_COMPACTION_CRON=-", "HIGHSCORE_ARCHIVE_DIR=" + HighscoreCompactionTest.ARCHIVE_DIR})
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class HighscoreCompactionTest {
+    /**
+     * Directory of the archive of the test.
+     */
+    static final String ARCHIVE_DIR = "build/test-archive/compaction";
+
+    /**
+     * HighscoreCompaction for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreCompaction highscoreCompaction;
+    /**
+     * HighscoreLeaderboard for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreLeaderboard highscoreLeaderboard;
+    /**
+     * HighscoreArchive for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreArchive highscoreArchive;
+    /**
+     * HighscoreRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreRepository highscoreRepository;
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * MeterRegistry to read the metrics.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The topic of the highscores.
+     */
+    private Topic topic;
+
+    /**
+     * Method to setup old highscores of two players and two new highscores and an empty archive.
+     *
+     * @throws IOException if the archive of a previous run cannot be deleted
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() throws IOException {
+        FileSystemUtils.deleteRecursively(Path.of(ARCHIVE_DIR));
+
+        topic = new Topic();
+        topic.setName("Compaction Topic");
+        topic.setDescription("Description 1");
+        topicRepository.save(topic);
+
+        Instant old = Instant.now().minus(10, ChronoUnit.DAYS);
+        List<Highscore> highscores = new ArrayList<>();
+        for (int score = 10; score <= 60; score += 10) {
+            highscores.add(highscore("Player 1", score, old));
+        }
+        for (int score = 100; score <= 500; score += 100) {
+            highscores.add(highscore("Player 2", score, old));
+        }
+        // too new to be removed
+        highscores.add(highscore("Player 1", 1, Instant.now()));
+        highscores.add(highscore("Player 1", 2, Instant.now()));
+        highscoreRepository.saveAll(highscores);
+    }
+
+    /**
+     * Test for moving the highscores which are not kept to the archive.
+     *
+     * @throws IOException if the archive cannot be read
+     */
+    @Test
+    public void testCompact() throws IOException {
+        assertEquals(13, highscoreLeaderboard.countHighscores(topic.getId(), Difficulty.EASY).orElseThrow());
+
+        // Call the method to be tested
+        long removed = highscoreCompaction.compact();
+
+        // Check the result, the best 2 of player 1, the top 3 and the new highscores are kept
+        List<Integer> scores = highscoreRepository.findByTopicIdAndDifficulty(topic.getId(), Difficulty.EASY).stream()
+                .map(Highscore::getScore).sorted().toList();
+        assertEquals(List.of(1, 2, 50, 60, 300, 400, 500), scores);
+        assertEquals(6, removed);
+        assertEquals(7, highscoreLeaderboard.countHighscores(topic.getId(), Difficulty.EASY).orElseThrow());
+        assertEquals(6, meterRegistry.get("highscore.compaction.removed").counter().count());
+        assertEquals(1, meterRegistry.get("highscore.compaction.progress").gauge().value());
+        // the removed highscores are in the archive
+        List<ArchivedHighscoreDTO> archived = new ArrayList<>();
+        highscoreArchive.scan(null, null, topic.getId(), Difficulty.EASY, archived::add);
+        assertEquals(List.of(10, 20, 30, 40, 100, 200), archived.stream().map(ArchivedHighscoreDTO::getScore).sorted().toList());
+        assertEquals("Compaction Topic", archived.getFirst().getTopicName());
+        assertNotNull(archived.getFirst().getCreatedAt());
+        assertEquals(4, archived.stream().filter(highscore -> highscore.getPlayerName().equals("Player 1")).count());
+        // nothing left to remove
+        assertEquals(0, highscoreCompaction.compact());
+    }
+
+    /**
+     * Creates an EASY highscore of the topic.
+     *
+     * @param playerName the name of the player
+     * @param score      the score
+     * @param createdAt  the creation time
+     * @return the highscore
+     */
+    private Highscore highscore(String playerName, int score, Instant createdAt) {
+        return Highscore.builder().playerName(playerName).score(score).difficulty(Difficulty.EASY).topic(topic).createdAt(createdAt).build();
+    }
+}
@@ -0,0 +1,297 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.LeaderboardWindow;
+import ch.quizinno.brainquest.enums.SortBy;
+import ch.quizinno.brainquest.enums.SortDir;
+import ch.quizinno.brainquest.models.LeaderboardPeriod;
+import ch.quizinno.brainquest.models.ScoreRankTree;
+import ch.quizinno.brainquest.repositories.HighscoreRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HighscoreLeaderboard.
+ */
+// Create application context for testing, the leaderboards keep the top 3 highscores
+@SpringBootTest(properties = {"LEADERBOARD_SIZE=3", "HIGHSCORE_FLUSH_INTERVAL=60000"})
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class HighscoreLeaderboardTest {
+    /**
+     * HighscoreLeaderboard for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreLeaderboard highscoreLeaderboard;
+    /**
+     * HighscoreService for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreService highscoreService;
+    /**
+     * HighscoreWriteBehind for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreWriteBehind highscoreWriteBehind;
+    /**
+     * HighscoreRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreRepository highscoreRepository;
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+
+    /**
+     * The topic used by the current test.
+     */
+    private Topic topic;
+    /**
+     * The highscores of the topic, scores 100 to 500.
+     */
+    private List<Highscore> highscores;
+
+    /**
+     * Method to setup a new topic with 5 highscores for each test.
+     */
+    // Run before each test in the class
+    @BeforeEach
+    public void setup() {
+        topic = new Topic();
+        topic.setName("Leaderboard Topic " + System.nanoTime());
+        topic.setDescription("Description 1");
+        topicRepository.save(topic);
+
+        highscores = highscoreRepository.saveAll(List.of(
+                highscore("Player 1", 100),
+                highscore("Player 2", 200),
+                highscore("Player 3", 300),
+                highscore("Player 4", 400),
+                highscore("Player 5", 500)));
+    }
+
+    /**
+     * Test for reading the best highscores.
+     */
+    @Test
+    public void testGetTopHighscores() {
+        // Call the method to be tested
+        List<HighscoreSummaryDTO> topHighscores = highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 2).orElseThrow();
+
+        // Check the result
+        assertEquals(2, topHighscores.size());
+        assertEquals("Player 5", topHighscores.get(0).getPlayerName());
+        assertEquals("Player 4", topHighscores.get(1).getPlayerName());
+        assertEquals(topic.getName(), topHighscores.getFirst().getTopicName());
+        // more than the top 3 must be read from the database
+        assertTrue(highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 4).isEmpty());
+        assertTrue(highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, null).isEmpty());
+        assertEquals(List.of(), highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.HARD, null).orElseThrow());
+        assertTrue(highscoreLeaderboard.getTopHighscores(-1L, Difficulty.EASY, 2).isEmpty());
+    }
+
+    /**
+     * Test for the leaderboard served by the HighscoreService.
+     */
+    @Test
+    public void testCreateHighscore() {
+        highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 3);
+
+        // Call the method to be tested
+        highscoreService.createHighscore(highscore("Player 6", 450));
+        // written without the service, so it is not in the leaderboard
+        highscoreRepository.save(highscore("Player 7", 1000));
+
+        // Check the result
+        List<HighscoreSummaryDTO> topHighscores = highscoreService.getHighscores(topic.getId(), Difficulty.EASY, SortBy.SCORE, SortDir.DESC, 3);
+        assertEquals(List.of(500, 450, 400), topHighscores.stream().map(HighscoreSummaryDTO::getScore).toList());
+    }
+
+    /**
+     * Test for updating a highscore.
+     */
+    @Test
+    public void testUpdateHighscore() {
+        highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 3);
+
+        // Call the method to be tested
+        highscoreService.updateHighscore(highscores.get(0).getId(), Highscore.builder().playerName("Player 1 updated").score(600).build());
+
+        // Check the result
+        List<HighscoreSummaryDTO> topHighscores = highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 3).orElseThrow();
+        assertEquals(List.of("Player 1 updated", "Player 5", "Player 4"), topHighscores.stream().map(HighscoreSummaryDTO::getPlayerName).toList());
+    }
+
+    /**
+     * Test for deleting a highscore, the next best highscore is reloaded from the database.
+     */
+    @Test
+    public void testDeleteHighscore() {
+        highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 3);
+
+        // Call the method to be tested
+        highscoreService.deleteHighscore(highscores.get(4).getId());
+
+        // Check the result
+        List<HighscoreSummaryDTO> topHighscores = highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 3).orElseThrow();
+        assertEquals(List.of(400, 300, 200), topHighscores.stream().map(HighscoreSummaryDTO::getScore).toList());
+        assertEquals(4, highscoreLeaderboard.countHighscores(topic.getId(), Difficulty.EASY).orElseThrow());
+    }
+
+    /**
+     * Test for counting the higher scores while highscores are written.
+     */
+    @Test
+    public void testCountHigherScores() {
+        // Call the method to be tested
+        assertEquals(2, highscoreLeaderboard.countHigherScores(topic.getId(), Difficulty.EASY, 300).orElseThrow());
+
+        highscoreService.createHighscore(highscore("Player 6", 350));
+        highscoreService.updateHighscore(highscores.get(0).getId(), Highscore.builder().score(5000).build());
+        highscoreService.deleteHighscore(highscores.get(3).getId());
+
+        // Check the result, 5000, 500 and 350 are higher
+        assertEquals(3, highscoreLeaderboard.countHigherScores(topic.getId(), Difficulty.EASY, 300).orElseThrow());
+        assertEquals(0, highscoreLeaderboard.countHigherScores(topic.getId(), Difficulty.EASY, 5000).orElseThrow());
+        assertEquals(5, highscoreLeaderboard.countHighscores(topic.getId(), Difficulty.EASY).orElseThrow());
+        assertEquals(highscoreRepository.countByTopicIdAndDifficultyAndScoreGreaterThan(topic.getId(), Difficulty.EASY, 300),
+                highscoreLeaderboard.countHigherScores(topic.getId(), Difficulty.EASY, 300).orElseThrow());
+    }
+
+    /**
+     * Test for highscores written by the write-behind pipeline.
+     */
+    @Test
+    public void testWriteBehind() {
+        highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 3);
+
+        // Call the methods to be tested
+        highscoreWriteBehind.submit(highscore("Player 6", 700));
+        highscoreWriteBehind.flush();
+
+        // Check the result
+        assertEquals("Player 6", highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 1).orElseThrow().getFirst().getPlayerName());
+    }
+
+    /**
+     * Test for the score of a finished game, it is limited to the largest bucket of the rank tree.
+     */
+    @Test
+    public void testSubmitHighscore_ShouldLimitScore() {
+        // Call the method to be tested
+        highscoreService.submitHighscore(highscore("Player 6", Integer.MAX_VALUE));
+        highscoreService.submitHighscore(highscore("Player 7", -1));
+        highscoreWriteBehind.flush();
+
+        // Check the result
+        Highscore submitted = highscoreRepository.findByTopicIdAndDifficulty(topic.getId(), Difficulty.EASY).stream()
+                .filter(highscore -> highscore.getPlayerName().equals("Player 6"))
+                .findFirst().orElseThrow();
+        assertEquals(ScoreRankTree.MAX_BUCKETS - 1, submitted.getScore());
+        assertEquals(0, highscoreRepository.findByTopicIdAndDifficulty(topic.getId(), Difficulty.EASY).stream()
+                .filter(highscore -> highscore.getPlayerName().equals("Player 7"))
+                .findFirst().orElseThrow().getScore());
+        assertEquals(6, highscoreLeaderboard.countHigherScores(topic.getId(), Difficulty.EASY, 0).orElseThrow());
+    }
+
+    /**
+     * Test for loading a leaderboard while a highscore of another topic is written.
+     */
+    @Test
+    public void testWrite_ShouldNotBlockOtherLeaderboards() {
+        Topic otherTopic = new Topic();
+        otherTopic.setName("Leaderboard Topic " + System.nanoTime());
+        otherTopic.setDescription("Description 2");
+        topicRepository.save(otherTopic);
+        Highscore otherHighscore = Highscore.builder().playerName("Player 6").score(600).difficulty(Difficulty.EASY).topic(otherTopic).build();
+
+        // Call the method to be tested
+        List<HighscoreSummaryDTO> topHighscores = highscoreLeaderboard.write(List.of(otherHighscore),
+                () -> highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, 3).orElseThrow());
+
+        // Check the result, the leaderboard of the topic is loaded during the write of the other topic
+        assertEquals(List.of(500, 400, 300), topHighscores.stream().map(HighscoreSummaryDTO::getScore).toList());
+        // the leaderboard of the written topic is read from the database until the write is finished
+        assertTrue(highscoreLeaderboard.write(List.of(otherHighscore),
+                () -> highscoreLeaderboard.getTopHighscores(otherTopic.getId(), Difficulty.EASY, 3)).isEmpty());
+        assertEquals(List.of(), highscoreLeaderboard.getTopHighscores(otherTopic.getId(), Difficulty.EASY, 3).orElseThrow());
+    }
+
+    /**
+     * Test for the daily and weekly leaderboards, the recent days and weeks are kept in memory.
+     */
+    @Test
+    public void testGetPeriodHighscores() {
+        Instant now = Instant.now();
+        Highscore yesterday = highscore("Player 6", 900);
+        yesterday.setCreatedAt(now.minus(1, ChronoUnit.DAYS));
+        Highscore lastMonth = highscore("Player 7", 800);
+        lastMonth.setCreatedAt(now.minus(30, ChronoUnit.DAYS));
+        highscoreRepository.saveAll(List.of(yesterday, lastMonth));
+
+        LeaderboardPeriod today = highscoreLeaderboard.getPeriod(LeaderboardWindow.DAILY, null);
+        LeaderboardPeriod previousDay = highscoreLeaderboard.getPeriod(LeaderboardWindow.DAILY, LocalDate.ofInstant(yesterday.getCreatedAt(), ZoneOffset.UTC));
+        LeaderboardPeriod week = highscoreLeaderboard.getPeriod(LeaderboardWindow.WEEKLY, null);
+        LeaderboardPeriod oldDay = highscoreLeaderboard.getPeriod(LeaderboardWindow.DAILY, LocalDate.ofInstant(lastMonth.getCreatedAt(), ZoneOffset.UTC));
+
+        // Call the method to be tested
+        List<HighscoreSummaryDTO> todayHighscores = highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, today, 3).orElseThrow();
+        List<HighscoreSummaryDTO> previousDayHighscores = highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, previousDay, 3).orElseThrow();
+        List<Integer> weekScores = highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, week, 3).orElseThrow()
+                .stream().map(HighscoreSummaryDTO::getScore).toList();
+
+        // Check the result
+        assertEquals(List.of(500, 400, 300), todayHighscores.stream().map(HighscoreSummaryDTO::getScore).toList());
+        assertEquals(List.of(900), previousDayHighscores.stream().map(HighscoreSummaryDTO::getScore).toList());
+        assertTrue(weekScores.contains(500));
+        assertFalse(weekScores.contains(800));
+        // the day of last month is only in the database
+        assertTrue(highscoreLeaderboard.getTopHighscores(topic.getId(), Difficulty.EASY, oldDay, 3).isEmpty());
+        assertEquals(List.of(800), highscoreService.getLeaderboard(topic.getId(), Difficulty.EASY, LeaderboardWindow.DAILY, LocalDate.ofInstant(lastMonth.getCreatedAt(), ZoneOffset.UTC), 3)
+                .stream().map(HighscoreSummaryDTO::getScore).toList());
+
+        highscoreService.createHighscore(highscore("Player 8", 450));
+        // written without the service, so it is not in the leaderboard
+        highscoreRepository.save(highscore("Player 9", 1000));
+
+        // Check the result, the leaderboard of today is updated in memory
+        assertEquals(List.of(500, 450, 400), highscoreService.getLeaderboard(topic.getId(), Difficulty.EASY, LeaderboardWindow.DAILY, null, 3)
+                .stream().map(HighscoreSummaryDTO::getScore).toList());
+    }
+
+    /**
+     * Creates an EASY highscore of the current topic.
+     *
+     * @param playerName the name of the player
+     * @param score      the score
+     * @return the highscore
+     */
+    private Highscore highscore(String playerName, int score) {
+        return Highscore.builder().playerName(playerName).score(score).difficulty(Difficulty.EASY).topic(topic).build();
+    }
+}
@@ -0,0 +1,226 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Test class for HighscoreLiveUpdates.
+ */
+// Create application context for testing, the top 3 highscores are pushed and the pushes are triggered by the test
+@SpringBootTest(properties = {"HIGHSCORE_LIVE_SIZE=3", "HIGHSCORE_LIVE_INTERVAL=600000", "HIGHSCORE_LIVE_HEARTBEAT=600000", "HIGHSCORE_COMPACTION_CRON=-"})
+// Ignore the security configuration for the test.
+@AutoConfigureMockMvc(addFilters = false)
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class HighscoreLiveUpdatesTest {
+    /**
+     * HighscoreLiveUpdates for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreLiveUpdates highscoreLiveUpdates;
+    /**
+     * HighscoreService for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreService highscoreService;
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * MockMvc to subscribe like a client.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private MockMvc mockMvc;
+    /**
+     * MeterRegistry to read the metrics.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The topic of the highscores.
+     */
+    private Topic topic;
+
+    /**
+     * Method to setup a topic with 5 highscores, scores 100 to 500.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        topic = new Topic();
+        topic.setName("Live Topic");
+        topic.setDescription("Description 1");
+        topicRepository.save(topic);
+
+        for (int score = 100; score <= 500; score += 100) {
+            createHighscore(score);
+        }
+    }
+
+    /**
+     * Test for pushing a burst of writes once and only if the best highscores changed.
+     *
+     * @throws Exception if the subscription fails
+     */
+    @Test
+    public void testPush() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/highscores/live")
+                        .param("topicId", String.valueOf(topic.getId()))
+                        .param("difficulty", "EASY")
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // the current leaderboard is sent when subscribed
+        String events = awaitEvents(result, 1);
+        assertEquals(1, countEvents(events));
+        assertTrue(events.contains("\"score\":500"));
+        assertFalse(events.contains("\"score\":200"));
+        assertEquals(1, highscoreLiveUpdates.getSubscriberCount());
+        double pushes = meterRegistry.get("highscore.live.pushes").counter().count();
+
+        // a burst of writes is pushed once
+        createHighscore(600);
+        createHighscore(700);
+        createHighscore(800);
+        highscoreLiveUpdates.push();
+        events = awaitEvents(result, 2);
+        assertEquals(2, countEvents(events));
+        assertTrue(events.contains("\"score\":800"));
+        assertEquals(pushes + 1, meterRegistry.get("highscore.live.pushes").counter().count());
+
+        // a write below the best highscores is not pushed
+        createHighscore(50);
+        highscoreLiveUpdates.push();
+        // no write, nothing is pushed
+        highscoreLiveUpdates.push();
+        assertEquals(2, countEvents(awaitEvents(result, 2)));
+        assertEquals(pushes + 1, meterRegistry.get("highscore.live.pushes").counter().count());
+    }
+
+    /**
+     * Test for removing a closed subscription, the channel is removed with its last subscriber.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    public void testUnsubscribe() throws InterruptedException {
+        Map<?, ?> channels = (Map<?, ?>) ReflectionTestUtils.getField(highscoreLiveUpdates, "channels");
+        int channelCount = channels.size();
+        int subscriberCount = highscoreLiveUpdates.getSubscriberCount();
+
+        // Call the method to be tested
+        SseEmitter emitter = highscoreLiveUpdates.subscribe(topic.getId(), Difficulty.HARD);
+        assertEquals(channelCount + 1, channels.size());
+        assertEquals(subscriberCount + 1, highscoreLiveUpdates.getSubscriberCount());
+        // the closed connection is detected by the next event
+        emitter.complete();
+        highscoreLiveUpdates.heartbeat();
+
+        // Check the result
+        long deadline = System.currentTimeMillis() + 5000;
+        while (channels.size() > channelCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(channelCount, channels.size());
+        assertEquals(subscriberCount, highscoreLiveUpdates.getSubscriberCount());
+    }
+
+    /**
+     * Test for subscribing to a topic which does not exist.
+     */
+    @Test
+    public void testSubscribe_ShouldThrowException() {
+        // Call the method to be tested and check the result
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> highscoreLiveUpdates.subscribe(-1L, Difficulty.EASY));
+        assertTrue(exception.getMessage().contains("Topic not found"));
+    }
+
+    /**
+     * Test for subscribing when the maximum number of subscriptions is open, the rejected subscription is not counted.
+     */
+    @Test
+    public void testSubscribe_TooManySubscriptions() {
+        int subscriberCount = highscoreLiveUpdates.getSubscriberCount();
+        ReflectionTestUtils.setField(highscoreLiveUpdates, "maxSubscribers", subscriberCount + 1);
+        try {
+            SseEmitter emitter = highscoreLiveUpdates.subscribe(topic.getId(), Difficulty.MEDIUM);
+
+            // Call the method to be tested and check the result
+            RuntimeException exception = assertThrows(RuntimeException.class, () -> highscoreLiveUpdates.subscribe(topic.getId(), Difficulty.MEDIUM));
+            assertTrue(exception.getMessage().contains("Too many leaderboard subscriptions"));
+            assertEquals(subscriberCount + 1, highscoreLiveUpdates.getSubscriberCount());
+            assertEquals(subscriberCount + 1, meterRegistry.get("highscore.live.subscribers").gauge().value());
+            emitter.complete();
+        } finally {
+            ReflectionTestUtils.setField(highscoreLiveUpdates, "maxSubscribers", 10000);
+        }
+    }
+
+    /**
+     * Creates an EASY highscore of the topic.
+     *
+     * @param score the score
+     */
+    private void createHighscore(int score) {
+        highscoreService.createHighscore(Highscore.builder().playerName("Player " + score).score(score).difficulty(Difficulty.EASY).topic(topic).build());
+    }
+
+    /**
+     * Waits until the events are sent by the sender threads.
+     *
+     * @param result   the subscription
+     * @param expected the number of expected leaderboard events
+     * @return the stream
+     * @throws Exception if the stream cannot be read
+     */
+    private static String awaitEvents(MvcResult result, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String events = result.getResponse().getContentAsString();
+        while (countEvents(events) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            events = result.getResponse().getContentAsString();
+        }
+        return events;
+    }
+
+    /**
+     * Counts the leaderboard events of a stream.
+     *
+     * @param events the stream
+     * @return the number of leaderboard events
+     */
+    private static int countEvents(String events) {
+        return events.split("event:" + HighscoreLiveUpdates.EVENT_NAME, -1).length - 1;
+    }
+}
@@ -1,18 +1,36 @@
 package ch.quizinno.brainquest.services;
 
+import ch.quizinno.brainquest.dtos.HighscorePageDTO;
+import ch.quizinno.brainquest.dtos.HighscoreRankDTO;
+import ch.quizinno.brainquest.dtos.HighscoreSummaryDTO;
+import ch.quizinno.brainquest.dtos.RankedHighscoreDTO;
 import ch.quizinno.brainquest.entities.Highscore;
 import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.ExportFormat;
+import ch.quizinno.brainquest.enums.LeaderboardWindow;
+import ch.quizinno.brainquest.enums.SortBy;
+import ch.quizinno.brainquest.enums.SortDir;
+import ch.quizinno.brainquest.models.HighscoreCursor;
 import ch.quizinno.brainquest.repositories.HighscoreRepository;
 import ch.quizinno.brainquest.repositories.TopicRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -47,6 +65,12 @@ public class HighscoreServiceTest {
     // Injected required dependency into the bean.
     @Autowired
     private TopicRepository topicRepository;
+    /**
+     * ObjectMapper for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private ObjectMapper objectMapper;
 
     /**
      * Method to setup data for testing.
@@ -92,18 +116,219 @@ public class HighscoreServiceTest {
     }
 
     /**
-     * Test for getting all highscores.
+     * Test for getting sorted and limited highscores.
+     */
+    @Test
+    public void testGetHighscores() {
+        // Call the method to be tested
+        List<HighscoreSummaryDTO> topHighscores = highscoreService.getHighscores(null, null, SortBy.SCORE, SortDir.DESC, 2);
+        List<HighscoreSummaryDTO> topicHighscores = highscoreService.getHighscores(1L, Difficulty.EASY, SortBy.PLAYER_NAME, SortDir.ASC, null);
+
+        // Check the result
+        assertEquals(2, topHighscores.size());
+        assertEquals(400, topHighscores.get(0).getScore());
+        assertEquals(300, topHighscores.get(1).getScore());
+        assertEquals(4, topicHighscores.size());
+        assertEquals("Player 1", topicHighscores.getFirst().getPlayerName());
+        assertEquals(1L, topicHighscores.getFirst().getTopicId());
+        assertEquals("Topic 1", topicHighscores.getFirst().getTopicName());
+        assertTrue(highscoreService.getHighscores(1L, Difficulty.HARD, SortBy.DIFFICULTY, SortDir.ASC, 10).isEmpty());
+        assertTrue(highscoreService.getHighscores(null, null, SortBy.ID, SortDir.ASC, 0).isEmpty());
+    }
+
+    /**
+     * Test for sorting the highscores and their pages by the stored rank of the difficulty and by topic.
+     */
+    @Test
+    public void testGetHighscores_SortByDifficultyAndTopic() {
+        Topic topic2 = topicRepository.save(Topic.builder().name("Topic 2").description("Description 2").build());
+        Highscore hard = highscoreRepository.save(Highscore.builder().playerName("Hard").score(10).difficulty(Difficulty.HARD).topic(topic2).build());
+        Highscore changed = highscoreRepository.save(Highscore.builder().playerName("Changed").score(10).difficulty(Difficulty.MEDIUM).topic(topic2).build());
+        highscoreService.updateHighscore(changed.getId(), Highscore.builder().difficulty(Difficulty.HARD).build());
+
+        // Call the method to be tested
+        List<HighscoreSummaryDTO> byDifficulty = highscoreService.getHighscores(null, null, SortBy.DIFFICULTY, SortDir.DESC, 3);
+        List<HighscoreSummaryDTO> byTopic = highscoreService.getHighscores(null, null, SortBy.TOPIC, SortDir.DESC, 2);
+
+        // Check the result, the rank of the difficulty follows its update
+        assertEquals(2, hard.getDifficultyRank());
+        assertEquals(2, highscoreRepository.findById(changed.getId()).get().getDifficultyRank());
+        assertEquals(List.of("Changed", "Hard", "Player 4"), byDifficulty.stream().map(HighscoreSummaryDTO::getPlayerName).toList());
+        assertEquals(List.of(topic2.getId(), topic2.getId()), byTopic.stream().map(HighscoreSummaryDTO::getTopicId).toList());
+        for (SortBy sortBy : List.of(SortBy.DIFFICULTY, SortBy.TOPIC)) {
+            for (SortDir sortDir : SortDir.values()) {
+                // the pages are in the order of the sorted list
+                List<Long> expectedIds = highscoreService.getHighscores(null, null, sortBy, sortDir, null).stream().map(HighscoreSummaryDTO::getId).toList();
+                assertEquals(expectedIds, getAllPages(null, null, sortBy, sortDir).stream().map(HighscoreSummaryDTO::getId).toList(), sortBy + " " + sortDir);
+            }
+        }
+    }
+
+    /**
+     * Test for getting the daily, weekly and all-time leaderboards.
+     */
+    @Test
+    public void testGetLeaderboard() {
+        // Call the method to be tested
+        List<HighscoreSummaryDTO> daily = highscoreService.getLeaderboard(1L, Difficulty.EASY, LeaderboardWindow.DAILY, null, 2);
+        List<HighscoreSummaryDTO> weekly = highscoreService.getLeaderboard(1L, Difficulty.EASY, LeaderboardWindow.WEEKLY, null, 10);
+        List<HighscoreSummaryDTO> allTime = highscoreService.getLeaderboard(1L, Difficulty.EASY, LeaderboardWindow.ALL_TIME, null, 10);
+
+        // Check the result, all highscores are created today
+        assertEquals(List.of(400, 300), daily.stream().map(HighscoreSummaryDTO::getScore).toList());
+        assertEquals(4, weekly.size());
+        assertEquals(4, allTime.size());
+        assertTrue(highscoreService.getLeaderboard(1L, Difficulty.EASY, LeaderboardWindow.DAILY, LocalDate.now().minusYears(1), 10).isEmpty());
+        assertThrows(RuntimeException.class, () -> highscoreService.getLeaderboard(1L, Difficulty.EASY, LeaderboardWindow.DAILY, null, 0));
+    }
+
+    /**
+     * Test for reading all highscores page by page.
+     */
+    @Test
+    public void testGetHighscorePage() {
+        for (SortBy sortBy : SortBy.values()) {
+            for (SortDir sortDir : SortDir.values()) {
+                // Call the method to be tested, with and without filter
+                List<HighscoreSummaryDTO> pagedHighscores = getAllPages(null, null, sortBy, sortDir);
+                List<HighscoreSummaryDTO> filteredHighscores = getAllPages(1L, Difficulty.EASY, sortBy, sortDir);
+
+                // Check the result, the pages are in the order of the sorted list
+                List<Long> expectedIds = highscoreService.getHighscores(null, null, sortBy, sortDir, null).stream().map(HighscoreSummaryDTO::getId).toList();
+                assertEquals(expectedIds, pagedHighscores.stream().map(HighscoreSummaryDTO::getId).toList(), sortBy + " " + sortDir);
+                assertEquals(expectedIds, filteredHighscores.stream().map(HighscoreSummaryDTO::getId).toList(), sortBy + " " + sortDir);
+            }
+        }
+
+        HighscorePageDTO page = highscoreService.getHighscorePage(1L, Difficulty.EASY, SortBy.SCORE, SortDir.DESC, null, 3);
+        assertEquals(List.of(400, 300, 200), page.getHighscores().stream().map(HighscoreSummaryDTO::getScore).toList());
+        assertNotNull(page.getNextCursor());
+        assertThrows(RuntimeException.class, () -> highscoreService.getHighscorePage(null, null, SortBy.SCORE, SortDir.ASC, page.getNextCursor(), 3));
+        assertThrows(RuntimeException.class, () -> highscoreService.getHighscorePage(null, null, SortBy.SCORE, SortDir.DESC, "invalid", 3));
+        assertThrows(RuntimeException.class, () -> highscoreService.getHighscorePage(null, null, SortBy.SCORE, SortDir.DESC, null, 0));
+    }
+
+    /**
+     * Test for reading the pages sorted by player name with a highscore without name, and for a cursor with an invalid score.
+     */
+    @Test
+    public void testGetHighscorePage_WithoutPlayerName() {
+        highscoreRepository.save(Highscore.builder().score(50).difficulty(Difficulty.EASY).topic(topicRepository.findById(1L).get()).build());
+
+        for (SortDir sortDir : SortDir.values()) {
+            // Call the method to be tested
+            List<HighscoreSummaryDTO> pagedHighscores = getAllPages(null, null, SortBy.PLAYER_NAME, sortDir);
+
+            // Check the result, the highscore without name is skipped and no other highscore is lost
+            List<Long> expectedIds = highscoreService.getHighscores(null, null, SortBy.PLAYER_NAME, sortDir, null).stream()
+                    .filter(highscore -> highscore.getPlayerName() != null)
+                    .map(HighscoreSummaryDTO::getId)
+                    .toList();
+            assertEquals(expectedIds, pagedHighscores.stream().map(HighscoreSummaryDTO::getId).toList(), sortDir.name());
+        }
+
+        String invalidScore = new HighscoreCursor(SortBy.SCORE, SortDir.DESC, "abc", 1L).encode();
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> highscoreService.getHighscorePage(null, null, SortBy.SCORE, SortDir.DESC, invalidScore, 3));
+        assertTrue(exception.getMessage().contains("Invalid cursor"));
+    }
+
+    /**
+     * Reads all pages of highscores with a page size of 1.
+     *
+     * @param topicId    the ID of the topic to filter by or null
+     * @param difficulty the difficulty to filter by or null
+     * @param sortBy     the field to sort the highscores by
+     * @param sortDir    the direction to sort the highscores
+     * @return the highscores of all pages
+     */
+    private List<HighscoreSummaryDTO> getAllPages(Long topicId, Difficulty difficulty, SortBy sortBy, SortDir sortDir) {
+        List<HighscoreSummaryDTO> highscores = new ArrayList<>();
+        String cursor = null;
+        do {
+            HighscorePageDTO page = highscoreService.getHighscorePage(topicId, difficulty, sortBy, sortDir, cursor, 1);
+            highscores.addAll(page.getHighscores());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return highscores;
+    }
+
+    /**
+     * Test for exporting all highscores as NDJSON.
+     *
+     * @throws IOException if the export cannot be written
+     */
+    @Test
+    public void testExportHighscores_Ndjson() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // Call the method to be tested
+        highscoreService.exportHighscores(ExportFormat.NDJSON, outputStream);
+
+        // Check the result
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(highscoreRepository.count(), lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Player 1", first.get("playerName").asText());
+        assertEquals(100, first.get("score").asInt());
+        assertEquals("EASY", first.get("difficulty").asText());
+        assertEquals("Topic 1", first.get("topicName").asText());
+    }
+
+    /**
+     * Test for exporting all highscores as CSV.
+     *
+     * @throws IOException if the export cannot be written
+     */
+    @Test
+    public void testExportHighscores_Csv() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        Highscore highscore = highscoreRepository.findAll(Sort.by("id")).getFirst();
+        highscore.setPlayerName("Player, \"quoted\"");
+        highscoreRepository.save(highscore);
+
+        // Call the method to be tested
+        highscoreService.exportHighscores(ExportFormat.CSV, outputStream);
+
+        // Check the result
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(highscoreRepository.count() + 1, lines.length);
+        assertEquals("id,playerName,score,difficulty,topicId,topicName", lines[0]);
+        assertEquals(highscore.getId() + ",\"Player, \"\"quoted\"\"\",100,EASY,1,Topic 1", lines[1]);
+    }
+
+    /**
+     * Test for getting the rank of a score.
      */
     @Test
-    public void testGetAllHighscores() {
+    public void testGetHighscoreRank() {
         // Call the method to be tested
-        List<Highscore> highscores = highscoreService.getAllHighscores();
+        HighscoreRankDTO rank = highscoreService.getHighscoreRank(1L, Difficulty.EASY, 250);
 
         // Check the result
-        assertNotNull(highscores);
-        assertEquals("Player 1", highscores.getFirst().getPlayerName());
-        assertEquals(100, highscores.getFirst().getScore());
-        assertEquals(Difficulty.EASY, highscores.getFirst().getDifficulty());
+        assertEquals(250, rank.getScore());
+        assertEquals(3, rank.getRank());
+        assertEquals(4, rank.getTotal());
+        assertEquals(2, highscoreService.getHighscoreRank(1L, Difficulty.EASY, 300).getRank());
+        assertEquals(1, highscoreService.getHighscoreRank(1L, Difficulty.HARD, 0).getRank());
+    }
+
+    /**
+     * Test for getting the highscores around a player.
+     */
+    @Test
+    public void testGetHighscoresAroundPlayer() {
+        // Call the method to be tested
+        List<RankedHighscoreDTO> highscores = highscoreService.getHighscoresAroundPlayer(1L, Difficulty.EASY, "Player 3", 1);
+
+        // Check the result
+        assertEquals(List.of("Player 4", "Player 3", "Player 2"), highscores.stream().map(RankedHighscoreDTO::getPlayerName).toList());
+        assertEquals(List.of(1L, 2L, 3L), highscores.stream().map(RankedHighscoreDTO::getRank).toList());
+        // the lowest score, all 3 higher scores are within the size
+        assertEquals(List.of("Player 4", "Player 3", "Player 2", "Player 1"),
+                highscoreService.getHighscoresAroundPlayer(1L, Difficulty.EASY, "Player 1", 5).stream().map(RankedHighscoreDTO::getPlayerName).toList());
+        assertThrows(RuntimeException.class, () -> highscoreService.getHighscoresAroundPlayer(1L, Difficulty.EASY, "Unknown", 5));
+        assertThrows(RuntimeException.class, () -> highscoreService.getHighscoresAroundPlayer(1L, Difficulty.EASY, "Player 1", 0));
     }
 
     /**
@@ -144,6 +369,22 @@ public class HighscoreServiceTest {
         assertEquals(Difficulty.HARD, createdHighscore.getDifficulty());
     }
 
+    /**
+     * Test for creating a highscore without topic, the topic is part of the primary key as in PostgreSQL.
+     */
+    @Test
+    public void testCreateHighscore_ShouldRequireTopic() {
+        // Create a new highscore without topic
+        Highscore highscore = new Highscore();
+        highscore.setScore(500);
+        highscore.setPlayerName("Player 5");
+        highscore.setDifficulty(Difficulty.HARD);
+
+        // Call the method to be tested
+        // Check the result
+        assertThrows(DataIntegrityViolationException.class, () -> highscoreRepository.saveAndFlush(highscore));
+    }
+
     /**
      * Test for updating a highscore.
      */
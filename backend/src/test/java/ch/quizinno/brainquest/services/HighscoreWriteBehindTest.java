@@ -0,0 +1,119 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.entities.Highscore;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.repositories.HighscoreRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HighscoreWriteBehind.
+ */
+// Create application context for testing, a long flush interval keeps the highscores queued
+@SpringBootTest(properties = "HIGHSCORE_FLUSH_INTERVAL=60000")
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class HighscoreWriteBehindTest {
+    /**
+     * HighscoreWriteBehind for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreWriteBehind highscoreWriteBehind;
+    /**
+     * HighscoreRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private HighscoreRepository highscoreRepository;
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * MeterRegistry for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * The topic used for testing.
+     */
+    private Topic topic;
+
+    /**
+     * Method to setup data for testing.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        topic = new Topic();
+        topic.setName("Write Behind Topic");
+        topic.setDescription("Description 1");
+        topicRepository.save(topic);
+    }
+
+    /**
+     * Test for writing queued highscores in a batch.
+     */
+    @Test
+    public void testSubmitAndFlush() {
+        long before = highscoreRepository.count();
+        List<Highscore> highscores = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            highscores.add(Highscore.builder()
+                    .playerName("Player " + i)
+                    .score(i)
+                    .difficulty(Difficulty.EASY)
+                    .topic(topic)
+                    .build());
+        }
+
+        // Call the methods to be tested
+        highscores.forEach(highscoreWriteBehind::submit);
+        highscoreWriteBehind.flush();
+
+        // Check the result
+        assertEquals(0, highscoreWriteBehind.getQueueDepth());
+        assertEquals(before + 10, highscoreRepository.count());
+        assertTrue(highscores.stream().allMatch(highscore -> highscore.getId() != null));
+        assertEquals("Player 3", highscoreRepository.findById(highscores.get(3).getId()).orElseThrow().getPlayerName());
+        assertNotNull(meterRegistry.find("highscore.writebehind.queue.depth").gauge());
+        assertTrue(meterRegistry.find("highscore.writebehind.flush").timer().count() > 0);
+    }
+
+    /**
+     * Test for a highscore which cannot be written.
+     */
+    @Test
+    public void testFlush_InvalidHighscore() {
+        long before = highscoreRepository.count();
+        Topic unknownTopic = new Topic();
+        unknownTopic.setId(-1L);
+
+        // Call the methods to be tested
+        highscoreWriteBehind.submit(Highscore.builder().playerName("Valid").score(1).difficulty(Difficulty.EASY).topic(topic).build());
+        highscoreWriteBehind.submit(Highscore.builder().playerName("Invalid").score(1).difficulty(Difficulty.EASY).topic(unknownTopic).build());
+        highscoreWriteBehind.flush();
+
+        // Check the result, the valid highscore of the batch is still written
+        assertEquals(before + 1, highscoreRepository.count());
+    }
+}
@@ -3,24 +3,34 @@ package ch.quizinno.brainquest.services;
 import ch.quizinno.brainquest.dtos.CorrectQuestionDTO;
 import ch.quizinno.brainquest.dtos.QuizCorrectAnswerDTO;
 import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizRoundDTO;
+import ch.quizinno.brainquest.dtos.QuizRoundResultDTO;
 import ch.quizinno.brainquest.entities.Answer;
 import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.entities.Topic;
 import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.enums.SamplingMode;
 import ch.quizinno.brainquest.repositories.AnswerRepository;
 import ch.quizinno.brainquest.repositories.QuestionRepository;
+import ch.quizinno.brainquest.repositories.TopicDifficultyRepository;
 import ch.quizinno.brainquest.repositories.TopicRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 // Create application context for testing
 @SpringBootTest
@@ -48,8 +58,32 @@ public class QuestionServiceTest {
     // Injected required dependency into the bean.
     @Autowired
     private AnswerRepository answerRepository;
+    /**
+     * QuestionPlayability to compute the playable state of the test data.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionPlayability questionPlayability;
+    /**
+     * TopicDifficultyRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicDifficultyRepository topicDifficultyRepository;
     @Autowired
     private QuestionService questionService;
+    /**
+     * ObjectMapper for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private ObjectMapper objectMapper;
+    /**
+     * HighscoreService to verify the submitted highscores.
+     */
+    // Spy on the required dependency.
+    @SpyBean
+    private HighscoreService highscoreService;
 
     /**
      * Method to setup data for testing.
@@ -118,6 +152,9 @@ public class QuestionServiceTest {
         answer4.setQuestion(question10);
         answerRepository.save(answer4);
 
+
+        // the data is written by the repositories, the playable state is computed once
+        questionPlayability.rebuild();
     }
 
     /**
@@ -186,6 +223,26 @@ public class QuestionServiceTest {
         assertEquals("Info 2 updated", updatedQuestion.getInfo());
     }
 
+    /**
+     * Test for moving a playable question to another difficulty.
+     */
+    @Test
+    public void testUpdateQuestion_ShouldMoveTopicDifficulty() {
+        // Question 10 is the only playable question of the topic
+        Long topicId = questionRepository.findById(4L).get().getTopic().getId();
+        assertEquals(1, topicDifficultyRepository.findByTopicIdAndDifficulty(topicId, Difficulty.HARD).get().getPlayableQuestions());
+        Question question = new Question();
+        question.setDifficulty(Difficulty.MEDIUM);
+
+        // Call the method to be tested
+        questionService.updateQuestion(4L, question);
+
+        // Check the result
+        assertTrue(topicDifficultyRepository.findByTopicIdAndDifficulty(topicId, Difficulty.HARD).isEmpty());
+        assertEquals(1, topicDifficultyRepository.findByTopicIdAndDifficulty(topicId, Difficulty.MEDIUM).get().getPlayableQuestions());
+        assertEquals(List.of(4L), questionRepository.findPlayableIdsByTopicIdAndDifficulty(topicId, Difficulty.MEDIUM));
+    }
+
     /**
      * Test for updating a question.
      */
@@ -255,6 +312,20 @@ public class QuestionServiceTest {
         assertEquals("Info 10", questions.getFirst().getInfo());
     }
 
+    /**
+     * Test for getting the playable questions by topic ID.
+     */
+    @Test
+    public void testGetPlayableQuestionsByTopicId() {
+        // Call the method to be tested
+        List<Question> questions = questionService.getPlayableQuestionsByTopicId(1L);
+
+        // Check the result
+        assertEquals(1, questions.size());
+        assertEquals("Question 10", questions.getFirst().getQuestion());
+        assertEquals("Topic 1", questions.getFirst().getTopic().getName());
+    }
+
     /**
      * Test for getting quiz questions.
      */
@@ -271,6 +342,51 @@ public class QuestionServiceTest {
         assertEquals(4, quizQuestionDTO.getAnswers().size());
     }
 
+    /**
+     * Test for prefetching quiz questions.
+     *
+     * @throws Exception if the payload is not valid JSON
+     */
+    @Test
+    public void testGetQuizQuestionPayloads() throws Exception {
+        // Call the method to be tested
+        QuizQuestionDTO[] quizQuestionDTOs = objectMapper.readValue(questionService.getQuizQuestionPayloads(1L, Difficulty.HARD, List.of(1L), 5), QuizQuestionDTO[].class);
+
+        // Check the result, only one question is playable
+        assertEquals(1, quizQuestionDTOs.length);
+        assertEquals("Question 10", quizQuestionDTOs[0].getQuestion());
+        assertEquals(4, quizQuestionDTOs[0].getAnswers().size());
+        // all questions excluded
+        assertEquals(0, objectMapper.readValue(questionService.getQuizQuestionPayloads(1L, Difficulty.HARD, List.of(quizQuestionDTOs[0].getId()), 5), QuizQuestionDTO[].class).length);
+        // invalid count
+        assertThrows(RuntimeException.class, () -> questionService.getQuizQuestionPayloads(1L, Difficulty.HARD, List.of(), 0));
+    }
+
+    /**
+     * Test for getting quiz questions sampled in the database.
+     */
+    @Test
+    public void testGetQuizQuestions_DatabaseSampling() {
+        // switch to database sampling
+        ReflectionTestUtils.setField(questionService, "samplingMode", SamplingMode.DATABASE);
+
+        try {
+            // Call the method to be tested
+            QuizQuestionDTO quizQuestionDTO = questionService.getQuizQuestion(1L, Difficulty.HARD, List.of(1L), "Player 1", 100);
+            Long excludedQuestionId = quizQuestionDTO.getId();
+
+            // Check the result
+            assertEquals("Question 10", quizQuestionDTO.getQuestion());
+            assertEquals(4, quizQuestionDTO.getAnswers().size());
+            // all questions excluded
+            assertNull(questionService.getQuizQuestion(1L, Difficulty.HARD, List.of(excludedQuestionId), "Player 1", 100));
+            // no playable questions
+            assertThrows(RuntimeException.class, () -> questionService.getQuizQuestion(1L, Difficulty.MEDIUM, List.of(), "Player 1", 100));
+        } finally {
+            ReflectionTestUtils.setField(questionService, "samplingMode", SamplingMode.INDEX);
+        }
+    }
+
     /**
      * Test for getting quiz questions.
      */
@@ -328,6 +444,35 @@ public class QuestionServiceTest {
         assertEquals(1, correctQuestionDTO.getCorrectAnswerId());
     }
 
+    /**
+     * Test for a wrong answer to a question without topic, no highscore can be written for it.
+     */
+    @Test
+    public void testCheckCorrectAnswer_WrongAnswerWithoutTopic() {
+        Question question = new Question();
+        question.setQuestion("Question without topic");
+        question.setInfo("Info without topic");
+        question.setDifficulty(Difficulty.EASY);
+        questionRepository.save(question);
+        Answer correctAnswer = answerRepository.save(Answer.builder().answer("Correct").correct(true).question(question).build());
+        Answer wrongAnswer = answerRepository.save(Answer.builder().answer("Wrong").correct(false).question(question).build());
+
+        // build DTO
+        QuizCorrectAnswerDTO quizCorrectAnswerDTO = new QuizCorrectAnswerDTO();
+        quizCorrectAnswerDTO.setAnswerId(wrongAnswer.getId());
+        quizCorrectAnswerDTO.setPlayerName("test");
+        quizCorrectAnswerDTO.setScore(100);
+
+        // Call the method to be tested
+        CorrectQuestionDTO correctQuestionDTO = questionService.checkCorrectAnswer(question.getId(), quizCorrectAnswerDTO);
+
+        // Check the result
+        assertEquals("Info without topic", correctQuestionDTO.getInfo());
+        assertFalse(correctQuestionDTO.isCorrect());
+        assertEquals(correctAnswer.getId(), correctQuestionDTO.getCorrectAnswerId());
+        verify(highscoreService, never()).submitHighscore(any());
+    }
+
     /**
      * Test for correcting the answer.
      */
@@ -347,6 +492,36 @@ public class QuestionServiceTest {
         assertThrows(RuntimeException.class, () -> questionService.checkCorrectAnswer(null, quizCorrectAnswerDTO));
         assertThrows(RuntimeException.class, () -> questionService.checkCorrectAnswer(questionId, null));
     }
+    /**
+     * Test for submitting a round.
+     */
+    @Test
+    public void testSubmitRound() {
+        // get question id
+        Long questionId = answerRepository.findById(1L).get().getQuestion().getId();
+
+        // Call the method to be tested
+        QuizRoundResultDTO correctRound = questionService.submitRound(questionId, QuizRoundDTO.builder()
+                .answerId(1L)
+                .playerName("test")
+                .score(100)
+                .excludeIds(List.of())
+                .build());
+        QuizRoundResultDTO wrongRound = questionService.submitRound(questionId, QuizRoundDTO.builder()
+                .answerId(2L)
+                .playerName("test")
+                .score(100)
+                .build());
+
+        // Check the result, the answered question is the only playable question so the game is completed
+        assertTrue(correctRound.getCorrectQuestion().isCorrect());
+        assertEquals(1, correctRound.getCorrectQuestion().getCorrectAnswerId());
+        assertNull(correctRound.getNextQuestion());
+        assertFalse(wrongRound.getCorrectQuestion().isCorrect());
+        assertNull(wrongRound.getNextQuestion());
+        assertThrows(RuntimeException.class, () -> questionService.submitRound(questionId, new QuizRoundDTO()));
+    }
+
     /**
      * Test for using joker.
      */
@@ -0,0 +1,254 @@
+package ch.quizinno.brainquest.services;
+
+import ch.quizinno.brainquest.dtos.CorrectQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizQuestionDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionAnswerDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionDTO;
+import ch.quizinno.brainquest.dtos.QuizSessionStartDTO;
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
+import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.models.QuizSession;
+import ch.quizinno.brainquest.repositories.AnswerRepository;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
+import ch.quizinno.brainquest.repositories.TopicRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for QuizSessionService.
+ */
+// Create application context for testing
+@SpringBootTest
+// Single database transaction for all tests
+@Transactional
+// Create a new instance of the test class for each test method
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// Reset the context after each test class
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class QuizSessionServiceTest {
+    /**
+     * QuizSessionService for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuizSessionService quizSessionService;
+    /**
+     * TopicRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicRepository topicRepository;
+    /**
+     * QuestionRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionRepository questionRepository;
+    /**
+     * AnswerRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerRepository answerRepository;
+    /**
+     * QuestionPlayability to compute the playable state of the test data.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionPlayability questionPlayability;
+
+    /**
+     * The topic used for testing.
+     */
+    private Topic topic;
+    /**
+     * The correct answer of the question used for testing.
+     */
+    private Answer correctAnswer;
+
+    /**
+     * Method to setup data for testing.
+     */
+    // Run before all tests in the class
+    @BeforeAll
+    public void setup() {
+        topic = new Topic();
+        topic.setName("Topic 1");
+        topic.setDescription("Description 1");
+        topicRepository.save(topic);
+
+        Question question = new Question();
+        question.setQuestion("Question 1");
+        question.setInfo("Info 1");
+        question.setDifficulty(Difficulty.EASY);
+        question.setTopic(topic);
+        questionRepository.save(question);
+
+        for (int i = 0; i < 4; i++) {
+            Answer answer = new Answer();
+            answer.setAnswer("Answer " + i);
+            answer.setCorrect(i == 0);
+            answer.setQuestion(question);
+            answerRepository.save(answer);
+            if (i == 0) {
+                correctAnswer = answer;
+            }
+        }
+
+        // the data is written by the repositories, the playable state is computed once
+        questionPlayability.rebuild();
+    }
+
+    /**
+     * Starts a session for the test topic.
+     *
+     * @return the started session
+     */
+    private QuizSessionDTO startSession() {
+        return quizSessionService.startSession(QuizSessionStartDTO.builder()
+                .topicId(topic.getId())
+                .difficulty(Difficulty.EASY)
+                .playerName("Player 1")
+                .build());
+    }
+
+    /**
+     * Test for playing a complete quiz session.
+     */
+    @Test
+    public void testPlaySession() {
+        // Call the methods to be tested
+        QuizSessionDTO quizSessionDTO = startSession();
+        QuizQuestionDTO quizQuestionDTO = quizSessionService.nextQuestion(quizSessionDTO.getId());
+        CorrectQuestionDTO correctQuestionDTO = quizSessionService.answerQuestion(quizSessionDTO.getId(), new QuizSessionAnswerDTO(correctAnswer.getId()));
+
+        // Check the result
+        assertEquals("Question 1", quizQuestionDTO.getQuestion());
+        assertEquals(4, quizQuestionDTO.getAnswers().size());
+        assertTrue(correctQuestionDTO.isCorrect());
+        assertEquals(1, quizSessionService.getSession(quizSessionDTO.getId()).get().getScore());
+
+        // no more questions available, the session ends
+        assertNull(quizSessionService.nextQuestion(quizSessionDTO.getId()));
+        assertTrue(quizSessionService.getSession(quizSessionDTO.getId()).isEmpty());
+    }
+
+    /**
+     * Test for answering a question wrong.
+     */
+    @Test
+    public void testAnswerQuestion_WrongAnswer() {
+        QuizSessionDTO quizSessionDTO = startSession();
+        quizSessionService.nextQuestion(quizSessionDTO.getId());
+
+        // Call the method to be tested
+        CorrectQuestionDTO correctQuestionDTO = quizSessionService.answerQuestion(quizSessionDTO.getId(), new QuizSessionAnswerDTO(0L));
+
+        // Check the result
+        assertFalse(correctQuestionDTO.isCorrect());
+        assertTrue(quizSessionService.getSession(quizSessionDTO.getId()).isEmpty());
+    }
+
+    /**
+     * Test for answering without a pending question.
+     */
+    @Test
+    public void testAnswerQuestion_ShouldThrowException() {
+        QuizSessionDTO quizSessionDTO = startSession();
+
+        // Call the method to be tested
+        // Check the result
+        assertThrows(RuntimeException.class, () -> quizSessionService.answerQuestion(quizSessionDTO.getId(), new QuizSessionAnswerDTO(correctAnswer.getId())));
+        assertThrows(RuntimeException.class, () -> quizSessionService.nextQuestion(UUID.randomUUID()));
+    }
+
+    /**
+     * Test for starting a session without questions.
+     */
+    @Test
+    public void testStartSession_ShouldThrowException() {
+        // Call the method to be tested
+        // Check the result
+        assertThrows(RuntimeException.class, () -> quizSessionService.startSession(QuizSessionStartDTO.builder()
+                .topicId(topic.getId())
+                .difficulty(Difficulty.HARD)
+                .playerName("Player 1")
+                .build()));
+        assertThrows(RuntimeException.class, () -> quizSessionService.startSession(new QuizSessionStartDTO()));
+    }
+
+    /**
+     * Test for ending a session.
+     */
+    @Test
+    public void testEndSession() {
+        QuizSessionDTO quizSessionDTO = startSession();
+
+        // Call the method to be tested
+        quizSessionService.endSession(quizSessionDTO.getId());
+
+        // Check the result
+        assertTrue(quizSessionService.getSession(quizSessionDTO.getId()).isEmpty());
+        assertThrows(RuntimeException.class, () -> quizSessionService.endSession(quizSessionDTO.getId()));
+    }
+
+    /**
+     * Test for rejecting new sessions once the maximum number of sessions is reached.
+     */
+    @Test
+    public void testStartSession_ShouldRejectTooManySessions() {
+        Object maxSessions = ReflectionTestUtils.getField(quizSessionService, "maxSessions");
+        // room for a single session
+        ReflectionTestUtils.setField(quizSessionService, "maxSessions", quizSessionService.getSessionCount() + 1);
+
+        try {
+            QuizSessionDTO quizSessionDTO = startSession();
+
+            // Call the method to be tested
+            RuntimeException exception = assertThrows(RuntimeException.class, this::startSession);
+
+            // Check the result
+            assertTrue(exception.getMessage().contains("Too many quiz sessions"));
+
+            // an ended session makes room for a new one
+            quizSessionService.endSession(quizSessionDTO.getId());
+            quizSessionService.endSession(startSession().getId());
+        } finally {
+            ReflectionTestUtils.setField(quizSessionService, "maxSessions", maxSessions);
+        }
+    }
+
+    /**
+     * Test for tracking served questions with IDs beyond the int range.
+     */
+    @Test
+    public void testMarkServed_LargeQuestionIds() {
+        QuizSession quizSession = new QuizSession(topic.getId(), Difficulty.EASY, "Player 1");
+        long[] questionIds = {1L, 50L, Integer.MAX_VALUE + 1L, 1L << 40, Long.MAX_VALUE};
+
+        // Call the method to be tested
+        for (long questionId : questionIds) {
+            quizSession.markServed(questionId);
+        }
+        quizSession.markServed(50L);
+
+        // Check the result
+        for (long questionId : questionIds) {
+            assertTrue(quizSession.isServed(questionId));
+        }
+        assertFalse(quizSession.isServed(51L));
+        assertEquals(questionIds.length, quizSession.getServedCount());
+    }
+}
@@ -1,8 +1,18 @@
 package ch.quizinno.brainquest.services;
 
+import ch.quizinno.brainquest.caches.TopicCatalogCache;
 import ch.quizinno.brainquest.dtos.TopicDTO;
+import ch.quizinno.brainquest.entities.Answer;
+import ch.quizinno.brainquest.entities.Question;
 import ch.quizinno.brainquest.entities.Topic;
+import ch.quizinno.brainquest.enums.Difficulty;
+import ch.quizinno.brainquest.repositories.AnswerRepository;
+import ch.quizinno.brainquest.repositories.QuestionRepository;
 import ch.quizinno.brainquest.repositories.TopicRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -18,8 +28,8 @@ import static org.junit.jupiter.api.Assertions.*;
 /**
  * Test class for TopicService.
  */
-// Create application context for testing
-@SpringBootTest
+// Create application context for testing with Hibernate statistics to count the statements
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 // Single database transaction for all tests
 @Transactional
 // Create a new instance of the test class for each test method
@@ -39,6 +49,42 @@ public class TopicServiceTest {
     // Injected required dependency into the bean.
     @Autowired
     private TopicRepository topicRepository;
+    /**
+     * QuestionRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionRepository questionRepository;
+    /**
+     * AnswerRepository for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private AnswerRepository answerRepository;
+    /**
+     * TopicCatalogCache for testing.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private TopicCatalogCache topicCatalogCache;
+    /**
+     * QuestionPlayability to compute the playable state of the test data.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private QuestionPlayability questionPlayability;
+    /**
+     * EntityManager to write the pending test data before counting the statements.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private EntityManager entityManager;
+    /**
+     * EntityManagerFactory to access the Hibernate statistics.
+     */
+    // Injected required dependency into the bean.
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     /**
      * Method to setup data for testing.
@@ -79,6 +125,47 @@ public class TopicServiceTest {
         assertEquals(0, topics.getFirst().getDifficulty().size());
     }
 
+    /**
+     * Test for getting all topics with the difficulties of their playable questions in a single statement.
+     */
+    @Test
+    public void testGetTopics_ShouldUseSingleStatement() {
+        Topic topic = new Topic();
+        topic.setName("Topic 5");
+        topic.setDescription("Description 5");
+        topicRepository.save(topic);
+        // playable questions with 4 answers, HARD twice
+        createQuestion(topic, Difficulty.HARD, 4);
+        createQuestion(topic, Difficulty.HARD, 4);
+        createQuestion(topic, Difficulty.EASY, 4);
+        // not playable
+        createQuestion(topic, Difficulty.MEDIUM, 3);
+        createQuestion(topic, Difficulty.MEDIUM, 0);
+        // the data is written by the repositories, not by the services
+        questionPlayability.rebuild();
+        topicCatalogCache.invalidate();
+        // the pooled IDs keep the playable difficulties pending until the next flush
+        entityManager.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Call the method to be tested
+        List<TopicDTO> topics = topicService.getAllTopics();
+
+        // Check the result, one statement regardless of the number of topics and questions
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(4, topics.size());
+        assertEquals(List.of("Topic 1", "Topic 2", "Topic 3", "Topic 5"), topics.stream().map(TopicDTO::getName).toList());
+        assertEquals(List.of(Difficulty.EASY, Difficulty.HARD), topics.getLast().getDifficulty());
+        assertEquals(List.of(), topics.get(1).getDifficulty());
+
+        // the unchanged catalog is not loaded again
+        statistics.clear();
+        assertSame(topics, topicService.getAllTopics());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
     /**
      * Test for getting a topic by its ID.
      */
@@ -170,4 +257,18 @@ public class TopicServiceTest {
         // Check the result
         assertThrows(RuntimeException.class, () -> topicService.deleteTopic(100L));
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a question of a topic with answers, the first answer is correct.
+     *
+     * @param topic      the topic of the question
+     * @param difficulty the difficulty of the question
+     * @param answers    the number of answers
+     */
+    private void createQuestion(Topic topic, Difficulty difficulty, int answers) {
+        Question question = questionRepository.save(Question.builder().question("Question").difficulty(difficulty).topic(topic).build());
+        for (int i = 0; i < answers; i++) {
+            answerRepository.save(Answer.builder().answer("Answer " + i).correct(i == 0).question(question).build());
+        }
+    }
+}
@@ -6,7 +6,7 @@ import TableStyles from '@/styles/TableStyles';
 
 interface Highscore {
     playerName: string;
-    topic: { name: string };
+    topicName: string;
     difficulty: string;
     score: number;
 }
@@ -21,8 +21,7 @@ interface HighscoreTableProps {
  * @param {HighscoreTableProps} props - The props for the component.
  * @param {Highscore[]} props.highscores - An array of highscore objects.
  * @param {string} props.highscores[].playerName - The name of the player.
- * @param {Object} props.highscores[].topic - The topic of the quiz.
- * @param {string} props.highscores[].topic.name - The name of the topic.
+ * @param {string} props.highscores[].topicName - The name of the topic of the quiz.
  * @param {string} props.highscores[].difficulty - The difficulty level of the quiz.
  * @param {number} props.highscores[].score - The score achieved by the player.
  * @returns {JSX.Element} The rendered HighscoreTable component.
@@ -52,7 +51,7 @@ const HighscoreTable: React.FC<HighscoreTableProps> = ({ highscores }) => {
                             >
                                 <Text style={TableStyles.tableCell}>{index + 1}</Text>
                                 <Text style={TableStyles.tableCell}>{highscore.playerName}</Text>
-                                <Text style={TableStyles.tableCell}>{highscore.topic.name}</Text>
+                                <Text style={TableStyles.tableCell}>{highscore.topicName}</Text>
                                 <Text style={TableStyles.tableCell}>{highscore.difficulty}</Text>
                                 <Text style={[TableStyles.tableCell, TableStyles.lastTableCell]}>{highscore.score}</Text>
                             </View>